@@ -147,11 +147,11 @@ export const postService = {
   deletePost: async (id: number): Promise<void> => {
     await postApi.delete(`/api/posts/${id}`);
   },
-  likePost: async (id: number): Promise<void> => {
-    await postApi.post(`/api/posts/${id}/like`);
+  likePost: async (id: number, userId: number): Promise<void> => {
+    await postApi.post(`/api/posts/${id}/like`, null, { params: { userId } });
   },
-  unlikePost: async (id: number): Promise<void> => {
-    await postApi.delete(`/api/posts/${id}/like`);
+  unlikePost: async (id: number, userId: number): Promise<void> => {
+    await postApi.delete(`/api/posts/${id}/like`, { params: { userId } });
   },
   searchPosts: async (
     location?: string,
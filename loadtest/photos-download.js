@@ -0,0 +1,47 @@
+// Prueba de carga de descargas de fotos del post-service con k6 (https://k6.io).
+// Uso: k6 run -e BASE_URL=http://localhost:8081 -e HASHES=<hash1>,<hash2> -e VUS=200 loadtest/photos-download.js
+// Mezcla miniaturas (servidas desde memoria mapeada), originales completos (sendfile) y
+// peticiones Range sobre originales. Comparar data_received/s, http_reqs y p(95)/p(99)
+// de http_req_duration, y vigilar el heap/GC del servicio durante la prueba.
+import http from "k6/http";
+import { check } from "k6";
+
+const BASE_URL = __ENV.BASE_URL || "http://localhost:8081";
+const HASHES = (__ENV.HASHES || "").split(",").filter((hash) => hash.length > 0);
+
+export const options = {
+  scenarios: {
+    downloads: {
+      executor: "constant-vus",
+      vus: parseInt(__ENV.VUS || "200", 10),
+      duration: __ENV.DURATION || "2m",
+    },
+  },
+  discardResponseBodies: true,
+  summaryTrendStats: ["avg", "p(50)", "p(95)", "p(99)", "max"],
+};
+
+export function setup() {
+  if (HASHES.length === 0) {
+    throw new Error("Indicar los hashes de fotos subidas con -e HASHES=...");
+  }
+}
+
+export default function () {
+  const hash = HASHES[Math.floor(Math.random() * HASHES.length)];
+  const roll = Math.random();
+  let res;
+  if (roll < 0.6) {
+    res = http.get(`${BASE_URL}/api/photos/${hash}/thumbnail`, { tags: { name: "thumbnail" } });
+    check(res, { "thumbnail 200": (r) => r.status === 200 });
+  } else if (roll < 0.8) {
+    res = http.get(`${BASE_URL}/api/photos/${hash}/original`, { tags: { name: "original" } });
+    check(res, { "original 200": (r) => r.status === 200 });
+  } else {
+    res = http.get(`${BASE_URL}/api/photos/${hash}/original`, {
+      headers: { Range: "bytes=0-65535" },
+      tags: { name: "range" },
+    });
+    check(res, { "range 206": (r) => r.status === 206 });
+  }
+}
@@ -0,0 +1,34 @@
+// Prueba de carga de lecturas del post-service con k6 (https://k6.io).
+// Uso: k6 run -e BASE_URL=http://localhost:8081 -e VUS=400 loadtest/posts-read.js
+// Ejecutar la misma prueba con y sin el perfil "virtual-threads" y comparar
+// http_reqs (throughput) y http_req_duration p(95)/p(99) del resumen final.
+import http from "k6/http";
+import { check } from "k6";
+
+const BASE_URL = __ENV.BASE_URL || "http://localhost:8081";
+const MAX_POST_ID = parseInt(__ENV.MAX_POST_ID || "1000", 10);
+
+export const options = {
+  scenarios: {
+    reads: {
+      executor: "constant-vus",
+      vus: parseInt(__ENV.VUS || "400", 10),
+      duration: __ENV.DURATION || "2m",
+    },
+  },
+  summaryTrendStats: ["avg", "p(50)", "p(95)", "p(99)", "max"],
+};
+
+export default function () {
+  const id = 1 + Math.floor(Math.random() * MAX_POST_ID);
+  const roll = Math.random();
+  let res;
+  if (roll < 0.5) {
+    res = http.get(`${BASE_URL}/api/posts/${id}`, { tags: { name: "post" } });
+  } else if (roll < 0.8) {
+    res = http.get(`${BASE_URL}/api/posts?page=0&size=10`, { tags: { name: "page" } });
+  } else {
+    res = http.get(`${BASE_URL}/api/comments/post/${id}`, { tags: { name: "comments" } });
+  }
+  check(res, { "status 2xx/404": (r) => (r.status >= 200 && r.status < 300) || r.status === 404 });
+}
@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Mide el tiempo de arranque y la memoria residente (RSS) de un servicio en cada modo de ejecución.
+# Uso: loadtest/startup-benchmark.sh postservice [repeticiones]
+#   jar     -> java -jar target/<servicio>-0.0.1-SNAPSHOT.jar (build normal)
+#   aot-cds -> jar descomprimido con AOT y AppCDS (build con mvn -Pprod package)
+#   native  -> target/<servicio> (build con mvn -Pprod,native native:compile)
+# MySQL y RabbitMQ deben estar levantados (docker compose up -d mysql-db rabbitmq); los modos cuyo
+# artefacto no existe se omiten. El tiempo es el que informa Spring ("Started ... in X seconds") y el
+# RSS se lee de /proc al terminar el arranque.
+set -euo pipefail
+
+SERVICE="${1:?servicio: postservice o userservice}"
+RUNS="${2:-5}"
+DIR="$(cd "$(dirname "$0")/../$SERVICE" && pwd)"
+JAR="$DIR/target/$SERVICE-0.0.1-SNAPSHOT.jar"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+
+prepare_cds() {
+  java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted" > /dev/null
+  java -XX:ArchiveClassesAtExit="$WORK/extracted/application.jsa" -Dspring.aot.enabled=true \
+      -Dspring.context.exit=onRefresh -Dspring.profiles.active=prod -jar "$WORK/extracted/$SERVICE.jar" > /dev/null
+}
+
+measure() {
+  local mode="$1"; shift
+  local total_seconds=0 total_rss=0
+  for run in $(seq 1 "$RUNS"); do
+    local log="$WORK/$mode-$run.log"
+    "$@" > "$log" 2>&1 &
+    local pid=$!
+    local seconds=""
+    for _ in $(seq 1 600); do
+      seconds="$(grep -oE 'Started [A-Za-z]+ in [0-9.]+ seconds' "$log" | grep -oE '[0-9.]+' || true)"
+      [ -n "$seconds" ] && break
+      kill -0 "$pid" 2> /dev/null || break
+      sleep 0.1
+    done
+    if [ -z "$seconds" ]; then
+      echo "$mode: el servicio no arrancó, ver $log" >&2
+      kill "$pid" 2> /dev/null || true
+      return 1
+    fi
+    local rss_kb
+    rss_kb="$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")"
+    kill "$pid"; wait "$pid" 2> /dev/null || true
+    total_seconds="$(echo "$total_seconds + $seconds" | bc)"
+    total_rss=$((total_rss + rss_kb))
+  done
+  printf "%-8s arranque medio %6.2f s   RSS medio %5d MB   (%d ejecuciones)\n" \
+      "$mode" "$(echo "$total_seconds / $RUNS" | bc -l)" $((total_rss / RUNS / 1024)) "$RUNS"
+}
+
+if [ -f "$JAR" ]; then
+  measure jar java -jar "$JAR"
+  if unzip -l "$JAR" | grep -q '__ApplicationContextInitializer'; then
+    prepare_cds
+    measure aot-cds java -XX:SharedArchiveFile="$WORK/extracted/application.jsa" -Dspring.aot.enabled=true \
+        -Dspring.profiles.active=prod -jar "$WORK/extracted/$SERVICE.jar"
+  else
+    echo "aot-cds: el jar no tiene procesado AOT (compilar con mvn -Pprod package)" >&2
+  fi
+fi
+if [ -x "$DIR/target/$SERVICE" ]; then
+  measure native "$DIR/target/$SERVICE" --spring.profiles.active=prod
+fi
@@ -0,0 +1,13 @@
+-- Usuario con el que la réplica lee el binlog del primario
+CREATE USER IF NOT EXISTS 'repl'@'%' IDENTIFIED WITH caching_sha2_password BY 'repl';
+GRANT REPLICATION SLAVE ON *.* TO 'repl'@'%';
+
+-- Se crea aquí (y no con MYSQL_USER) para que quede en el binlog y llegue también a la réplica
+CREATE USER IF NOT EXISTS 'aventuras_user'@'%' IDENTIFIED BY 'aventuras_pass';
+
+CREATE DATABASE IF NOT EXISTS aventura_posts;
+CREATE DATABASE IF NOT EXISTS aventuras_db;
+GRANT ALL PRIVILEGES ON aventura_posts.* TO 'aventuras_user'@'%';
+GRANT ALL PRIVILEGES ON aventuras_db.* TO 'aventuras_user'@'%';
+-- Necesario para que los servicios consulten SHOW REPLICA STATUS en la réplica
+GRANT REPLICATION CLIENT ON *.* TO 'aventuras_user'@'%';
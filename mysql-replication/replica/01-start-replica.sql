@@ -0,0 +1,13 @@
+-- Con GTID la réplica copia todo el historial del primario, incluidos usuarios y esquemas
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'mysql-primary',
+    SOURCE_USER = 'repl',
+    SOURCE_PASSWORD = 'repl',
+    SOURCE_AUTO_POSITION = 1,
+    GET_SOURCE_PUBLIC_KEY = 1,
+    SOURCE_CONNECT_RETRY = 5;
+START REPLICA;
+
+-- Después de la inicialización del contenedor: con super_read_only activo no podría crear root
+SET PERSIST read_only = ON;
+SET PERSIST super_read_only = ON;
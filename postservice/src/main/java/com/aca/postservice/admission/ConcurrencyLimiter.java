@@ -0,0 +1,63 @@
+package com.aca.postservice.admission;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita las peticiones simultáneas de un endpoint. Una petición sin hueco espera como mucho
+ * {@code maxQueueTime}, y ese tiempo alimenta un descarte adaptativo al estilo CoDel: si durante
+ * un intervalo completo ninguna petición esperó menos que {@code targetQueueTime}, la cola no se
+ * está vaciando y las siguientes se rechazan al momento en lugar de ocupar un hilo esperando.
+ * La primera petición que entra sin esperar cierra ese estado en el siguiente intervalo.
+ */
+final class ConcurrencyLimiter {
+    
+    private final Semaphore permits;
+    private final long maxQueueNanos;
+    private final long targetNanos;
+    private final long intervalNanos;
+    
+    private final AtomicLong intervalStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong minQueueNanos = new AtomicLong(Long.MAX_VALUE);
+    private volatile boolean overloaded;
+    
+    ConcurrencyLimiter(int maxConcurrent, Duration maxQueueTime, Duration targetQueueTime, Duration interval) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxQueueNanos = maxQueueTime.toNanos();
+        this.targetNanos = targetQueueTime.toNanos();
+        this.intervalNanos = interval.toNanos();
+    }
+    
+    boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            recordQueueTime(0);
+            return true;
+        }
+        if (overloaded) {
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean acquired = permits.tryAcquire(maxQueueNanos, TimeUnit.NANOSECONDS);
+        recordQueueTime(System.nanoTime() - start);
+        return acquired;
+    }
+    
+    void release() {
+        permits.release();
+    }
+    
+    boolean isOverloaded() {
+        return overloaded;
+    }
+    
+    private void recordQueueTime(long queueNanos) {
+        minQueueNanos.accumulateAndGet(queueNanos, Math::min);
+        long now = System.nanoTime();
+        long start = intervalStart.get();
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            overloaded = minQueueNanos.getAndSet(Long.MAX_VALUE) > targetNanos;
+        }
+    }
+}
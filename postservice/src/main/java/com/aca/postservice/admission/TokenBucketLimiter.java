@@ -0,0 +1,78 @@
+package com.aca.postservice.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubos de tokens por cliente con GCRA: el estado de un cliente es solo el instante teórico de
+ * su próxima llegada, en un {@link AtomicLong}, así que admitir una petición es una lectura y un
+ * CAS, sin bloqueos. Un cliente cuyo instante ya pasó tiene el cubo lleno y equivale a uno sin
+ * estado, por eso se puede olvidar sin cambiar ningún resultado.
+ *
+ * <p>Los clientes se reparten en franjas independientes: la limpieza de inactivos recorre una
+ * sola franja y no frena a las demás. Si una franja sigue llena sin inactivos, se olvidan los
+ * clientes más cerca de tener el cubo lleno, nunca la franja entera.</p>
+ */
+final class TokenBucketLimiter {
+    
+    private static final int STRIPES = 16;
+    
+    private final long emissionNanos;
+    private final long toleranceNanos;
+    private final int maxPerStripe;
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    
+    @SuppressWarnings("unchecked")
+    TokenBucketLimiter(double ratePerSecond, int burst, int maxTrackedClients) {
+        this.emissionNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = emissionNanos * (Math.max(1, burst) - 1);
+        this.maxPerStripe = Math.max(1, maxTrackedClients / STRIPES);
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+    
+    /**
+     * Consume un token del cliente. Devuelve 0 si se admite o, si no, los nanosegundos hasta que
+     * habrá uno disponible.
+     */
+    long tryAcquire(String key, long now) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        AtomicLong arrival = stripe.get(key);
+        if (arrival == null) {
+            if (stripe.size() >= maxPerStripe) {
+                evictIdle(stripe, now);
+            }
+            // Un cliente nuevo empieza con el cubo lleno
+            arrival = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = arrival.get();
+            long allowedAt = current - toleranceNanos;
+            if (now < allowedAt) {
+                return allowedAt - now;
+            }
+            if (arrival.compareAndSet(current, Math.max(current, now) + emissionNanos)) {
+                return 0;
+            }
+        }
+    }
+    
+    private void evictIdle(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(arrival -> arrival.get() - now <= 0);
+        int excess = stripe.size() - maxPerStripe * 3 / 4;
+        if (excess <= 0) {
+            return;
+        }
+        // Con muchos clientes activos se olvidan los que antes iban a tener el cubo lleno: olvidarlos
+        // les adelanta menos tokens, y un cliente que va por delante de su límite conserva su estado
+        // aunque otro rote claves. Se libera una cuarta parte de golpe para no ordenar en cada alta.
+        stripe.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().get()))
+                .sorted(Map.Entry.comparingByValue())
+                .limit(excess)
+                .forEach(entry -> stripe.remove(entry.getKey()));
+    }
+}
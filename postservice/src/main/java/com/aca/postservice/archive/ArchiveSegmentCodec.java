@@ -0,0 +1,233 @@
+package com.aca.postservice.archive;
+
+import com.aca.postservice.model.Comment;
+import com.aca.postservice.model.Post;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codificación de un bloque de publicaciones archivadas.
+ *
+ * <p>Dentro del bloque cada atributo se guarda como una columna contigua (todos los IDs, luego
+ * todas las fechas, todos los títulos...), de modo que valores parecidos quedan juntos y GZIP
+ * los comprime mucho mejor que fila a fila. Los IDs van como deltas, porque el bloque está
+ * ordenado por ID. Los comentarios de cada publicación se guardan en el mismo bloque.</p>
+ */
+final class ArchiveSegmentCodec {
+    
+    private ArchiveSegmentCodec() {
+    }
+    
+    static byte[] encodeBlock(List<ArchivedPost> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(rows.size());
+            
+            long previousId = 0;
+            for (ArchivedPost row : rows) {
+                out.writeLong(row.post().getId() - previousId);
+                previousId = row.post().getId();
+            }
+            writeLongs(out, rows, row -> row.post().getUserId());
+            writeLongs(out, rows, row -> epochMillis(row.post().getCreatedAt()));
+            writeLongs(out, rows, row -> epochMillis(row.post().getUpdatedAt()));
+            writeLongs(out, rows, row -> row.post().getVersion());
+            writeLongs(out, rows, row -> toLong(row.post().getLikesCount()));
+            writeLongs(out, rows, row -> toLong(row.post().getCommentsCount()));
+            writeDoubles(out, rows, row -> row.post().getLatitude());
+            writeDoubles(out, rows, row -> row.post().getLongitude());
+            writeStrings(out, rows, row -> row.post().getTitle());
+            writeStrings(out, rows, row -> row.post().getLocation());
+            writeStrings(out, rows, row -> row.post().getAdventureType());
+            writeStrings(out, rows, row -> row.post().getDifficultyLevel());
+            writeStrings(out, rows, row -> row.post().getEstimatedDuration());
+            writeStrings(out, rows, row -> row.post().getUserName());
+            writeStrings(out, rows, row -> row.post().getGeohash());
+            writeStrings(out, rows, row -> row.post().getDescription());
+            
+            for (ArchivedPost row : rows) {
+                List<String> photos = row.post().getPhotos();
+                out.writeInt(photos != null ? photos.size() : 0);
+                if (photos != null) {
+                    for (String photo : photos) {
+                        writeString(out, photo);
+                    }
+                }
+            }
+            
+            for (ArchivedPost row : rows) {
+                out.writeInt(row.comments().size());
+                for (Comment comment : row.comments()) {
+                    out.writeLong(comment.getId());
+                    out.writeLong(comment.getUserId());
+                    out.writeLong(epochMillis(comment.getCreatedAt()));
+                    writeString(out, comment.getUserName());
+                    writeString(out, comment.getContent());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+    
+    static List<ArchivedPost> decodeBlock(byte[] block) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(block)))) {
+            int count = in.readInt();
+            List<Post> posts = new ArrayList<>(count);
+            long id = 0;
+            for (int i = 0; i < count; i++) {
+                Post post = new Post();
+                id += in.readLong();
+                post.setId(id);
+                posts.add(post);
+            }
+            for (Post post : posts) {
+                post.setUserId(in.readLong());
+            }
+            for (Post post : posts) {
+                post.setCreatedAt(fromEpochMillis(in.readLong()));
+            }
+            for (Post post : posts) {
+                post.setUpdatedAt(fromEpochMillis(in.readLong()));
+            }
+            for (Post post : posts) {
+                post.setVersion(in.readLong());
+            }
+            for (Post post : posts) {
+                post.setLikesCount((int) in.readLong());
+            }
+            for (Post post : posts) {
+                post.setCommentsCount((int) in.readLong());
+            }
+            for (Post post : posts) {
+                post.setLatitude(readDouble(in));
+            }
+            for (Post post : posts) {
+                post.setLongitude(readDouble(in));
+            }
+            for (Post post : posts) {
+                post.setTitle(readString(in));
+            }
+            for (Post post : posts) {
+                post.setLocation(readString(in));
+            }
+            for (Post post : posts) {
+                post.setAdventureType(readString(in));
+            }
+            for (Post post : posts) {
+                post.setDifficultyLevel(readString(in));
+            }
+            for (Post post : posts) {
+                post.setEstimatedDuration(readString(in));
+            }
+            for (Post post : posts) {
+                post.setUserName(readString(in));
+            }
+            for (Post post : posts) {
+                post.setGeohash(readString(in));
+            }
+            for (Post post : posts) {
+                post.setDescription(readString(in));
+            }
+            
+            for (Post post : posts) {
+                int photoCount = in.readInt();
+                List<String> photos = new ArrayList<>(photoCount);
+                for (int i = 0; i < photoCount; i++) {
+                    photos.add(readString(in));
+                }
+                post.setPhotos(photos);
+            }
+            
+            List<ArchivedPost> rows = new ArrayList<>(count);
+            for (Post post : posts) {
+                int commentCount = in.readInt();
+                List<Comment> comments = new ArrayList<>(commentCount);
+                for (int i = 0; i < commentCount; i++) {
+                    Comment comment = new Comment();
+                    comment.setId(in.readLong());
+                    comment.setPostId(post.getId());
+                    comment.setUserId(in.readLong());
+                    comment.setCreatedAt(fromEpochMillis(in.readLong()));
+                    comment.setUserName(readString(in));
+                    comment.setContent(readString(in));
+                    comments.add(comment);
+                }
+                rows.add(new ArchivedPost(post, comments));
+            }
+            return rows;
+        }
+    }
+    
+    private static void writeLongs(DataOutputStream out, List<ArchivedPost> rows,
+                                   Function<ArchivedPost, Long> column) throws IOException {
+        for (ArchivedPost row : rows) {
+            Long value = column.apply(row);
+            out.writeLong(value != null ? value : Long.MIN_VALUE);
+        }
+    }
+    
+    private static void writeDoubles(DataOutputStream out, List<ArchivedPost> rows,
+                                     Function<ArchivedPost, Double> column) throws IOException {
+        for (ArchivedPost row : rows) {
+            Double value = column.apply(row);
+            out.writeDouble(value != null ? value : Double.NaN);
+        }
+    }
+    
+    private static void writeStrings(DataOutputStream out, List<ArchivedPost> rows,
+                                     Function<ArchivedPost, String> column) throws IOException {
+        for (ArchivedPost row : rows) {
+            writeString(out, column.apply(row));
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+    
+    private static Double readDouble(DataInputStream in) throws IOException {
+        double value = in.readDouble();
+        return Double.isNaN(value) ? null : value;
+    }
+    
+    private static Long toLong(Integer value) {
+        return value != null ? value.longValue() : 0L;
+    }
+    
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+    }
+    
+    private static LocalDateTime fromEpochMillis(long millis) {
+        return millis == Long.MIN_VALUE ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
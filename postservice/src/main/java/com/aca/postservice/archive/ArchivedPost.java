@@ -0,0 +1,12 @@
+package com.aca.postservice.archive;
+
+import com.aca.postservice.model.Comment;
+import com.aca.postservice.model.Post;
+
+import java.util.List;
+
+/**
+ * Publicación archivada junto con sus comentarios. Las entidades no están asociadas a ninguna sesión JPA.
+ */
+public record ArchivedPost(Post post, List<Comment> comments) {
+}
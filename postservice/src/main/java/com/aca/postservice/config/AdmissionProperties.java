@@ -0,0 +1,67 @@
+package com.aca.postservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Control de admisión por endpoint: límite de peticiones por cliente, límite de peticiones
+ * simultáneas y descarte adaptativo según el tiempo de espera. Las reglas se evalúan en orden
+ * y se aplica la primera que coincide con la petición.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionProperties {
+    
+    private boolean enabled = true;
+    
+    // Solo detrás de un proxy de confianza: si no, cualquier cliente elige su IP con la cabecera
+    private boolean trustForwardedFor = false;
+    
+    // Clientes con estado por regla; al superarse se olvidan los que ya recargaron su cubo y luego los más cerca de hacerlo
+    private int maxTrackedClients = 100_000;
+    
+    // Espera máxima por un hueco de concurrencia antes de responder 429
+    private Duration maxQueueTime = Duration.ofMillis(500);
+    
+    // Si en un intervalo ninguna petición esperó menos que esto, el endpoint rechaza sin esperar
+    private Duration targetQueueTime = Duration.ofMillis(20);
+    
+    private Duration sheddingInterval = Duration.ofMillis(100);
+    
+    private List<Rule> rules = new ArrayList<>();
+    
+    public enum KeySource {
+        // IP del cliente
+        CLIENT,
+        // Variable {userId} de la ruta o usuario autenticado; la IP si no hay ninguno (nunca un parámetro de la query)
+        USER
+    }
+    
+    @Data
+    public static class Rule {
+        
+        private String name;
+        
+        // Vacío para cualquier método
+        private String method;
+        
+        // Patrón de ruta de Spring, p. ej. /api/posts/{id}/like
+        private String path;
+        
+        // Peticiones por segundo por cliente (0 sin límite) y ráfaga que se admite de golpe
+        private double rate;
+        
+        private int burst = 1;
+        
+        // Peticiones simultáneas del endpoint en la instancia (0 sin límite)
+        private int maxConcurrent;
+        
+        private KeySource key = KeySource.CLIENT;
+    }
+}
@@ -0,0 +1,35 @@
+package com.aca.postservice.config;
+
+import com.aca.postservice.hotkeys.HeavyHitters;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    public static final String POSTS_CACHE = "posts";
+    
+    /**
+     * Caché de publicaciones con las calientes fijadas: pesan 0, así que el límite de tamaño no las
+     * expulsa (siguen caducando a los {@code ttl}). El peso se decide al guardar la entrada.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> postsCacheCustomizer(
+            HeavyHitters heavyHitters,
+            @Value("${app.cache.posts.max-size:10000}") long maxSize,
+            @Value("${app.cache.posts.ttl:PT10M}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(POSTS_CACHE, Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((Object key, Object value) -> heavyHitters.isHot(HeavyHitters.Category.POST, key) ? 0 : 1)
+                .expireAfterWrite(ttl)
+                .build());
+    }
+}
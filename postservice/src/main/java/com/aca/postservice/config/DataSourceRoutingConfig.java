@@ -0,0 +1,68 @@
+package com.aca.postservice.config;
+
+import com.aca.postservice.datasource.ReadWriteRoutingDataSource;
+import com.aca.postservice.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sustituye el DataSource de Spring Boot por uno que separa lecturas y escrituras
+ * (ver {@link ReadWriteRoutingDataSource}). Sin {@code app.datasource.routing.enabled} no se
+ * carga y todo sigue yendo al único DataSource de {@code spring.datasource}. Tampoco se carga
+ * con particionado ({@link ShardingConfig}), que define su propio DataSource y rechaza arrancar
+ * si además se activó este enrutado.
+ */
+@Configuration
+@ConditionalOnExpression("${app.datasource.routing.enabled:false} and !${app.sharding.enabled:false}")
+public class DataSourceRoutingConfig {
+    
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 ReadReplicaProperties properties,
+                                                                 Environment environment) {
+        // El primario conserva la configuración de spring.datasource.hikari (p. ej. el perfil virtual-threads)
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.getUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.getPassword());
+            pool.setMaximumPoolSize(properties.getReplicaPoolSize());
+            pool.setReadOnly(true);
+            // La réplica puede no estar disponible al arrancar; el monitor la marca como caída
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(pool);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, properties.getReadYourWritesWindow());
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadWriteRoutingDataSource readWriteRoutingDataSource,
+                                               ReadReplicaProperties properties) {
+        return new ReplicaLagMonitor(readWriteRoutingDataSource, properties.getMaxLag());
+    }
+}
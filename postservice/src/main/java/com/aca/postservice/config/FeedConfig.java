@@ -0,0 +1,39 @@
+package com.aca.postservice.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+@Configuration
+public class FeedConfig {
+    
+    @Bean
+    public WebClient userServiceWebClient(WebClient.Builder builder,
+                                          @Value("${app.userservice.base-url:http://localhost:8080}") String baseUrl,
+                                          @Value("${app.userservice.timeout:2s}") Duration timeout) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeout.toMillis())
+                .responseTimeout(timeout);
+        return builder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+    
+    /**
+     * Scheduler acotado para las consultas JPA del feed: JDBC es bloqueante, así que
+     * las ramas del fan-out se ejecutan aquí y nunca en los hilos de Netty.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler feedQueryScheduler(@Value("${app.feed.query-threads:16}") int threads) {
+        return Schedulers.newBoundedElastic(threads, 1000, "feed-query");
+    }
+}
@@ -0,0 +1,43 @@
+package com.aca.postservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Políticas de Cache-Control por endpoint de lectura.
+ * Con max-age 0 el cliente siempre revalida con If-None-Match y recibe 304 si nada cambió.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.http.cache")
+public class HttpCacheProperties {
+    
+    private Duration post = Duration.ZERO;
+    
+    private Duration postList = Duration.ZERO;
+    
+    private Duration comments = Duration.ofSeconds(10);
+    
+    public CacheControl postCacheControl() {
+        return toCacheControl(post);
+    }
+    
+    public CacheControl postListCacheControl() {
+        return toCacheControl(postList);
+    }
+    
+    public CacheControl commentsCacheControl() {
+        return toCacheControl(comments);
+    }
+    
+    private CacheControl toCacheControl(Duration maxAge) {
+        if (maxAge.isZero()) {
+            return CacheControl.noCache().cachePrivate();
+        }
+        return CacheControl.maxAge(maxAge).cachePrivate().mustRevalidate();
+    }
+}
@@ -0,0 +1,49 @@
+package com.aca.postservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Ajustes de los consumidores de RabbitMQ (contenedores por lotes, reintentos y deduplicación).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.messaging")
+public class MessagingProperties {
+    
+    // Consumidores por cola; 0 = uno por núcleo disponible
+    private int concurrency = 0;
+    
+    // Máximo de consumidores cuando la cola se acumula; 0 = el doble de concurrency
+    private int maxConcurrency = 0;
+    
+    // Mensajes sin confirmar por consumidor; nunca menor que batchSize o los lotes no se llenan
+    private int prefetch = 250;
+    
+    private int batchSize = 50;
+    
+    // Espera máxima para completar un lote antes de entregarlo incompleto
+    private Duration receiveTimeout = Duration.ofSeconds(1);
+    
+    private Duration retryDelay = Duration.ofSeconds(10);
+    
+    // Intentos antes de mover el mensaje al parking lot
+    private int maxAttempts = 5;
+    
+    private Duration dedupRetention = Duration.ofDays(7);
+    
+    public int effectiveConcurrency() {
+        return concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+    }
+    
+    public int effectiveMaxConcurrency() {
+        return Math.max(effectiveConcurrency(), maxConcurrency > 0 ? maxConcurrency : 2 * effectiveConcurrency());
+    }
+    
+    public int effectivePrefetch() {
+        return Math.max(prefetch, batchSize);
+    }
+}
@@ -0,0 +1,29 @@
+package com.aca.postservice.config;
+
+import com.aca.postservice.event.PostCreatedEvent;
+import com.aca.postservice.event.UserReplicaEvent;
+import com.aca.postservice.sharding.ShardedIdGenerator;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Pistas para la imagen nativa sobre lo que se crea o se serializa por reflexión sin que Spring AOT lo vea:
+ * los eventos de RabbitMQ y el generador de IDs que Hibernate instancia a partir de {@code @ShardedId}.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+@RegisterReflectionForBinding({PostCreatedEvent.class, UserReplicaEvent.class})
+public class NativeHintsConfig {
+    
+    static class Hints implements RuntimeHintsRegistrar {
+        
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(ShardedIdGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
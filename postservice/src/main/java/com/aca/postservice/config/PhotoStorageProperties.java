@@ -0,0 +1,48 @@
+package com.aca.postservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Almacenamiento local de fotos y tamaños de las versiones generadas.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.photos")
+public class PhotoStorageProperties {
+    
+    private Path storageDir = Paths.get("data", "photos");
+    
+    // Prefijo de las URLs públicas de las fotos
+    private String baseUrl = "/api/photos";
+    
+    private int thumbnailSize = 320;
+    
+    private int mediumSize = 1024;
+    
+    private float jpegQuality = 0.85f;
+    
+    // Decodificar una imagen ocupa memoria proporcional a sus píxeles: pocos hilos y cola acotada
+    private int workers = 2;
+    
+    private int queueCapacity = 200;
+    
+    private Delivery delivery = new Delivery();
+    
+    @Data
+    public static class Delivery {
+        
+        // A partir de este tamaño se delega el envío en sendfile de Tomcat
+        private DataSize sendfileMinSize = DataSize.ofKilobytes(48);
+        
+        // Archivos hasta este tamaño se sirven desde un mapeo en memoria
+        private DataSize mmapMaxFileSize = DataSize.ofKilobytes(256);
+        
+        private DataSize mmapCacheMaxBytes = DataSize.ofMegabytes(64);
+    }
+}
@@ -1,6 +1,7 @@
 package com.aca.postservice.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -15,13 +16,59 @@ public class RabbitMQConfig {
     public static final String POST_CREATED_EXCHANGE = "post.created.exchange";
     public static final String POST_CREATED_ROUTING_KEY = "post.created";
     
+    public static final String POST_MUTATIONS_EXCHANGE = "post.mutations";
+    
     public static final String USER_FOLLOW_QUEUE = "user.follow.queue";
     public static final String USER_FOLLOW_EXCHANGE = "user.follow.exchange";
     public static final String USER_FOLLOW_ROUTING_KEY = "user.follow";
     
+    // Exchange de mutaciones del user-service; user.follow.queue recibe todos sus eventos de usuario
+    public static final String USER_MUTATIONS_EXCHANGE = "user.mutations";
+    public static final String USER_EVENTS_ROUTING_PATTERN = "user.#";
+    
+    /**
+     * Cola de reintentos de una cola de consumo: los mensajes esperan el TTL y vuelven a la cola original.
+     */
+    public static String retryQueue(String queue) {
+        return queue + ".retry";
+    }
+    
+    /**
+     * Cola donde quedan los mensajes que agotaron sus intentos o no se pudieron leer, hasta reenviarlos a mano.
+     */
+    public static String parkingLotQueue(String queue) {
+        return queue + ".parking-lot";
+    }
+    
+    // Los mensajes rechazados van directo al parking lot a través del exchange por defecto
+    private static Queue consumerQueue(String name) {
+        return QueueBuilder.durable(name)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(parkingLotQueue(name))
+                .build();
+    }
+    
+    private static Queue retryQueueFor(String name, MessagingProperties properties) {
+        return QueueBuilder.durable(retryQueue(name))
+                .ttl((int) properties.getRetryDelay().toMillis())
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(name)
+                .build();
+    }
+    
     @Bean
     public Queue postCreatedQueue() {
-        return new Queue(POST_CREATED_QUEUE, true);
+        return consumerQueue(POST_CREATED_QUEUE);
+    }
+    
+    @Bean
+    public Queue postCreatedRetryQueue(MessagingProperties properties) {
+        return retryQueueFor(POST_CREATED_QUEUE, properties);
+    }
+    
+    @Bean
+    public Queue postCreatedParkingLotQueue() {
+        return QueueBuilder.durable(parkingLotQueue(POST_CREATED_QUEUE)).build();
     }
     
     @Bean
@@ -38,7 +85,29 @@ public class RabbitMQConfig {
     
     @Bean
     public Queue userFollowQueue() {
-        return new Queue(USER_FOLLOW_QUEUE, true);
+        return consumerQueue(USER_FOLLOW_QUEUE);
+    }
+    
+    @Bean
+    public TopicExchange userMutationsExchange() {
+        return new TopicExchange(USER_MUTATIONS_EXCHANGE, true, false);
+    }
+    
+    @Bean
+    public Binding userEventsBinding(Queue userFollowQueue, TopicExchange userMutationsExchange) {
+        return BindingBuilder.bind(userFollowQueue)
+                .to(userMutationsExchange)
+                .with(USER_EVENTS_ROUTING_PATTERN);
+    }
+    
+    @Bean
+    public Queue userFollowRetryQueue(MessagingProperties properties) {
+        return retryQueueFor(USER_FOLLOW_QUEUE, properties);
+    }
+    
+    @Bean
+    public Queue userFollowParkingLotQueue() {
+        return QueueBuilder.durable(parkingLotQueue(USER_FOLLOW_QUEUE)).build();
     }
     
     @Bean
@@ -53,11 +122,41 @@ public class RabbitMQConfig {
                 .with(USER_FOLLOW_ROUTING_KEY);
     }
     
+    /**
+     * Flujo ordenado de mutaciones (ver MutationRelay); cada consumidor enlaza su propia cola
+     * con el patrón de claves que le interese, p. ej. {@code post.#}.
+     */
+    @Bean
+    public TopicExchange postMutationsExchange() {
+        return new TopicExchange(POST_MUTATIONS_EXCHANGE, true, false);
+    }
+    
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
     
+    /**
+     * Contenedor para los consumidores por lotes. Sin requeue: un mensaje que hace fallar al
+     * listener no vuelve al principio de la cola a bloquearla, va al parking lot.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                              MessagingProperties properties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(properties.getBatchSize());
+        factory.setReceiveTimeout(properties.getReceiveTimeout().toMillis());
+        factory.setPrefetchCount(properties.effectivePrefetch());
+        factory.setConcurrentConsumers(properties.effectiveConcurrency());
+        factory.setMaxConcurrentConsumers(properties.effectiveMaxConcurrency());
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+    
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
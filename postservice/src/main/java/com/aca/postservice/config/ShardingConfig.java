@@ -0,0 +1,64 @@
+package com.aca.postservice.config;
+
+import com.aca.postservice.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sustituye el DataSource de Spring Boot por uno que enruta cada transacción al shard de su
+ * {@link com.aca.postservice.sharding.ShardContext}. No es compatible con el enrutado a réplicas
+ * de lectura ({@link DataSourceRoutingConfig}): con ambos activos el arranque falla, para que las
+ * lecturas no vayan en silencio a los primarios.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+    
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                         ShardingProperties properties,
+                                                         Environment environment,
+                                                         @Value("${app.datasource.routing.enabled:false}") boolean replicaRouting) {
+        if (replicaRouting) {
+            throw new IllegalStateException("app.sharding.enabled y app.datasource.routing.enabled no se pueden activar a la vez: "
+                    + "los shards no tienen réplicas de lectura; desactive app.datasource.routing.enabled");
+        }
+        
+        // El shard 0 conserva la configuración de spring.datasource.hikari (p. ej. el perfil virtual-threads)
+        HikariDataSource catalog = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(catalog));
+        catalog.setPoolName("shard-0");
+        
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(catalog);
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + shards.size());
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.getUsername());
+            pool.setPassword(shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.getPassword());
+            pool.setMaximumPoolSize(properties.getShardPoolSize());
+            shards.add(pool);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+}
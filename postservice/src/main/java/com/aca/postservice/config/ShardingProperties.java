@@ -0,0 +1,62 @@
+package com.aca.postservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Particionado de publicaciones y comentarios. El shard 0 es siempre {@code spring.datasource}
+ * y además guarda las tablas globales (réplica de usuarios, directorio de buckets, secuencias...);
+ * {@code shards} lista los shards adicionales 1..N.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+    
+    private boolean enabled = false;
+    
+    private List<Shard> shards = new ArrayList<>();
+    
+    // Conexiones por shard adicional
+    private int shardPoolSize = 10;
+    
+    // Hilos para las consultas que recorren todos los shards en paralelo
+    private int fanOutThreads = 16;
+    
+    // Cada cuánto relee cada instancia el directorio bucket -> shard
+    private Duration directoryRefreshInterval = Duration.ofSeconds(2);
+    
+    // IDs reservados por viaje a la tabla de secuencias
+    private int idBlockSize = 1000;
+    
+    private Rebalance rebalance = new Rebalance();
+    
+    @Data
+    public static class Shard {
+        
+        private String url;
+        
+        private String username;
+        
+        private String password;
+    }
+    
+    @Data
+    public static class Rebalance {
+        
+        // Filas copiadas por sentencia
+        private int chunkSize = 500;
+        
+        // Espera tras congelar o reasignar un bucket; debe superar el refresco del directorio
+        // más la transacción de escritura más larga
+        private Duration freezeGrace = Duration.ofSeconds(10);
+        
+        // Máximo a esperar a que el relay publique las mutaciones pendientes del bucket
+        private Duration outboxDrainTimeout = Duration.ofSeconds(30);
+    }
+}
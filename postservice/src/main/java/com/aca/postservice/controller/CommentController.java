@@ -1,17 +1,22 @@
 package com.aca.postservice.controller;
 
+import com.aca.postservice.config.HttpCacheProperties;
 import com.aca.postservice.dto.CreateCommentRequest;
+import com.aca.postservice.hotkeys.HeavyHitters;
 import com.aca.postservice.model.Comment;
 import com.aca.postservice.service.CommentService;
+import com.aca.postservice.service.ResourceVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,6 +28,9 @@ import java.util.List;
 public class CommentController {
     
     private final CommentService commentService;
+    private final ResourceVersionService resourceVersionService;
+    private final HttpCacheProperties httpCacheProperties;
+    private final HeavyHitters heavyHitters;
     
     @PostMapping
     @Operation(summary = "Crear nuevo comentario", description = "Crea un nuevo comentario en una publicación")
@@ -35,10 +43,17 @@ public class CommentController {
     @GetMapping("/post/{postId}")
     @Operation(summary = "Obtener comentarios por post", description = "Obtiene todos los comentarios de una publicación específica")
     public ResponseEntity<List<Comment>> getCommentsByPostId(
-            @Parameter(description = "ID de la publicación") @PathVariable Long postId) {
+            @Parameter(description = "ID de la publicación") @PathVariable Long postId,
+            WebRequest webRequest) {
         log.info("Solicitud para obtener comentarios del post: {}", postId);
+        heavyHitters.record(HeavyHitters.Category.POST, postId);
+        CacheControl cacheControl = httpCacheProperties.commentsCacheControl();
+        String eTag = resourceVersionService.commentsETag(postId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
         List<Comment> response = commentService.getCommentsByPostId(postId);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(response);
     }
     
     @DeleteMapping("/{id}")
@@ -0,0 +1,53 @@
+package com.aca.postservice.controller;
+
+import com.aca.postservice.config.RabbitMQConfig;
+import com.aca.postservice.messaging.DeadLetterRouter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/messaging/parking-lots")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Messaging Controller", description = "API para revisar y reenviar mensajes del parking lot de RabbitMQ")
+public class MessagingController {
+    
+    private static final List<String> CONSUMER_QUEUES = List.of(
+            RabbitMQConfig.POST_CREATED_QUEUE,
+            RabbitMQConfig.USER_FOLLOW_QUEUE);
+    
+    private static final int MAX_REPLAY = 10_000;
+    
+    private final DeadLetterRouter deadLetterRouter;
+    
+    @GetMapping
+    @Operation(summary = "Mensajes en parking lot", description = "Obtiene cuántos mensajes hay en el parking lot de cada cola")
+    public ResponseEntity<Map<String, Long>> getParkedCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String queue : CONSUMER_QUEUES) {
+            counts.put(queue, deadLetterRouter.parkedCount(queue));
+        }
+        return ResponseEntity.ok(counts);
+    }
+    
+    @PostMapping("/{queue}/replay")
+    @Operation(summary = "Reenviar mensajes", description = "Devuelve mensajes del parking lot a su cola original, con los intentos a cero")
+    public ResponseEntity<Map<String, Integer>> replay(
+            @Parameter(description = "Cola de consumo") @PathVariable String queue,
+            @Parameter(description = "Número máximo de mensajes") @RequestParam(defaultValue = "100") int max) {
+        log.info("Solicitud para reenviar hasta {} mensajes del parking lot de {}", max, queue);
+        if (!CONSUMER_QUEUES.contains(queue) || max < 1 || max > MAX_REPLAY) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Map.of("replayed", deadLetterRouter.replay(queue, max)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.aca.postservice.controller;
+
+import com.aca.postservice.dto.MutationEventResponse;
+import com.aca.postservice.service.MutationLog;
+import com.aca.postservice.sharding.ShardTemplate;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/mutations")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Mutation Controller", description = "API para releer el flujo ordenado de mutaciones de publicaciones")
+public class MutationController {
+    
+    private final MutationLog mutationLog;
+    private final ShardTemplate shardTemplate;
+    
+    @Value("${app.mutations.max-page-size:1000}")
+    private int maxPageSize;
+    
+    @GetMapping
+    @Operation(summary = "Releer mutaciones", description = "Obtiene las mutaciones publicadas después de una posición del flujo, en orden")
+    public ResponseEntity<List<MutationEventResponse>> getMutations(
+            @Parameter(description = "Última posición procesada por el consumidor") @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Número máximo de mutaciones") @RequestParam(defaultValue = "500") int limit,
+            @Parameter(description = "Shard cuyo flujo se lee (0 sin particionado)") @RequestParam(defaultValue = "0") int shard) {
+        log.info("Solicitud de mutaciones del shard {} después de la posición {} (límite {})", shard, after, limit);
+        if (after < 0 || limit < 1 || limit > maxPageSize || shard < 0 || shard >= shardTemplate.allShards().size()) {
+            log.warn("Lectura de mutaciones rechazada: after={}, limit={} (máximo {}), shard={}", after, limit, maxPageSize, shard);
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(mutationLog.readAfter(shard, after, limit));
+    }
+}
@@ -0,0 +1,123 @@
+package com.aca.postservice.controller;
+
+import com.aca.postservice.dto.PhotoResponse;
+import com.aca.postservice.model.PhotoVariant;
+import com.aca.postservice.service.PhotoDeliveryService;
+import com.aca.postservice.service.PhotoService;
+import com.aca.postservice.service.PhotoUrlResolver;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/photos")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Photo Controller", description = "API para subida y descarga de fotos de publicaciones")
+public class PhotoController {
+    
+    private final PhotoService photoService;
+    private final PhotoDeliveryService photoDeliveryService;
+    
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Subir foto", description = "Guarda una foto y genera en segundo plano sus versiones reducidas; las fotos repetidas se reutilizan")
+    public ResponseEntity<PhotoResponse> uploadPhoto(@RequestParam("file") MultipartFile file) throws IOException {
+        log.info("Recibida solicitud para subir foto: {}", file.getOriginalFilename());
+        if (file.isEmpty() || file.getContentType() == null || !file.getContentType().startsWith("image/")) {
+            log.warn("Subida rechazada: el archivo no es una imagen");
+            return ResponseEntity.badRequest().build();
+        }
+        PhotoResponse response = photoService.uploadPhoto(file);
+        return ResponseEntity.status(response.isDuplicate() ? HttpStatus.OK : HttpStatus.CREATED).body(response);
+    }
+    
+    @GetMapping("/{hash}")
+    @Operation(summary = "Obtener metadatos de foto", description = "Obtiene el estado, tamaño y URLs de las versiones de una foto")
+    public ResponseEntity<PhotoResponse> getPhoto(
+            @Parameter(description = "Hash SHA-256 del contenido") @PathVariable String hash) {
+        if (!PhotoUrlResolver.CONTENT_HASH.matcher(hash).matches()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(photoService.getPhoto(hash));
+    }
+    
+    @GetMapping("/{hash}/{variant}")
+    @Operation(summary = "Descargar foto", description = "Descarga el original o una versión reducida (thumbnail, medium); admite peticiones Range")
+    public void downloadPhoto(
+            @Parameter(description = "Hash SHA-256 del contenido") @PathVariable String hash,
+            @Parameter(description = "Versión: original, thumbnail o medium") @PathVariable String variant,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<PhotoVariant> requested = PhotoVariant.fromPathName(variant);
+        if (!PhotoUrlResolver.CONTENT_HASH.matcher(hash).matches() || requested.isEmpty()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        Optional<PhotoDeliveryService.PhotoFile> resolved = photoDeliveryService.resolve(hash, requested.get());
+        if (resolved.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        
+        PhotoDeliveryService.PhotoFile photo = resolved.get();
+        // El contenido de una URL con hash nunca cambia; el original servido en lugar de una versión pendiente sí
+        CacheControl cacheControl = photo.immutable()
+                ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+                : CacheControl.noCache();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(photo.eTag())) {
+            return;
+        }
+        
+        long start = 0;
+        long end = photo.size() - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(photo.eTag()))) {
+            List<HttpRange> ranges = parseRanges(range);
+            // Varios rangos en una petición no se usan para imágenes: se responde el archivo completo
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(photo.size());
+                    end = ranges.get(0).getRangeEnd(photo.size());
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + photo.size());
+                    response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + photo.size());
+            }
+        }
+        
+        response.setContentType(photo.contentType());
+        photoDeliveryService.send(photo, start, end, request, response);
+    }
+    
+    private static List<HttpRange> parseRanges(String header) {
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
@@ -1,22 +1,45 @@
 package com.aca.postservice.controller;
 
+import com.aca.postservice.config.HttpCacheProperties;
+import com.aca.postservice.dto.BulkCreatePostResponse;
 import com.aca.postservice.dto.CreatePostRequest;
+import com.aca.postservice.dto.FacetedPostSearchResponse;
+import com.aca.postservice.dto.NearbyPostResponse;
+import com.aca.postservice.dto.PostBatchResponse;
+import com.aca.postservice.dto.PostFilterRequest;
 import com.aca.postservice.dto.PostResponse;
+import com.aca.postservice.dto.PostSliceResponse;
+import com.aca.postservice.dto.UpdatePostRequest;
+import com.aca.postservice.hotkeys.HeavyHitters;
+import com.aca.postservice.model.AuthorActivity;
+import com.aca.postservice.service.FeedAggregationService;
 import com.aca.postservice.service.PostService;
+import com.aca.postservice.service.ResourceVersionService;
+import com.aca.postservice.service.TrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -26,6 +49,23 @@ import java.util.List;
 public class PostController {
     
     private final PostService postService;
+    private final FeedAggregationService feedAggregationService;
+    private final TrendingService trendingService;
+    private final ResourceVersionService resourceVersionService;
+    private final HttpCacheProperties httpCacheProperties;
+    private final HeavyHitters heavyHitters;
+    
+    @Value("${app.posts.bulk.max-items:5000}")
+    private int bulkMaxItems;
+    
+    @Value("${app.posts.batch-get.max-ids:100}")
+    private int batchGetMaxIds;
+    
+    @Value("${app.posts.slice.max-size:100}")
+    private int sliceMaxSize;
+    
+    @Value("${app.geo.max-radius-km:200}")
+    private double geoMaxRadiusKm;
     
     @PostMapping
     @Operation(summary = "Crear nueva publicación", description = "Crea una nueva publicación de aventura")
@@ -35,37 +75,141 @@ public class PostController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    @PostMapping("/bulk")
+    @Operation(summary = "Crear publicaciones en bloque", description = "Crea varias publicaciones en lotes y devuelve el resultado de cada elemento")
+    public ResponseEntity<BulkCreatePostResponse> createPostsBulk(@RequestBody List<CreatePostRequest> requests) {
+        log.info("Recibida solicitud para crear {} publicaciones en bloque", requests.size());
+        if (requests.isEmpty() || requests.size() > bulkMaxItems) {
+            log.warn("Carga en bloque rechazada: {} elementos (máximo {})", requests.size(), bulkMaxItems);
+            return ResponseEntity.badRequest().build();
+        }
+        BulkCreatePostResponse response = postService.createPostsBulk(requests);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Obtener publicación por ID", description = "Obtiene una publicación específica por su ID")
     public ResponseEntity<PostResponse> getPostById(
-            @Parameter(description = "ID de la publicación") @PathVariable Long id) {
+            @Parameter(description = "ID de la publicación") @PathVariable Long id,
+            WebRequest webRequest) {
         log.info("Solicitud para obtener publicación con ID: {}", id);
+        heavyHitters.record(HeavyHitters.Category.POST, id);
+        CacheControl cacheControl = httpCacheProperties.postCacheControl();
+        Optional<String> eTag = resourceVersionService.postETag(id);
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).cacheControl(cacheControl).build();
+        }
         PostResponse response = postService.getPostById(id);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(cacheControl);
+        eTag.ifPresent(builder::eTag);
+        return builder.body(response);
+    }
+    
+    @GetMapping(params = "ids")
+    @Operation(summary = "Obtener publicaciones por IDs", description = "Obtiene varias publicaciones en el orden de los IDs recibidos e informa los IDs no encontrados")
+    public ResponseEntity<PostBatchResponse> getPostsByIds(
+            @Parameter(description = "Lista de IDs de publicaciones") @RequestParam List<Long> ids) {
+        log.info("Solicitud para obtener {} publicaciones por ID", ids.size());
+        if (ids.isEmpty() || ids.size() > batchGetMaxIds) {
+            log.warn("Consulta por IDs rechazada: {} IDs (máximo {})", ids.size(), batchGetMaxIds);
+            return ResponseEntity.badRequest().build();
+        }
+        ids.forEach(id -> heavyHitters.record(HeavyHitters.Category.POST, id));
+        PostBatchResponse response = postService.getPostsByIds(ids);
         return ResponseEntity.ok(response);
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Obtener publicaciones por IDs (cuerpo)", description = "Igual que GET /api/posts?ids= pero recibe los IDs en el cuerpo de la petición")
+    public ResponseEntity<PostBatchResponse> getPostsByIdsFromBody(@RequestBody List<Long> ids) {
+        return getPostsByIds(ids);
+    }
+    
     @GetMapping
-    @Operation(summary = "Obtener todas las publicaciones", description = "Obtiene todas las publicaciones con paginación")
+    @Operation(summary = "Obtener todas las publicaciones", description = "Obtiene todas las publicaciones con paginación; el total es aproximado")
     public ResponseEntity<Page<PostResponse>> getAllPosts(
             @Parameter(description = "Número de página (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Tamaño de la página") @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "Tamaño de la página") @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
         log.info("Solicitud para obtener publicaciones - página: {}, tamaño: {}", page, size);
         Pageable pageable = PageRequest.of(page, size);
+        CacheControl cacheControl = httpCacheProperties.postListCacheControl();
+        String eTag = resourceVersionService.postPageETag(pageable);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
         Page<PostResponse> response = postService.getAllPosts(pageable);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(response);
+    }
+    
+    @GetMapping("/slice")
+    @Operation(summary = "Obtener publicaciones por tramos", description = "Obtiene las publicaciones de la más reciente a la más antigua sin calcular el total; " +
+            "la siguiente página se pide con nextBeforeCreatedAt y nextBeforeId")
+    public ResponseEntity<PostSliceResponse> getLatestSlice(
+            @Parameter(description = "Fecha de la última publicación recibida") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeCreatedAt,
+            @Parameter(description = "ID de la última publicación recibida") @RequestParam(required = false) Long beforeId,
+            @Parameter(description = "Tamaño de la página") @RequestParam(defaultValue = "10") int size) {
+        log.info("Solicitud de publicaciones por tramos - antes de: {} / {}, tamaño: {}", beforeCreatedAt, beforeId, size);
+        if (!isValidSlice(beforeCreatedAt, beforeId, size)) {
+            log.warn("Consulta por tramos rechazada: cursor incompleto o tamaño {} (máximo {})", size, sliceMaxSize);
+            return ResponseEntity.badRequest().build();
+        }
+        PostSliceResponse response = postService.getLatestSlice(beforeCreatedAt, beforeId, size);
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/liked")
+    @Operation(summary = "Likes del usuario en una página", description = "Devuelve cuáles de las publicaciones recibidas tienen like del usuario, en una sola llamada")
+    public ResponseEntity<Set<Long>> getLikedPostIds(
+            @Parameter(description = "ID del usuario") @RequestParam Long userId,
+            @Parameter(description = "Lista de IDs de publicaciones") @RequestParam List<Long> ids) {
+        log.info("Solicitud de likes del usuario {} en {} publicaciones", userId, ids.size());
+        if (ids.isEmpty() || ids.size() > batchGetMaxIds) {
+            log.warn("Consulta de likes rechazada: {} IDs (máximo {})", ids.size(), batchGetMaxIds);
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(postService.getLikedPostIds(userId, ids));
+    }
+    
+    @GetMapping("/trending")
+    @Operation(summary = "Publicaciones en tendencia", description = "Obtiene las publicaciones con mayor interacción reciente, opcionalmente por ubicación y tipo de aventura")
+    public ResponseEntity<List<PostResponse>> getTrendingPosts(
+            @Parameter(description = "Ubicación") @RequestParam(required = false) String location,
+            @Parameter(description = "Tipo de aventura") @RequestParam(required = false) String adventureType,
+            @Parameter(description = "Número de publicaciones") @RequestParam(defaultValue = "10") int limit) {
+        log.info("Solicitud de tendencias - ubicación: {}, tipo: {}, límite: {}", location, adventureType, limit);
+        List<Long> ids = trendingService.getTrending(location, adventureType, Math.min(Math.max(limit, 1), batchGetMaxIds))
+                .stream()
+                .map(TrendingService.TrendingItem::postId)
+                .toList();
+        if (ids.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(postService.getPostsByIds(ids).getPosts());
+    }
+    
     @GetMapping("/user/{userId}")
     @Operation(summary = "Obtener publicaciones por usuario", description = "Obtiene todas las publicaciones de un usuario específico")
     public ResponseEntity<List<PostResponse>> getPostsByUserId(
             @Parameter(description = "ID del usuario") @PathVariable Long userId) {
         log.info("Solicitud para obtener publicaciones del usuario: {}", userId);
+        heavyHitters.record(HeavyHitters.Category.USER, userId);
         List<PostResponse> response = postService.getPostsByUserId(userId);
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/user/{userId}/activity")
+    @Operation(summary = "Actividad de un autor", description = "Obtiene cuántas publicaciones creó un usuario y cuál fue la última")
+    public ResponseEntity<AuthorActivity> getAuthorActivity(
+            @Parameter(description = "ID del usuario") @PathVariable Long userId) {
+        log.info("Solicitud de actividad del usuario: {}", userId);
+        heavyHitters.record(HeavyHitters.Category.USER, userId);
+        return ResponseEntity.ok(postService.getAuthorActivity(userId));
+    }
+    
     @GetMapping("/search")
-    @Operation(summary = "Buscar publicaciones", description = "Busca publicaciones por ubicación o tipo de aventura")
+    @Operation(summary = "Buscar publicaciones", description = "Busca publicaciones por ubicación o tipo de aventura; el total es aproximado")
     public ResponseEntity<Page<PostResponse>> searchPosts(
             @Parameter(description = "Ubicación para buscar") @RequestParam(required = false) String location,
             @Parameter(description = "Tipo de aventura para buscar") @RequestParam(required = false) String adventureType,
@@ -73,11 +217,84 @@ public class PostController {
             @Parameter(description = "Tamaño de la página") @RequestParam(defaultValue = "10") int size) {
         log.info("Solicitud de búsqueda - ubicación: {}, tipo: {}, página: {}, tamaño: {}", 
                 location, adventureType, page, size);
+        recordSearch(location, adventureType);
         Pageable pageable = PageRequest.of(page, size);
         Page<PostResponse> response = postService.searchPosts(location, adventureType, pageable);
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/search/slice")
+    @Operation(summary = "Buscar publicaciones por tramos", description = "Igual que /search pero sin calcular el total; " +
+            "la siguiente página se pide con nextBeforeCreatedAt y nextBeforeId")
+    public ResponseEntity<PostSliceResponse> searchPostsSlice(
+            @Parameter(description = "Ubicación para buscar") @RequestParam(required = false) String location,
+            @Parameter(description = "Tipo de aventura para buscar") @RequestParam(required = false) String adventureType,
+            @Parameter(description = "Fecha de la última publicación recibida") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeCreatedAt,
+            @Parameter(description = "ID de la última publicación recibida") @RequestParam(required = false) Long beforeId,
+            @Parameter(description = "Tamaño de la página") @RequestParam(defaultValue = "10") int size) {
+        log.info("Solicitud de búsqueda por tramos - ubicación: {}, tipo: {}, antes de: {} / {}, tamaño: {}",
+                location, adventureType, beforeCreatedAt, beforeId, size);
+        if (!isValidSlice(beforeCreatedAt, beforeId, size)) {
+            log.warn("Búsqueda por tramos rechazada: cursor incompleto o tamaño {} (máximo {})", size, sliceMaxSize);
+            return ResponseEntity.badRequest().build();
+        }
+        recordSearch(location, adventureType);
+        PostSliceResponse response = postService.searchPostsSlice(location, adventureType, beforeCreatedAt, beforeId, size);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/filter")
+    @Operation(summary = "Filtrar publicaciones con facetas", description = "Filtra por ubicación, tipo, dificultad y duración (todas deben cumplirse) y devuelve los conteos por tipo y dificultad")
+    public ResponseEntity<FacetedPostSearchResponse> filterPosts(
+            @Parameter(description = "Ubicación exacta") @RequestParam(required = false) String location,
+            @Parameter(description = "Tipo de aventura") @RequestParam(required = false) String adventureType,
+            @Parameter(description = "Nivel de dificultad") @RequestParam(required = false) String difficultyLevel,
+            @Parameter(description = "Duración estimada") @RequestParam(required = false) String estimatedDuration,
+            @Parameter(description = "Número de página (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de la página") @RequestParam(defaultValue = "10") int size) {
+        PostFilterRequest filter = new PostFilterRequest(location, adventureType, difficultyLevel, estimatedDuration);
+        log.info("Solicitud de filtrado con facetas: {}, página: {}, tamaño: {}", filter, page, size);
+        recordSearch(location, adventureType);
+        FacetedPostSearchResponse response = postService.filterPosts(filter, PageRequest.of(page, size));
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/nearby")
+    @Operation(summary = "Buscar publicaciones cercanas", description = "Busca publicaciones dentro de un radio alrededor de un punto, ordenadas por distancia. Responde 422 si el área tiene demasiadas publicaciones para ordenarlas todas")
+    public ResponseEntity<Page<NearbyPostResponse>> searchNearby(
+            @Parameter(description = "Latitud del centro") @RequestParam double lat,
+            @Parameter(description = "Longitud del centro") @RequestParam double lon,
+            @Parameter(description = "Radio en kilómetros") @RequestParam(defaultValue = "10") double radiusKm,
+            @Parameter(description = "Número de página (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de la página") @RequestParam(defaultValue = "10") int size) {
+        log.info("Solicitud de búsqueda cercana - lat: {}, lon: {}, radio: {} km", lat, lon, radiusKm);
+        if (!isValidCoordinate(lat, lon) || radiusKm <= 0 || radiusKm > geoMaxRadiusKm) {
+            log.warn("Búsqueda cercana rechazada: radio {} km (máximo {})", radiusKm, geoMaxRadiusKm);
+            return ResponseEntity.badRequest().build();
+        }
+        Page<NearbyPostResponse> response = postService.searchNearby(lat, lon, radiusKm, PageRequest.of(page, size));
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/within")
+    @Operation(summary = "Buscar publicaciones en un área", description = "Busca publicaciones dentro de un rectángulo de coordenadas. Con minLon > maxLon el rectángulo cruza el antimeridiano (p. ej. de 170 a -170). Responde 422 si el área tiene demasiadas publicaciones para ordenarlas todas")
+    public ResponseEntity<Page<NearbyPostResponse>> searchWithin(
+            @Parameter(description = "Latitud mínima") @RequestParam double minLat,
+            @Parameter(description = "Longitud oeste (mayor que la este si cruza el antimeridiano)") @RequestParam double minLon,
+            @Parameter(description = "Latitud máxima") @RequestParam double maxLat,
+            @Parameter(description = "Longitud este") @RequestParam double maxLon,
+            @Parameter(description = "Número de página (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de la página") @RequestParam(defaultValue = "10") int size) {
+        log.info("Solicitud de búsqueda por área - ({}, {}) - ({}, {})", minLat, minLon, maxLat, maxLon);
+        if (!isValidCoordinate(minLat, minLon) || !isValidCoordinate(maxLat, maxLon) || minLat > maxLat) {
+            log.warn("Búsqueda por área rechazada: rectángulo inválido");
+            return ResponseEntity.badRequest().build();
+        }
+        Page<NearbyPostResponse> response = postService.searchWithin(minLat, minLon, maxLat, maxLon, PageRequest.of(page, size));
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/feed")
     @Operation(summary = "Obtener feed de publicaciones", description = "Obtiene publicaciones de usuarios específicos para el feed")
     public ResponseEntity<List<PostResponse>> getFeedPosts(
@@ -87,14 +304,42 @@ public class PostController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping(value = "/feed/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Feed en streaming", description = "Emite como NDJSON las publicaciones de los usuarios que sigue el usuario, de la más reciente a la más antigua")
+    public Flux<PostResponse> streamFeed(
+            @Parameter(description = "ID del usuario que consulta su feed") @RequestParam Long userId,
+            @Parameter(description = "Número máximo de publicaciones") @RequestParam(defaultValue = "20") int limit) {
+        log.info("Solicitud de feed en streaming para el usuario: {}, límite: {}", userId, limit);
+        heavyHitters.record(HeavyHitters.Category.USER, userId);
+        return feedAggregationService.streamFeed(userId, Math.min(Math.max(limit, 1), 200));
+    }
+    
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar publicación", description = "Actualiza una publicación existente")
     public ResponseEntity<PostResponse> updatePost(
             @Parameter(description = "ID de la publicación") @PathVariable Long id,
-            @Valid @RequestBody CreatePostRequest request) {
+            @Valid @RequestBody CreatePostRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Solicitud para actualizar publicación con ID: {}", id);
-        PostResponse response = postService.updatePost(id, request);
-        return ResponseEntity.ok(response);
+        Long expectedVersion = ResourceVersionService.parsePostVersion(ifMatch).orElse(null);
+        PostResponse response = postService.updatePost(id, request, expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(ResourceVersionService.postETag(response.getId(), response.getVersion()))
+                .body(response);
+    }
+    
+    @PatchMapping("/{id}")
+    @Operation(summary = "Actualizar parcialmente publicación", description = "Modifica solo los campos enviados; acepta If-Match o el campo version para control de concurrencia")
+    public ResponseEntity<PostResponse> patchPost(
+            @Parameter(description = "ID de la publicación") @PathVariable Long id,
+            @Valid @RequestBody UpdatePostRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Solicitud para actualizar parcialmente publicación con ID: {}", id);
+        Long expectedVersion = ResourceVersionService.parsePostVersion(ifMatch).orElse(request.getVersion());
+        PostResponse response = postService.patchPost(id, request, expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(ResourceVersionService.postETag(response.getId(), response.getVersion()))
+                .body(response);
     }
     
     @DeleteMapping("/{id}")
@@ -107,20 +352,36 @@ public class PostController {
     }
     
     @PostMapping("/{id}/like")
-    @Operation(summary = "Dar like a publicación", description = "Incrementa el contador de likes de una publicación")
+    @Operation(summary = "Dar like a publicación", description = "Registra el like del usuario; repetirlo no vuelve a sumar")
     public ResponseEntity<Void> likePost(
-            @Parameter(description = "ID de la publicación") @PathVariable Long id) {
-        log.info("Solicitud para dar like a la publicación: {}", id);
-        postService.likePost(id);
+            @Parameter(description = "ID de la publicación") @PathVariable Long id,
+            @Parameter(description = "ID del usuario que da like") @RequestParam Long userId) {
+        log.info("Solicitud del usuario {} para dar like a la publicación: {}", userId, id);
+        heavyHitters.record(HeavyHitters.Category.POST, id);
+        postService.likePost(id, userId);
         return ResponseEntity.ok().build();
     }
     
     @DeleteMapping("/{id}/like")
-    @Operation(summary = "Quitar like de publicación", description = "Decrementa el contador de likes de una publicación")
+    @Operation(summary = "Quitar like de publicación", description = "Quita el like del usuario si lo había dado")
     public ResponseEntity<Void> unlikePost(
-            @Parameter(description = "ID de la publicación") @PathVariable Long id) {
-        log.info("Solicitud para quitar like de la publicación: {}", id);
-        postService.unlikePost(id);
+            @Parameter(description = "ID de la publicación") @PathVariable Long id,
+            @Parameter(description = "ID del usuario que quita el like") @RequestParam Long userId) {
+        log.info("Solicitud del usuario {} para quitar like de la publicación: {}", userId, id);
+        postService.unlikePost(id, userId);
         return ResponseEntity.ok().build();
     }
+    
+    private void recordSearch(String location, String adventureType) {
+        heavyHitters.record(HeavyHitters.Category.SEARCH, location);
+        heavyHitters.record(HeavyHitters.Category.SEARCH, adventureType);
+    }
+    
+    private boolean isValidSlice(LocalDateTime beforeCreatedAt, Long beforeId, int size) {
+        return (beforeCreatedAt == null) == (beforeId == null) && size >= 1 && size <= sliceMaxSize;
+    }
+    
+    private static boolean isValidCoordinate(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
 }
@@ -0,0 +1,62 @@
+package com.aca.postservice.controller;
+
+import com.aca.postservice.dto.BucketMoveResponse;
+import com.aca.postservice.sharding.BucketRebalancer;
+import com.aca.postservice.sharding.ShardDirectory;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/shards")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+@Tag(name = "Sharding Controller", description = "API para revisar el reparto de buckets y moverlos entre shards")
+public class ShardingController {
+    
+    private final ShardDirectory shardDirectory;
+    private final BucketRebalancer bucketRebalancer;
+    
+    @GetMapping
+    @Operation(summary = "Reparto de buckets", description = "Obtiene cuántos buckets tiene asignados cada shard")
+    public ResponseEntity<Map<Integer, Integer>> getLayout() {
+        Map<Integer, Integer> layout = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardDirectory.getShardCount(); shard++) {
+            layout.put(shard, shardDirectory.bucketsOf(shard).size());
+        }
+        return ResponseEntity.ok(layout);
+    }
+    
+    @PostMapping("/buckets/{bucket}/move")
+    @Operation(summary = "Mover bucket", description = "Copia un bucket a otro shard sin parar el servicio y lo reasigna; " +
+            "las escrituras del bucket responden 503 durante el tramo final")
+    public ResponseEntity<BucketMoveResponse> moveBucket(
+            @Parameter(description = "Bucket a mover (0-1023)") @PathVariable int bucket,
+            @Parameter(description = "Shard de destino") @RequestParam int targetShard) {
+        log.info("Solicitud para mover el bucket {} al shard {}", bucket, targetShard);
+        try {
+            return ResponseEntity.ok(bucketRebalancer.moveBucket(bucket, targetShard));
+        } catch (IllegalArgumentException e) {
+            log.warn("Movimiento de bucket rechazado: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.error("Error al mover el bucket {}: {}", bucket, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
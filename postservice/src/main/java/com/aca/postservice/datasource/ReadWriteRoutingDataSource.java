@@ -0,0 +1,117 @@
+package com.aca.postservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía las transacciones readOnly a una réplica sana (round-robin) y todo lo demás al primario.
+ *
+ * <p>Debe usarse detrás de un {@code LazyConnectionDataSourceProxy}: la conexión se pide al
+ * ejecutar la primera sentencia, cuando la transacción ya sabe si es de solo lectura.
+ * Las lecturas van al primario si no hay réplicas sanas o si el cliente escribió hace poco.</p>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    
+    static final String PRIMARY = "primary";
+    
+    private final HikariDataSource primary;
+    private final List<ReplicaTarget> replicas;
+    private final Duration readYourWritesWindow;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                      Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.replicas = new ArrayList<>();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaPools.size(); i++) {
+            ReplicaTarget replica = new ReplicaTarget("replica-" + i, replicaPools.get(i));
+            replicas.add(replica);
+            targets.put(replica.key(), replica.dataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+    
+    public List<ReplicaTarget> getReplicas() {
+        return replicas;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.recordWrite(readYourWritesWindow);
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWrites.mustReadPrimary()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaTarget replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica.key();
+            }
+        }
+        return PRIMARY;
+    }
+    
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource().close());
+        primary.close();
+    }
+    
+    /**
+     * Réplica y su estado según el último control de retraso.
+     */
+    public static final class ReplicaTarget {
+        
+        private final String key;
+        private final HikariDataSource dataSource;
+        // Sin lecturas hasta que el primer control confirme que está al día
+        private volatile boolean healthy = false;
+        private volatile Long lagSeconds;
+        
+        ReplicaTarget(String key, HikariDataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+        
+        public String key() {
+            return key;
+        }
+        
+        public HikariDataSource dataSource() {
+            return dataSource;
+        }
+        
+        public boolean isHealthy() {
+            return healthy;
+        }
+        
+        public Long getLagSeconds() {
+            return lagSeconds;
+        }
+        
+        void update(boolean healthy, Long lagSeconds) {
+            this.healthy = healthy;
+            this.lagSeconds = lagSeconds;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.aca.postservice.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Lecturas de las propias escrituras: tras una escritura el cliente recibe una cookie con el
+ * instante hasta el que sus lecturas deben ir al primario. La cookie viaja con el cliente, así que
+ * funciona aunque la siguiente petición la atienda otra instancia del servicio.
+ */
+final class ReadYourWrites {
+    
+    static final String COOKIE = "AVENTURA_POSTS_RYW";
+    
+    private static final String WROTE_ATTRIBUTE = ReadYourWrites.class.getName() + ".WROTE";
+    
+    private ReadYourWrites() {
+    }
+    
+    /**
+     * La petición en curso escribió hace poco (en ella misma o dentro de la ventana de la cookie).
+     */
+    static boolean mustReadPrimary() {
+        HttpServletRequest request = currentRequest();
+        if (request == null) {
+            return false;
+        }
+        if (request.getAttribute(WROTE_ATTRIBUTE) != null) {
+            return true;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+    
+    static void recordWrite(Duration window) {
+        ServletRequestAttributes attributes = currentAttributes();
+        if (attributes == null || attributes.getRequest().getAttribute(WROTE_ATTRIBUTE) != null) {
+            return;
+        }
+        attributes.getRequest().setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE);
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + window.toMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+        response.addCookie(cookie);
+    }
+    
+    private static HttpServletRequest currentRequest() {
+        ServletRequestAttributes attributes = currentAttributes();
+        return attributes != null ? attributes.getRequest() : null;
+    }
+    
+    private static ServletRequestAttributes currentAttributes() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes
+                : null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.aca.postservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BucketMoveResponse {
+    
+    private int bucket;
+    private int fromShard;
+    private int toShard;
+    // Publicaciones y comentarios copiados o borrados en el destino, sumando ambas pasadas
+    private long postsSynced;
+    private long commentsSynced;
+    private long rowsDeletedAtSource;
+}
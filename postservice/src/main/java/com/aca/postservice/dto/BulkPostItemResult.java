@@ -0,0 +1,24 @@
+package com.aca.postservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPostItemResult {
+    
+    private int index;
+    private boolean success;
+    private PostResponse post;
+    private String error;
+    
+    public static BulkPostItemResult created(int index, PostResponse post) {
+        return new BulkPostItemResult(index, true, post, null);
+    }
+    
+    public static BulkPostItemResult failed(int index, String error) {
+        return new BulkPostItemResult(index, false, null, error);
+    }
+}
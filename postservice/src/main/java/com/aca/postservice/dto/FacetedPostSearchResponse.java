@@ -0,0 +1,18 @@
+package com.aca.postservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedPostSearchResponse {
+    
+    private Page<PostResponse> posts;
+    private Map<String, Long> adventureTypeCounts;
+    private Map<String, Long> difficultyLevelCounts;
+}
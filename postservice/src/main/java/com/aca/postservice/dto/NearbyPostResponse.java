@@ -0,0 +1,14 @@
+package com.aca.postservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyPostResponse {
+    
+    private PostResponse post;
+    private double distanceMeters;
+}
@@ -0,0 +1,19 @@
+package com.aca.postservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class PhotoResponse {
+    private String contentHash;
+    private String status;
+    private String contentType;
+    private String originalFilename;
+    private Long sizeBytes;
+    private Integer width;
+    private Integer height;
+    private PhotoVariantUrls urls;
+    private boolean duplicate;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.aca.postservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoVariantUrls {
+    
+    private String original;
+    private String thumbnail;
+    private String medium;
+}
@@ -0,0 +1,16 @@
+package com.aca.postservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostBatchResponse {
+    
+    private List<PostResponse> posts;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,16 @@
+package com.aca.postservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostFilterRequest {
+    
+    private String location;
+    private String adventureType;
+    private String difficultyLevel;
+    private String estimatedDuration;
+}
@@ -11,14 +11,18 @@ public class PostResponse {
     private String title;
     private String description;
     private String location;
+    private Double latitude;
+    private Double longitude;
     private String adventureType;
     private String difficultyLevel;
     private String estimatedDuration;
     private Long userId;
     private String userName;
     private List<String> photos;
+    private List<PhotoVariantUrls> photoVariants;
     private Integer likesCount;
     private Integer commentsCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
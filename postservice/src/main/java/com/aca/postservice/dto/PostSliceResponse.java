@@ -0,0 +1,23 @@
+package com.aca.postservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Página de un listado sin total. Para pedir la siguiente se envían {@code nextBeforeCreatedAt}
+ * y {@code nextBeforeId} como {@code beforeCreatedAt} y {@code beforeId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSliceResponse {
+    
+    private List<PostResponse> posts;
+    private boolean hasNext;
+    private LocalDateTime nextBeforeCreatedAt;
+    private Long nextBeforeId;
+}
@@ -0,0 +1,44 @@
+package com.aca.postservice.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Actualización parcial (PATCH): solo se modifican los campos no nulos.
+ */
+@Data
+public class UpdatePostRequest {
+    
+    @Pattern(regexp = "(?s).*\\S.*", message = "El título no puede estar vacío")
+    private String title;
+    
+    private String description;
+    
+    @Pattern(regexp = "(?s).*\\S.*", message = "La ubicación no puede estar vacía")
+    private String location;
+    
+    @DecimalMin(value = "-90.0", message = "La latitud debe estar entre -90 y 90")
+    @DecimalMax(value = "90.0", message = "La latitud debe estar entre -90 y 90")
+    private Double latitude;
+    
+    @DecimalMin(value = "-180.0", message = "La longitud debe estar entre -180 y 180")
+    @DecimalMax(value = "180.0", message = "La longitud debe estar entre -180 y 180")
+    private Double longitude;
+    
+    private String adventureType;
+    
+    private String difficultyLevel;
+    
+    private String estimatedDuration;
+    
+    private List<String> photos;
+    
+    /**
+     * Versión que el cliente leyó. Si se envía y no coincide, se responde 409 en lugar de reintentar.
+     */
+    private Long version;
+}
@@ -0,0 +1,28 @@
+package com.aca.postservice.event;
+
+/**
+ * Tipos de mutación publicados en el flujo de cambios del post-service.
+ * Todas pertenecen al agregado "post", así que los comentarios y likes de una publicación
+ * comparten su secuencia y llegan en orden respecto a sus ediciones.
+ */
+public enum MutationType {
+    
+    POST_CREATED("post.created"),
+    POST_UPDATED("post.updated"),
+    POST_DELETED("post.deleted"),
+    POST_LIKED("post.liked"),
+    POST_UNLIKED("post.unliked"),
+    COMMENT_CREATED("post.comment.created"),
+    COMMENT_DELETED("post.comment.deleted"),
+    COMMENTS_DELETED("post.comments.deleted");
+    
+    private final String routingKey;
+    
+    MutationType(String routingKey) {
+        this.routingKey = routingKey;
+    }
+    
+    public String getRoutingKey() {
+        return routingKey;
+    }
+}
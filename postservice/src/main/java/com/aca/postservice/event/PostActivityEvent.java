@@ -0,0 +1,56 @@
+package com.aca.postservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Evento interno (ApplicationEvent de Spring) que describe una actividad sobre una publicación.
+ * Lo consumen los índices en memoria del servicio después de que la transacción confirma.
+ * Las actividades que no cargan la publicación (likes, comentarios) no traen ubicación ni tipo.
+ * En actualizaciones y borrados se incluyen los valores anteriores de tipo y dificultad para los contadores de facetas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostActivityEvent {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        LIKED,
+        UNLIKED,
+        COMMENTED
+    }
+    
+    private Type type;
+    private Long postId;
+    private String location;
+    private String adventureType;
+    private String difficultyLevel;
+    private String previousAdventureType;
+    private String previousDifficultyLevel;
+    private Instant occurredAt;
+    
+    public static PostActivityEvent of(Type type, Long postId) {
+        return new PostActivityEvent(type, postId, null, null, null, null, null, Instant.now());
+    }
+    
+    public static PostActivityEvent of(Type type, Long postId, String location, String adventureType, String difficultyLevel) {
+        return new PostActivityEvent(type, postId, location, adventureType, difficultyLevel, null, null, Instant.now());
+    }
+    
+    public static PostActivityEvent updated(Long postId, String location, String adventureType, String difficultyLevel,
+                                            String previousAdventureType, String previousDifficultyLevel) {
+        return new PostActivityEvent(Type.UPDATED, postId, location, adventureType, difficultyLevel,
+                previousAdventureType, previousDifficultyLevel, Instant.now());
+    }
+    
+    public static PostActivityEvent deleted(Long postId, String previousAdventureType, String previousDifficultyLevel) {
+        return new PostActivityEvent(Type.DELETED, postId, null, null, null,
+                previousAdventureType, previousDifficultyLevel, Instant.now());
+    }
+}
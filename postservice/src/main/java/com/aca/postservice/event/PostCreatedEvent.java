@@ -12,6 +12,8 @@ import java.util.List;
 @AllArgsConstructor
 public class PostCreatedEvent {
     
+    // Estable entre reenvíos: los consumidores lo usan para descartar duplicados
+    private String eventId;
     private Long postId;
     private String title;
     private String location;
@@ -0,0 +1,39 @@
+package com.aca.postservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Evento de usuario publicado por el user-service en el exchange {@code user.mutations}.
+ *
+ * <p>Un mismo formato cubre todos los tipos: con {@code followeeId} es un seguimiento
+ * (following indica si empezó o dejó de seguir); sin él, un registro o cambio de perfil, y si
+ * además trae {@code followingIds} es una instantánea completa del usuario.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserReplicaEvent {
+    
+    private String eventId;
+    private Long userId;
+    private String username;
+    private Long followeeId;
+    private Boolean following;
+    // Versión del usuario en el user-service tras el cambio
+    private Long version;
+    private List<Long> followingIds;
+    private LocalDateTime occurredAt;
+    
+    public boolean isFollowChange() {
+        return followeeId != null;
+    }
+    
+    public boolean isSnapshot() {
+        return followingIds != null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.aca.postservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CoalescedLoadTimeoutException extends RuntimeException {
+    
+    public CoalescedLoadTimeoutException(Object key) {
+        super("La lectura compartida de " + key + " no terminó a tiempo; reintente en unos segundos");
+    }
+}
@@ -0,0 +1,12 @@
+package com.aca.postservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class GeoSearchTruncatedException extends RuntimeException {
+    
+    public GeoSearchTruncatedException(int maxCandidates) {
+        super("El área contiene más de " + maxCandidates + " publicaciones en un mismo shard; reduzca el radio o el rectángulo");
+    }
+}
@@ -0,0 +1,17 @@
+package com.aca.postservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PostVersionConflictException extends RuntimeException {
+    
+    public PostVersionConflictException(Long postId, Long expectedVersion, Long currentVersion) {
+        super("La publicación " + postId + " fue modificada por otra petición (versión esperada: "
+                + expectedVersion + ", versión actual: " + currentVersion + ")");
+    }
+    
+    public PostVersionConflictException(Long postId) {
+        super("La publicación " + postId + " fue modificada por otra petición");
+    }
+}
@@ -0,0 +1,12 @@
+package com.aca.postservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ShardBucketFrozenException extends RuntimeException {
+    
+    public ShardBucketFrozenException(int bucket) {
+        super("Los datos del bucket " + bucket + " se están moviendo de shard; reintente en unos segundos");
+    }
+}
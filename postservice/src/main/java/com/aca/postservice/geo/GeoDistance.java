@@ -0,0 +1,74 @@
+package com.aca.postservice.geo;
+
+import java.util.List;
+
+/**
+ * Cálculos de distancia sobre la esfera terrestre.
+ */
+public final class GeoDistance {
+    
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    
+    private GeoDistance() {
+    }
+    
+    /**
+     * Distancia de gran círculo (haversine) en metros.
+     */
+    public static double meters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+    
+    /**
+     * Rectángulo {minLat, minLon, maxLat, maxLon} que contiene el círculo de radio dado. Si el
+     * círculo cruza el antimeridiano, {@code minLon > maxLon} (ver {@link #splitAtAntimeridian});
+     * si contiene un polo, abarca todas las longitudes.
+     */
+    public static double[] boundingBox(double latitude, double longitude, double radiusMeters) {
+        double angular = radiusMeters / EARTH_RADIUS_METERS;
+        double latDelta = Math.toDegrees(angular);
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+        if (minLat <= -90 || maxLat >= 90 || angular >= Math.PI / 2) {
+            return new double[]{Math.max(-90, minLat), -180, Math.min(90, maxLat), 180};
+        }
+        // Mayor diferencia de longitud dentro del círculo (tangentes por los meridianos)
+        double lonDelta = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(latitude))));
+        double minLon = longitude - lonDelta;
+        double maxLon = longitude + lonDelta;
+        if (minLon < -180) {
+            minLon += 360;
+        }
+        if (maxLon > 180) {
+            maxLon -= 360;
+        }
+        return new double[]{minLat, minLon, maxLat, maxLon};
+    }
+    
+    /**
+     * Longitud central de un rectángulo, también si cruza el antimeridiano ({@code minLon > maxLon}):
+     * el centro de 170 a -170 es 180, no 0.
+     */
+    public static double centerLongitude(double minLon, double maxLon) {
+        double span = minLon <= maxLon ? maxLon - minLon : maxLon + 360 - minLon;
+        double center = minLon + span / 2;
+        return center > 180 ? center - 360 : center;
+    }
+    
+    /**
+     * Parte un rectángulo que cruza el antimeridiano ({@code minLon > maxLon}) en los dos que quedan
+     * a cada lado; uno que no lo cruza se devuelve tal cual.
+     */
+    public static List<double[]> splitAtAntimeridian(double[] box) {
+        if (box[1] <= box[3]) {
+            return List.of(box);
+        }
+        return List.of(
+                new double[]{box[0], box[1], box[2], 180},
+                new double[]{box[0], -180, box[2], box[3]});
+    }
+}
@@ -0,0 +1,113 @@
+package com.aca.postservice.geo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Codificación geohash (base 32) y cobertura de rectángulos con celdas.
+ * Las publicaciones cercanas comparten prefijo, así que una búsqueda por zona se
+ * convierte en unos pocos rangos sobre el índice B-tree de la columna geohash.
+ */
+public final class GeoHash {
+    
+    public static final int MAX_PRECISION = 12;
+    
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    
+    private GeoHash() {
+    }
+    
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+    
+    /**
+     * Alto de una celda en grados de latitud para la precisión dada.
+     */
+    public static double cellHeight(int precision) {
+        int latBits = (5 * precision) / 2;
+        return 180.0 / (1L << latBits);
+    }
+    
+    /**
+     * Ancho de una celda en grados de longitud para la precisión dada.
+     */
+    public static double cellWidth(int precision) {
+        int lonBits = (5 * precision + 1) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+    
+    /**
+     * Prefijos de las celdas que cubren el rectángulo, usando la mayor precisión
+     * que no supere {@code maxCells} celdas. Celdas más finas leen menos filas sobrantes.
+     */
+    public static List<String> cover(double minLat, double minLon, double maxLat, double maxLon, int maxCells) {
+        int precision = 1;
+        for (int candidate = MAX_PRECISION; candidate >= 1; candidate--) {
+            if (cellCount(minLat, minLon, maxLat, maxLon, candidate) <= maxCells) {
+                precision = candidate;
+                break;
+            }
+        }
+        
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        long firstRow = (long) Math.floor((minLat + 90) / height);
+        long lastRow = (long) Math.floor((Math.min(maxLat, 90 - 1e-9) + 90) / height);
+        long firstColumn = (long) Math.floor((minLon + 180) / width);
+        long lastColumn = (long) Math.floor((Math.min(maxLon, 180 - 1e-9) + 180) / width);
+        
+        Set<String> cells = new LinkedHashSet<>();
+        for (long row = firstRow; row <= lastRow; row++) {
+            for (long column = firstColumn; column <= lastColumn; column++) {
+                double centerLat = (row + 0.5) * height - 90;
+                double centerLon = (column + 0.5) * width - 180;
+                cells.add(encode(centerLat, centerLon, precision));
+            }
+        }
+        return new ArrayList<>(cells);
+    }
+    
+    private static long cellCount(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        long rows = (long) Math.floor((Math.min(maxLat, 90 - 1e-9) + 90) / height) - (long) Math.floor((minLat + 90) / height) + 1;
+        long columns = (long) Math.floor((Math.min(maxLon, 180 - 1e-9) + 180) / width) - (long) Math.floor((minLon + 180) / width) + 1;
+        return rows * columns;
+    }
+}
@@ -0,0 +1,135 @@
+package com.aca.postservice.hotkeys;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Claves más frecuentes de un flujo con memoria fija: un Count-Min Sketch estima la frecuencia de
+ * cualquier clave y un conjunto acotado de candidatas guarda las que superan el umbral de entrada.
+ *
+ * <p>Registrar una clave son {@value #DEPTH} incrementos atómicos y, si la clave entra en el top, una
+ * inserción en un conjunto concurrente; no hay bloqueos. Las estimaciones nunca quedan por debajo
+ * del valor real y el error crece con el tráfico total / {@code width}. {@link #decay()} divide los
+ * contadores a la mitad para que el top refleje el tráfico reciente.</p>
+ */
+public class HeavyHitterTracker {
+    
+    static final int DEPTH = 4;
+    
+    // Una semilla por fila: cada fila mezcla el hash completo con la suya y elige su posición por separado
+    private static final long[] ROW_SEEDS = {
+            0x9e3779b97f4a7c15L, 0xbf58476d1ce4e5b9L, 0x94d049bb133111ebL, 0x2545f4914f6cdd1dL};
+    
+    private final int width;
+    private final int capacity;
+    private final AtomicLongArray counts;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pruning = new AtomicBoolean();
+    
+    // Estimación mínima para entrar en el top, recalculada en cada poda
+    private volatile long admissionFloor;
+    
+    public HeavyHitterTracker(int width, int capacity) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("El ancho del sketch debe ser potencia de dos: " + width);
+        }
+        this.width = width;
+        this.capacity = capacity;
+        this.counts = new AtomicLongArray(DEPTH * width);
+    }
+    
+    public void record(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts.incrementAndGet(slot(row, hash)));
+        }
+        if (estimate >= admissionFloor && candidates.add(key) && candidates.size() > 2 * capacity) {
+            prune();
+        }
+    }
+    
+    public long estimate(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts.get(slot(row, hash)));
+        }
+        return estimate;
+    }
+    
+    /**
+     * Las {@code limit} claves con mayor estimación, de mayor a menor.
+     */
+    public List<HeavyHitter> top(int limit) {
+        return candidates.stream()
+                .map(key -> new HeavyHitter(key, estimate(key)))
+                .filter(hitter -> hitter.estimate() > 0)
+                .sorted(Comparator.comparingLong(HeavyHitter::estimate).reversed().thenComparing(HeavyHitter::key))
+                .limit(limit)
+                .toList();
+    }
+    
+    /**
+     * Deja solo las {@code capacity} mejores candidatas. Si otro hilo ya está podando, no hace nada.
+     */
+    public void prune() {
+        if (!pruning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<HeavyHitter> kept = top(capacity);
+            candidates.retainAll(kept.stream().map(HeavyHitter::key).toList());
+            admissionFloor = kept.size() < capacity ? 0 : kept.get(kept.size() - 1).estimate();
+        } finally {
+            pruning.set(false);
+        }
+    }
+    
+    /**
+     * Divide a la mitad todos los contadores (cada uno con su propio CAS, sin detener los registros).
+     */
+    public void decay() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.updateAndGet(i, value -> value >> 1);
+        }
+        prune();
+    }
+    
+    /**
+     * Hash de 64 bits (FNV-1a) de los bytes UTF-8 de la clave completa. Con {@code String.hashCode()},
+     * de 32 bits, las claves que colisionan ahí caían en la misma celda de todas las filas.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    /**
+     * Posición de la clave en una fila: el hash mezclado con la semilla de la fila.
+     */
+    private int slot(int row, long hash) {
+        return row * width + (int) (mix(hash ^ ROW_SEEDS[row]) & (width - 1));
+    }
+    
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+    
+    public record HeavyHitter(String key, long estimate) {
+    }
+}
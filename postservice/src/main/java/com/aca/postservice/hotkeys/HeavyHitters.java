@@ -0,0 +1,129 @@
+package com.aca.postservice.hotkeys;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Publicaciones, usuarios y términos de búsqueda que más tráfico generan, con un
+ * {@link HeavyHitterTracker} por categoría alimentado desde los controladores.
+ *
+ * <p>El top se publica en {@code /actuator/hotkeys} y como la métrica {@code hotkeys.estimate}
+ * (etiquetas category, rank y key). En la métrica la etiqueta key de las búsquedas es un hash del
+ * término, no el texto que escribió el usuario; los términos solo se ven en el endpoint. Las {@code app.hot-keys.pinned} primeras publicaciones se
+ * consideran calientes: la caché de publicaciones no las expulsa por tamaño.</p>
+ */
+@Component
+@Slf4j
+public class HeavyHitters implements MeterBinder {
+    
+    public enum Category {
+        POST, USER, SEARCH
+    }
+    
+    private final Map<Category, HeavyHitterTracker> trackers = new EnumMap<>(Category.class);
+    private final int pinned;
+    private final int exported;
+    
+    private volatile Map<Category, Set<String>> hot = new EnumMap<>(Category.class);
+    private volatile MultiGauge gauge;
+    
+    public HeavyHitters(@Value("${app.hot-keys.sketch-width:2048}") int sketchWidth,
+                        @Value("${app.hot-keys.capacity:100}") int capacity,
+                        @Value("${app.hot-keys.pinned:50}") int pinned,
+                        @Value("${app.hot-keys.exported:10}") int exported) {
+        for (Category category : Category.values()) {
+            trackers.put(category, new HeavyHitterTracker(sketchWidth, capacity));
+            hot.put(category, Set.of());
+        }
+        this.pinned = pinned;
+        this.exported = exported;
+    }
+    
+    public void record(Category category, Object key) {
+        if (key == null) {
+            return;
+        }
+        String normalized = normalize(category, key);
+        if (!normalized.isEmpty()) {
+            trackers.get(category).record(normalized);
+        }
+    }
+    
+    /**
+     * Si la clave está entre las {@code pinned} primeras en la última actualización del top.
+     */
+    public boolean isHot(Category category, Object key) {
+        return key != null && hot.get(category).contains(normalize(category, key));
+    }
+    
+    public List<HeavyHitterTracker.HeavyHitter> top(Category category, int limit) {
+        return trackers.get(category).top(limit);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.hot-keys.refresh-interval:PT10S}")
+    public void refresh() {
+        Map<Category, Set<String>> freshHot = new EnumMap<>(Category.class);
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (Map.Entry<Category, HeavyHitterTracker> entry : trackers.entrySet()) {
+            HeavyHitterTracker tracker = entry.getValue();
+            tracker.prune();
+            List<HeavyHitterTracker.HeavyHitter> top = tracker.top(Math.max(pinned, exported));
+            freshHot.put(entry.getKey(), top.stream()
+                    .limit(pinned)
+                    .map(HeavyHitterTracker.HeavyHitter::key)
+                    .collect(Collectors.toUnmodifiableSet()));
+            for (int rank = 0; rank < Math.min(exported, top.size()); rank++) {
+                HeavyHitterTracker.HeavyHitter hitter = top.get(rank);
+                rows.add(MultiGauge.Row.of(Tags.of("category", entry.getKey().name().toLowerCase(Locale.ROOT),
+                        "rank", String.valueOf(rank + 1), "key", metricKey(entry.getKey(), hitter.key())), hitter.estimate()));
+            }
+        }
+        hot = freshHot;
+        MultiGauge current = gauge;
+        if (current != null) {
+            current.register(rows, true);
+        }
+    }
+    
+    /**
+     * Reduce a la mitad los contadores para que pese más el tráfico reciente.
+     */
+    @Scheduled(fixedDelayString = "${app.hot-keys.decay-interval:PT1M}")
+    public void decay() {
+        trackers.values().forEach(HeavyHitterTracker::decay);
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge = MultiGauge.builder("hotkeys.estimate")
+                .description("Frecuencia estimada de las claves más consultadas")
+                .register(registry);
+    }
+    
+    /**
+     * Valor de la etiqueta key: los IDs tal cual y los términos de búsqueda como hash, para no sacar
+     * texto libre de los usuarios al sistema de métricas.
+     */
+    static String metricKey(Category category, String key) {
+        return category == Category.SEARCH ? Long.toHexString(HeavyHitterTracker.hash(key)) : key;
+    }
+    
+    private static String normalize(Category category, Object key) {
+        String value = String.valueOf(key);
+        return category == Category.SEARCH ? value.trim().toLowerCase(Locale.ROOT) : value;
+    }
+}
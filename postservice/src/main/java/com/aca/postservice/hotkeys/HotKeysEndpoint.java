@@ -0,0 +1,48 @@
+package com.aca.postservice.hotkeys;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/hotkeys}: top de cada categoría; {@code /actuator/hotkeys/{categoría}?limit=}
+ * para una sola.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeysEndpoint {
+    
+    private static final int DEFAULT_LIMIT = 20;
+    
+    private final HeavyHitters heavyHitters;
+    
+    @ReadOperation
+    public Map<String, List<HeavyHitterTracker.HeavyHitter>> top() {
+        Map<String, List<HeavyHitterTracker.HeavyHitter>> top = new LinkedHashMap<>();
+        for (HeavyHitters.Category category : HeavyHitters.Category.values()) {
+            top.put(category.name().toLowerCase(Locale.ROOT), heavyHitters.top(category, DEFAULT_LIMIT));
+        }
+        return top;
+    }
+    
+    @ReadOperation
+    public List<HeavyHitterTracker.HeavyHitter> topOf(@Selector String category, @Nullable Integer limit) {
+        HeavyHitters.Category selected;
+        try {
+            selected = HeavyHitters.Category.valueOf(category.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException("Categoría desconocida: " + category, "Categoría desconocida");
+        }
+        return heavyHitters.top(selected, limit != null ? limit : DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,92 @@
+package com.aca.postservice.messaging;
+
+import com.aca.postservice.config.MessagingProperties;
+import com.aca.postservice.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Envía los mensajes que fallaron a la cola de reintentos (con espera) o, agotados los intentos,
+ * al parking lot; y reenvía a mano los mensajes del parking lot a su cola original.
+ * Todo pasa por el exchange por defecto, que enruta por nombre de cola.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DeadLetterRouter {
+    
+    static final String ATTEMPTS_HEADER = "x-attempts";
+    static final String ERROR_HEADER = "x-last-error";
+    
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final MessagingProperties properties;
+    
+    public void retryOrPark(Message message, Exception error) {
+        MessageProperties messageProperties = message.getMessageProperties();
+        String queue = messageProperties.getConsumerQueue();
+        int attempts = attemptsOf(message) + 1;
+        messageProperties.setHeader(ATTEMPTS_HEADER, attempts);
+        messageProperties.setHeader(ERROR_HEADER, describe(error));
+        if (attempts >= properties.getMaxAttempts()) {
+            log.error("Mensaje {} de {} movido al parking lot tras {} intentos: {}",
+                    messageProperties.getMessageId(), queue, attempts, describe(error));
+            rabbitTemplate.send("", RabbitMQConfig.parkingLotQueue(queue), message);
+        } else {
+            log.warn("Mensaje {} de {} falló (intento {}), se reintentará: {}",
+                    messageProperties.getMessageId(), queue, attempts, describe(error));
+            rabbitTemplate.send("", RabbitMQConfig.retryQueue(queue), message);
+        }
+    }
+    
+    /**
+     * Mensajes que nunca podrán procesarse (p. ej. JSON inválido): van al parking lot sin reintentos.
+     */
+    public void park(Message message, Exception error) {
+        String queue = message.getMessageProperties().getConsumerQueue();
+        message.getMessageProperties().setHeader(ERROR_HEADER, describe(error));
+        log.error("Mensaje ilegible de {} movido al parking lot: {}", queue, describe(error));
+        rabbitTemplate.send("", RabbitMQConfig.parkingLotQueue(queue), message);
+    }
+    
+    /**
+     * Devuelve hasta {@code max} mensajes del parking lot a su cola con los intentos a cero.
+     */
+    public int replay(String queue, int max) {
+        String parkingLot = RabbitMQConfig.parkingLotQueue(queue);
+        int replayed = 0;
+        while (replayed < max) {
+            Message message = rabbitTemplate.receive(parkingLot);
+            if (message == null) {
+                break;
+            }
+            message.getMessageProperties().getHeaders().remove(ATTEMPTS_HEADER);
+            message.getMessageProperties().getHeaders().remove(ERROR_HEADER);
+            rabbitTemplate.send("", queue, message);
+            replayed++;
+        }
+        log.info("Reenviados {} mensajes del parking lot de {}", replayed, queue);
+        return replayed;
+    }
+    
+    public long parkedCount(String queue) {
+        QueueInformation info = amqpAdmin.getQueueInfo(RabbitMQConfig.parkingLotQueue(queue));
+        return info != null ? info.getMessageCount() : 0;
+    }
+    
+    private static int attemptsOf(Message message) {
+        Object attempts = message.getMessageProperties().getHeaders().get(ATTEMPTS_HEADER);
+        return attempts instanceof Number number ? number.intValue() : 0;
+    }
+    
+    private static String describe(Exception error) {
+        String description = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return description.length() > 500 ? description.substring(0, 500) : description;
+    }
+}
@@ -0,0 +1,108 @@
+package com.aca.postservice.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Aplica un lote de mensajes de forma idempotente.
+ *
+ * <p>El lote completo se aplica en una transacción junto con el registro de sus IDs en
+ * {@link ProcessedMessageStore}; los mensajes ya registrados se descartan. Si el lote falla se
+ * repite mensaje a mensaje, cada uno en su transacción, para aislar al culpable: ese va a
+ * reintentos o al parking lot y el resto se confirma. El listener nunca lanza por un mensaje
+ * concreto, así que un mensaje venenoso no vuelve a la cabeza de la cola.</p>
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotentBatchProcessor {
+    
+    private final ProcessedMessageStore processedMessageStore;
+    private final DeadLetterRouter deadLetterRouter;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    
+    /**
+     * @param consumer nombre estable del consumidor (clave de deduplicación)
+     * @param idOf     ID del evento; si devuelve null se usa el messageId de AMQP
+     * @param handler  aplica los eventos nuevos; corre dentro de la transacción
+     */
+    public <T> void process(String consumer, List<Message> messages, Class<T> type,
+                            Function<T, String> idOf, Consumer<List<T>> handler) {
+        // Por ID, conservando el orden de llegada y descartando duplicados dentro del lote
+        Map<String, Delivery<T>> deliveries = new LinkedHashMap<>();
+        for (Message message : messages) {
+            T event;
+            try {
+                event = objectMapper.readValue(message.getBody(), type);
+            } catch (Exception e) {
+                deadLetterRouter.park(message, e);
+                continue;
+            }
+            String id = idOf.apply(event);
+            if (id == null) {
+                id = message.getMessageProperties().getMessageId();
+            }
+            if (id == null) {
+                deadLetterRouter.park(message, new IllegalArgumentException("Mensaje sin ID de evento"));
+                continue;
+            }
+            deliveries.putIfAbsent(id, new Delivery<>(id, event, message));
+        }
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(consumer, deliveries, handler));
+            return;
+        } catch (Exception e) {
+            log.warn("Falló el lote de {} mensajes de {}, se procesan uno a uno: {}",
+                    deliveries.size(), consumer, e.getMessage());
+        }
+        
+        for (Delivery<T> delivery : deliveries.values()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        apply(consumer, Map.of(delivery.id(), delivery), handler));
+            } catch (Exception e) {
+                deadLetterRouter.retryOrPark(delivery.message(), e);
+            }
+        }
+    }
+    
+    private <T> void apply(String consumer, Map<String, Delivery<T>> deliveries, Consumer<List<T>> handler) {
+        Set<String> processed = processedMessageStore.findProcessed(consumer, deliveries.keySet());
+        List<String> freshIds = new ArrayList<>(deliveries.size());
+        List<T> fresh = new ArrayList<>(deliveries.size());
+        for (Delivery<T> delivery : deliveries.values()) {
+            if (!processed.contains(delivery.id())) {
+                freshIds.add(delivery.id());
+                fresh.add(delivery.event());
+            }
+        }
+        if (fresh.isEmpty()) {
+            log.debug("{} mensajes repetidos descartados por {}", deliveries.size(), consumer);
+            return;
+        }
+        handler.accept(fresh);
+        processedMessageStore.markProcessed(consumer, freshIds);
+    }
+    
+    private record Delivery<T>(String id, T event, Message message) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.aca.postservice.messaging;
+
+import com.aca.postservice.config.RabbitMQConfig;
+import com.aca.postservice.event.PostCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consume post.created por lotes y mantiene la actividad de cada autor ({@code author_activity}).
+ * El contador no es idempotente por sí mismo: por eso se apoya en la deduplicación del procesador.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PostCreatedListener {
+    
+    static final String CONSUMER = "author-activity";
+    
+    // Asignaciones de izquierda a derecha: last_post_id se compara con el last_post_at anterior
+    private static final String UPSERT_SQL =
+            "INSERT INTO author_activity (user_id, posts_created, last_post_id, last_post_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "posts_created = posts_created + VALUES(posts_created), " +
+            "last_post_id = IF(last_post_at IS NULL OR VALUES(last_post_at) >= last_post_at, VALUES(last_post_id), last_post_id), " +
+            "last_post_at = GREATEST(COALESCE(last_post_at, VALUES(last_post_at)), VALUES(last_post_at))";
+    
+    private static final Comparator<PostCreatedEvent> NEWEST = Comparator
+            .comparing(PostCreatedEvent::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PostCreatedEvent::getPostId);
+    
+    private final IdempotentBatchProcessor batchProcessor;
+    private final JdbcTemplate jdbcTemplate;
+    
+    @RabbitListener(id = CONSUMER, queues = RabbitMQConfig.POST_CREATED_QUEUE,
+            containerFactory = "batchListenerContainerFactory")
+    public void onPostCreated(List<Message> messages) {
+        batchProcessor.process(CONSUMER, messages, PostCreatedEvent.class, PostCreatedEvent::getEventId, this::apply);
+    }
+    
+    private void apply(List<PostCreatedEvent> events) {
+        // Una fila por autor y lote: menos upserts y sin bloqueos cruzados entre filas del mismo autor
+        Map<Long, List<PostCreatedEvent>> byAuthor = new LinkedHashMap<>();
+        for (PostCreatedEvent event : events) {
+            if (event.getUserId() != null) {
+                byAuthor.computeIfAbsent(event.getUserId(), id -> new ArrayList<>()).add(event);
+            }
+        }
+        
+        List<Object[]> rows = new ArrayList<>(byAuthor.size());
+        byAuthor.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    PostCreatedEvent newest = entry.getValue().stream().max(NEWEST).orElseThrow();
+                    LocalDateTime createdAt = newest.getCreatedAt();
+                    rows.add(new Object[]{entry.getKey(), entry.getValue().size(), newest.getPostId(),
+                            createdAt != null ? Timestamp.valueOf(createdAt) : null});
+                });
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        log.debug("Actividad actualizada para {} autores ({} publicaciones)", rows.size(), events.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.aca.postservice.messaging;
+
+import com.aca.postservice.config.MessagingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registro de mensajes ya procesados por cada consumidor, para que las reentregas sean idempotentes.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProcessedMessageStore {
+    
+    private static final int PURGE_CHUNK_SIZE = 10_000;
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MessagingProperties properties;
+    
+    /**
+     * IDs del conjunto que el consumidor ya procesó.
+     */
+    public Set<String> findProcessed(String consumer, Collection<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return Set.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("consumer", consumer)
+                .addValue("ids", messageIds);
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT message_id FROM processed_messages WHERE consumer = :consumer AND message_id IN (:ids)",
+                params, String.class));
+    }
+    
+    /**
+     * Debe llamarse en la transacción que aplica los mensajes. Si otro consumidor procesó el mismo
+     * mensaje a la vez, la clave primaria hace fallar el insert y la transacción se revierte.
+     */
+    public void markProcessed(String consumer, Collection<String> messageIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<MapSqlParameterSource> rows = new ArrayList<>(messageIds.size());
+        for (String messageId : messageIds) {
+            rows.add(new MapSqlParameterSource()
+                    .addValue("consumer", consumer)
+                    .addValue("messageId", messageId)
+                    .addValue("processedAt", now));
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO processed_messages (consumer, message_id, processed_at) VALUES (:consumer, :messageId, :processedAt)",
+                rows.toArray(new MapSqlParameterSource[0]));
+    }
+    
+    @Scheduled(cron = "${app.messaging.dedup-purge-cron:0 15 4 * * *}")
+    public void purgeExpired() {
+        MapSqlParameterSource params = new MapSqlParameterSource("cutoff",
+                Timestamp.valueOf(LocalDateTime.now().minus(properties.getDedupRetention())));
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM processed_messages WHERE processed_at < :cutoff LIMIT " + PURGE_CHUNK_SIZE, params);
+            total += deleted;
+        } while (deleted == PURGE_CHUNK_SIZE);
+        if (total > 0) {
+            log.info("Purgados {} registros de mensajes procesados", total);
+        }
+    }
+}
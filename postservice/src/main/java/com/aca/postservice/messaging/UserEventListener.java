@@ -0,0 +1,109 @@
+package com.aca.postservice.messaging;
+
+import com.aca.postservice.config.RabbitMQConfig;
+import com.aca.postservice.event.UserReplicaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Mantiene la réplica local de usuarios y seguimientos ({@code user_replicas}, {@code user_follow_edges})
+ * con los eventos del user-service.
+ *
+ * <p>Los consumidores concurrentes pueden aplicar los eventos de un usuario fuera de orden, así que
+ * cada fila guarda la versión del user-service que la produjo y solo se sobrescribe con una versión
+ * igual o mayor: el resultado final no depende del orden de llegada.</p>
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserEventListener {
+    
+    static final String CONSUMER = "user-replica";
+    
+    // Asignaciones de izquierda a derecha: version se actualiza al final
+    private static final String UPSERT_USER_SQL =
+            "INSERT INTO user_replicas (user_id, username, version, updated_at) " +
+            "VALUES (:userId, :username, :version, :updatedAt) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "username = IF(VALUES(version) >= version, VALUES(username), username), " +
+            "updated_at = IF(VALUES(version) >= version, VALUES(updated_at), updated_at), " +
+            "version = GREATEST(version, VALUES(version))";
+    
+    private static final String UPSERT_EDGE_SQL =
+            "INSERT INTO user_follow_edges (follower_id, followee_id, following, version) " +
+            "VALUES (:followerId, :followeeId, :following, :version) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "following = IF(VALUES(version) >= version, VALUES(following), following), " +
+            "version = GREATEST(version, VALUES(version))";
+    
+    // Seguimientos que la instantánea ya no incluye y que son anteriores a ella
+    private static final String UNFOLLOW_MISSING_SQL =
+            "UPDATE user_follow_edges SET following = FALSE, version = :version " +
+            "WHERE follower_id = :followerId AND following = TRUE AND version <= :version";
+    
+    private final IdempotentBatchProcessor batchProcessor;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    @RabbitListener(id = CONSUMER, queues = RabbitMQConfig.USER_FOLLOW_QUEUE,
+            containerFactory = "batchListenerContainerFactory")
+    public void onUserEvents(List<Message> messages) {
+        batchProcessor.process(CONSUMER, messages, UserReplicaEvent.class, UserReplicaEvent::getEventId, this::apply);
+    }
+    
+    private void apply(List<UserReplicaEvent> events) {
+        List<UserReplicaEvent> ordered = new ArrayList<>(events);
+        ordered.sort(Comparator.comparing(UserReplicaEvent::getUserId)
+                .thenComparing(UserReplicaEvent::getVersion, Comparator.nullsFirst(Comparator.naturalOrder())));
+        
+        List<MapSqlParameterSource> users = new ArrayList<>();
+        List<MapSqlParameterSource> edges = new ArrayList<>();
+        for (UserReplicaEvent event : ordered) {
+            long version = event.getVersion() != null ? event.getVersion() : 0L;
+            if (event.isFollowChange()) {
+                edges.add(edge(event.getUserId(), event.getFolloweeId(), Boolean.TRUE.equals(event.getFollowing()), version));
+                continue;
+            }
+            LocalDateTime occurredAt = event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now();
+            users.add(new MapSqlParameterSource()
+                    .addValue("userId", event.getUserId())
+                    .addValue("username", event.getUsername())
+                    .addValue("version", version)
+                    .addValue("updatedAt", Timestamp.valueOf(occurredAt)));
+            if (event.isSnapshot()) {
+                jdbcTemplate.update(UNFOLLOW_MISSING_SQL, new MapSqlParameterSource()
+                        .addValue("followerId", event.getUserId())
+                        .addValue("version", version));
+                for (Long followeeId : event.getFollowingIds()) {
+                    edges.add(edge(event.getUserId(), followeeId, true, version));
+                }
+            }
+        }
+        
+        if (!users.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_USER_SQL, users.toArray(new MapSqlParameterSource[0]));
+        }
+        if (!edges.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_EDGE_SQL, edges.toArray(new MapSqlParameterSource[0]));
+        }
+        log.debug("Réplica de usuarios actualizada: {} perfiles, {} seguimientos", users.size(), edges.size());
+    }
+    
+    private static MapSqlParameterSource edge(Long followerId, Long followeeId, boolean following, long version) {
+        return new MapSqlParameterSource()
+                .addValue("followerId", followerId)
+                .addValue("followeeId", followeeId)
+                .addValue("following", following)
+                .addValue("version", version);
+    }
+}
@@ -0,0 +1,32 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Actividad de publicación de cada autor, mantenida por el consumidor de post.created.
+ */
+@Entity
+@Table(name = "author_activity")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorActivity {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "posts_created", nullable = false)
+    private Long postsCreated;
+    
+    @Column(name = "last_post_id")
+    private Long lastPostId;
+    
+    @Column(name = "last_post_at")
+    private LocalDateTime lastPostAt;
+}
@@ -1,5 +1,9 @@
 package com.aca.postservice.model;
 
+import com.aca.postservice.sharding.ShardIdAllocator;
+import com.aca.postservice.sharding.ShardKeys;
+import com.aca.postservice.sharding.ShardedEntity;
+import com.aca.postservice.sharding.ShardedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,14 +13,14 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = @Index(name = "idx_comments_post_created", columnList = "post_id, created_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Comment {
+public class Comment implements ShardedEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId(sequence = ShardIdAllocator.COMMENTS)
     private Long id;
     
     @Column(columnDefinition = "TEXT", nullable = false)
@@ -34,4 +38,9 @@ public class Comment {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+    
+    @Override
+    public int shardBucket() {
+        return ShardKeys.bucketOfId(postId);
+    }
 }
@@ -0,0 +1,25 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Siguiente secuencia libre para los IDs de publicaciones y comentarios. Las instancias reservan
+ * bloques con un único UPDATE, así que la tabla se toca una vez cada {@code app.sharding.id-block-size} IDs.
+ */
+@Entity
+@Table(name = "id_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdSequence {
+    
+    @Id
+    @Column(length = 32)
+    private String name;
+    
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
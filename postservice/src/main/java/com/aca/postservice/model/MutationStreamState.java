@@ -0,0 +1,25 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Última posición asignada en el flujo de mutaciones. El relay bloquea esta fila mientras
+ * publica, así que varias instancias nunca intercalan posiciones.
+ */
+@Entity
+@Table(name = "mutation_stream_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MutationStreamState {
+    
+    @Id
+    @Column(length = 32)
+    private String stream;
+    
+    @Column(name = "last_position", nullable = false)
+    private Long lastPosition;
+}
@@ -0,0 +1,60 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadatos de una foto subida. El hash SHA-256 del contenido identifica la foto:
+ * dos subidas con los mismos bytes comparten el mismo registro y los mismos archivos.
+ */
+@Entity
+@Table(name = "photo_assets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_photo_assets_content_hash", columnNames = "content_hash")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoAsset {
+    
+    public enum Status {
+        PENDING,
+        READY,
+        FAILED
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+    
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+    
+    @Column(name = "original_filename")
+    private String originalFilename;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+    
+    private Integer width;
+    
+    private Integer height;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,37 @@
+package com.aca.postservice.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Versiones que se guardan de cada foto. El original se conserva tal cual se subió;
+ * las demás se generan en segundo plano como JPEG.
+ */
+public enum PhotoVariant {
+    
+    ORIGINAL("original", "original"),
+    THUMBNAIL("thumbnail", "thumbnail.jpg"),
+    MEDIUM("medium", "medium.jpg");
+    
+    private final String pathName;
+    private final String fileName;
+    
+    PhotoVariant(String pathName, String fileName) {
+        this.pathName = pathName;
+        this.fileName = fileName;
+    }
+    
+    public String getPathName() {
+        return pathName;
+    }
+    
+    public String getFileName() {
+        return fileName;
+    }
+    
+    public static Optional<PhotoVariant> fromPathName(String pathName) {
+        return Arrays.stream(values())
+                .filter(variant -> variant.pathName.equals(pathName))
+                .findFirst();
+    }
+}
@@ -1,24 +1,40 @@
 package com.aca.postservice.model;
 
+import com.aca.postservice.sharding.ShardIdAllocator;
+import com.aca.postservice.sharding.ShardKeys;
+import com.aca.postservice.sharding.ShardedEntity;
+import com.aca.postservice.sharding.ShardedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_posts_created", columnList = "created_at"),
+        @Index(name = "idx_posts_geohash", columnList = "geohash"),
+        // Filtros combinados por igualdad; created_at al final sirve el orden sin filesort
+        @Index(name = "idx_posts_type_difficulty_created", columnList = "adventure_type, difficulty_level, created_at"),
+        @Index(name = "idx_posts_difficulty_created", columnList = "difficulty_level, created_at"),
+        @Index(name = "idx_posts_location_type_difficulty", columnList = "location, adventure_type, difficulty_level"),
+        @Index(name = "idx_posts_duration_created", columnList = "estimated_duration, created_at")
+})
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Post {
+public class Post implements ShardedEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId(sequence = ShardIdAllocator.POSTS)
     private Long id;
     
     @Column(nullable = false)
@@ -30,6 +46,14 @@ public class Post {
     @Column(nullable = false)
     private String location;
     
+    private Double latitude;
+    
+    private Double longitude;
+    
+    // Celda geohash de las coordenadas; se recalcula al cambiar latitud o longitud
+    @Column(length = 12)
+    private String geohash;
+    
     @Column(name = "adventure_type")
     private String adventureType;
     
@@ -46,6 +70,7 @@ public class Post {
     private String userName;
     
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "post_photos", joinColumns = @JoinColumn(name = "post_id"))
     @Column(name = "photo_url")
     private List<String> photos;
@@ -63,4 +88,13 @@ public class Post {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+    
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+    
+    @Override
+    public int shardBucket() {
+        return ShardKeys.bucketOfUser(userId);
+    }
 }
@@ -0,0 +1,41 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Like de un usuario a una publicación. La clave (post_id, user_id) hace que cada usuario
+ * cuente una sola vez; {@code posts.likes_count} se mantiene junto con estas filas.
+ */
+@Entity
+@Table(name = "post_likes")
+@IdClass(PostLike.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostLike {
+    
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long postId;
+        private Long userId;
+    }
+}
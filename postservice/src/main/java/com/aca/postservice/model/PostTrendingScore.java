@@ -0,0 +1,36 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot periódico de la puntuación de tendencia de una publicación.
+ * La puntuación se guarda ya decaída al instante de {@code snapshotAt}.
+ */
+@Entity
+@Table(name = "post_trending_scores")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostTrendingScore {
+    
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+    
+    @Column(name = "location")
+    private String location;
+    
+    @Column(name = "adventure_type")
+    private String adventureType;
+    
+    @Column(nullable = false)
+    private Double score;
+    
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+}
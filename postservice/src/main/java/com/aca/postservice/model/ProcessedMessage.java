@@ -0,0 +1,41 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Mensaje ya aplicado por un consumidor. Se inserta en la misma transacción que el efecto del
+ * mensaje, así que una reentrega de RabbitMQ se reconoce y se descarta.
+ */
+@Entity
+@Table(name = "processed_messages", indexes = @Index(name = "idx_processed_messages_at", columnList = "processed_at"))
+@IdClass(ProcessedMessage.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedMessage {
+    
+    @Id
+    @Column(length = 64)
+    private String consumer;
+    
+    @Id
+    @Column(name = "message_id", length = 128)
+    private String messageId;
+    
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String consumer;
+        private String messageId;
+    }
+}
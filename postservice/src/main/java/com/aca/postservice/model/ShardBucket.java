@@ -0,0 +1,42 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Directorio de particionado: shard físico de cada bucket lógico. Vive en el shard 0 y cada
+ * instancia lo relee periódicamente; solo se usa con {@code app.sharding.enabled}.
+ */
+@Entity
+@Table(name = "shard_buckets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardBucket {
+    
+    public enum State {
+        // Lecturas y escrituras en el shard asignado
+        WRITABLE,
+        // Copia en curso hacia otro shard; las escrituras siguen permitidas
+        MOVING,
+        // Último tramo de la copia; las escrituras se rechazan hasta reasignar el bucket
+        FROZEN
+    }
+    
+    @Id
+    private Integer bucket;
+    
+    @Column(nullable = false)
+    private Integer shard;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private State state;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
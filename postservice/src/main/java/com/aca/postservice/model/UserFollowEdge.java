@@ -0,0 +1,43 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Relación de seguimiento replicada. Al dejar de seguir la fila se conserva con following = false:
+ * su versión impide que un evento de seguimiento más antiguo, entregado tarde, la reactive.
+ */
+@Entity
+@Table(name = "user_follow_edges")
+@IdClass(UserFollowEdge.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFollowEdge {
+    
+    @Id
+    @Column(name = "follower_id")
+    private Long followerId;
+    
+    @Id
+    @Column(name = "followee_id")
+    private Long followeeId;
+    
+    @Column(nullable = false)
+    private boolean following;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long followerId;
+        private Long followeeId;
+    }
+}
@@ -0,0 +1,34 @@
+package com.aca.postservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia local de los datos públicos de un usuario, mantenida con los eventos del user-service.
+ * Que exista la fila significa que sus seguimientos también están replicados completos.
+ */
+@Entity
+@Table(name = "user_replicas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserReplica {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(nullable = false, length = 50)
+    private String username;
+    
+    // Versión del user-service del último cambio de perfil aplicado
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
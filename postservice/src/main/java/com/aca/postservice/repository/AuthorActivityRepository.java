@@ -0,0 +1,9 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.model.AuthorActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AuthorActivityRepository extends JpaRepository<AuthorActivity, Long> {
+}
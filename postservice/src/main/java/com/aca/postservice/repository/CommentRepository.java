@@ -1,9 +1,13 @@
 package com.aca.postservice.repository;
 
 import com.aca.postservice.model.Comment;
+import com.aca.postservice.repository.projection.CommentsVersionView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,7 +15,12 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     
     List<Comment> findByPostIdOrderByCreatedAtAsc(Long postId);
     
+    List<Comment> findByPostIdInOrderByIdAsc(Collection<Long> postIds);
+    
     void deleteByPostId(Long postId);
     
     long countByPostId(Long postId);
+    
+    @Query("SELECT COUNT(c) AS total, MAX(c.id) AS maxId FROM Comment c WHERE c.postId = :postId")
+    CommentsVersionView findVersionByPostId(@Param("postId") Long postId);
 }
@@ -0,0 +1,16 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.model.PhotoAsset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PhotoAssetRepository extends JpaRepository<PhotoAsset, Long> {
+    
+    Optional<PhotoAsset> findByContentHash(String contentHash);
+    
+    List<PhotoAsset> findTop100ByStatusOrderByIdAsc(PhotoAsset.Status status);
+}
@@ -0,0 +1,108 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.model.Post;
+import com.aca.postservice.sharding.ShardIdAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserciones masivas de publicaciones mediante lotes JDBC, sin pasar por la sesión de Hibernate.
+ * Los IDs se reservan antes del INSERT con {@link ShardIdAllocator}, igual que al guardar la entidad.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostBatchRepository {
+    
+    private static final String INSERT_POST_SQL =
+            "INSERT INTO posts (id, title, description, location, latitude, longitude, geohash, adventure_type, " +
+            "difficulty_level, estimated_duration, user_id, user_name, likes_count, comments_count, " +
+            "created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?, 0)";
+    
+    private static final String INSERT_PHOTO_SQL =
+            "INSERT INTO post_photos (post_id, photo_url) VALUES (?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardIdAllocator shardIdAllocator;
+    
+    /**
+     * Asigna a cada publicación su ID y las inserta en un único lote.
+     * Debe ejecutarse dentro de una transacción, en el shard de los usuarios de las publicaciones.
+     */
+    public void insertAll(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        
+        for (Post post : posts) {
+            post.setId(shardIdAllocator.nextId(ShardIdAllocator.POSTS, post.shardBucket()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_POST_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Post post = posts.get(i);
+                ps.setLong(1, post.getId());
+                ps.setString(2, post.getTitle());
+                setNullableString(ps, 3, post.getDescription());
+                ps.setString(4, post.getLocation());
+                setNullableDouble(ps, 5, post.getLatitude());
+                setNullableDouble(ps, 6, post.getLongitude());
+                setNullableString(ps, 7, post.getGeohash());
+                setNullableString(ps, 8, post.getAdventureType());
+                setNullableString(ps, 9, post.getDifficultyLevel());
+                setNullableString(ps, 10, post.getEstimatedDuration());
+                ps.setLong(11, post.getUserId());
+                setNullableString(ps, 12, post.getUserName());
+                ps.setTimestamp(13, Timestamp.valueOf(post.getCreatedAt()));
+                ps.setTimestamp(14, Timestamp.valueOf(post.getUpdatedAt()));
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return posts.size();
+            }
+        });
+        
+        insertPhotos(posts);
+    }
+    
+    private void insertPhotos(List<Post> posts) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Post post : posts) {
+            if (post.getPhotos() == null) {
+                continue;
+            }
+            for (String photoUrl : post.getPhotos()) {
+                rows.add(new Object[]{post.getId(), photoUrl});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PHOTO_SQL, rows, new int[]{Types.BIGINT, Types.VARCHAR});
+        }
+    }
+    
+    private static void setNullableDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+    
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.model.Post;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+
+/**
+ * Conteos agrupados por faceta sobre publicaciones filtradas (fragmento de {@link PostRepository}).
+ */
+public interface PostFacetRepository {
+    
+    /**
+     * Número de publicaciones que cumplen el filtro, agrupadas por el atributo indicado.
+     * Los valores nulos no se incluyen.
+     */
+    Map<String, Long> countGroupedBy(String attribute, Specification<Post> specification);
+}
@@ -0,0 +1,19 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.repository.projection.PostGeoPoint;
+
+import java.util.List;
+
+/**
+ * Consultas geoespaciales sobre publicaciones (fragmento de {@link PostRepository}).
+ */
+public interface PostGeoRepository {
+    
+    /**
+     * Coordenadas de las publicaciones cuyas celdas geohash empiezan por alguno de los prefijos
+     * y que caen dentro del rectángulo indicado.
+     */
+    List<PostGeoPoint> findGeoPoints(List<String> geohashPrefixes,
+                                     double minLat, double minLon, double maxLat, double maxLon,
+                                     int maxResults);
+}
@@ -0,0 +1,47 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.repository.projection.PostGeoPoint;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class PostGeoRepositoryImpl implements PostGeoRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<PostGeoPoint> findGeoPoints(List<String> geohashPrefixes,
+                                            double minLat, double minLon, double maxLat, double maxLon,
+                                            int maxResults) {
+        if (geohashPrefixes.isEmpty()) {
+            return List.of();
+        }
+        
+        // Cada LIKE 'prefijo%' es un rango sobre idx_posts_geohash
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.aca.postservice.repository.projection.PostGeoPoint(p.id, p.latitude, p.longitude) " +
+                "FROM Post p WHERE (");
+        for (int i = 0; i < geohashPrefixes.size(); i++) {
+            if (i > 0) {
+                jpql.append(" OR ");
+            }
+            jpql.append("p.geohash LIKE :prefix").append(i);
+        }
+        jpql.append(") AND p.latitude BETWEEN :minLat AND :maxLat AND p.longitude BETWEEN :minLon AND :maxLon");
+        
+        TypedQuery<PostGeoPoint> query = entityManager.createQuery(jpql.toString(), PostGeoPoint.class);
+        for (int i = 0; i < geohashPrefixes.size(); i++) {
+            query.setParameter("prefix" + i, geohashPrefixes.get(i) + "%");
+        }
+        return query
+                .setParameter("minLat", minLat)
+                .setParameter("maxLat", maxLat)
+                .setParameter("minLon", minLon)
+                .setParameter("maxLon", maxLon)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+}
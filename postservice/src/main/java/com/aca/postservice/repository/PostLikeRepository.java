@@ -0,0 +1,37 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.model.PostLike;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostLikeRepository extends JpaRepository<PostLike, PostLike.Key> {
+    
+    // Devuelve 0 si el usuario ya había dado like: el contador solo se incrementa cuando se inserta la fila
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO post_likes (post_id, user_id, created_at) VALUES (:postId, :userId, :now)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("postId") Long postId, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM PostLike l WHERE l.postId = :postId AND l.userId = :userId")
+    int deleteLike(@Param("postId") Long postId, @Param("userId") Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM PostLike l WHERE l.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+    
+    @Query("SELECT l.postId FROM PostLike l WHERE l.userId = :userId AND l.postId IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+    
+    @Query("SELECT l.userId FROM PostLike l WHERE l.postId = :postId")
+    List<Long> findUserIdsByPostId(@Param("postId") Long postId, Pageable pageable);
+}
@@ -1,27 +1,97 @@
 package com.aca.postservice.repository;
 
 import com.aca.postservice.model.Post;
-import org.springframework.data.domain.Page;
+import com.aca.postservice.repository.projection.FacetCountView;
+import com.aca.postservice.repository.projection.PostFacetKeyView;
+import com.aca.postservice.repository.projection.PostTrendingKeyView;
+import com.aca.postservice.repository.projection.PostVersionView;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post>,
+        PostGeoRepository, PostFacetRepository {
     
-    Page<Post> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    // Listados sin COUNT(*): la paginación solo aplica LIMIT/OFFSET y el total sale de PostCountEstimator
+    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findLatest(Pageable pageable);
+    
+    @Query("SELECT p FROM Post p " +
+           "WHERE p.createdAt < :beforeCreatedAt OR (p.createdAt = :beforeCreatedAt AND p.id < :beforeId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findLatestBefore(@Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                @Param("beforeId") Long beforeId,
+                                Pageable pageable);
     
     List<Post> findByUserIdOrderByCreatedAtDesc(Long userId);
     
-    @Query("SELECT p FROM Post p WHERE p.location LIKE %:location% OR p.adventureType LIKE %:adventureType%")
-    Page<Post> findByLocationOrAdventureType(@Param("location") String location, 
-                                           @Param("adventureType") String adventureType, 
-                                           Pageable pageable);
+    @Query("SELECT p FROM Post p WHERE p.location LIKE %:location% OR p.adventureType LIKE %:adventureType% " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> searchLatest(@Param("location") String location,
+                            @Param("adventureType") String adventureType,
+                            Pageable pageable);
+    
+    @Query("SELECT p FROM Post p WHERE (p.location LIKE %:location% OR p.adventureType LIKE %:adventureType%) " +
+           "AND (p.createdAt < :beforeCreatedAt OR (p.createdAt = :beforeCreatedAt AND p.id < :beforeId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> searchLatestBefore(@Param("location") String location,
+                                  @Param("adventureType") String adventureType,
+                                  @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                  @Param("beforeId") Long beforeId,
+                                  Pageable pageable);
+    
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.location LIKE %:location% OR p.adventureType LIKE %:adventureType%")
+    long countSearch(@Param("location") String location, @Param("adventureType") String adventureType);
     
     @Query("SELECT p FROM Post p WHERE p.userId IN :userIds ORDER BY p.createdAt DESC")
     List<Post> findByUserIdsOrderByCreatedAtDesc(@Param("userIds") List<Long> userIds);
+    
+    @Query("SELECT p FROM Post p WHERE p.userId IN :userIds ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedPage(@Param("userIds") List<Long> userIds, Pageable pageable);
+    
+    @Query("SELECT p FROM Post p WHERE p.userId IN :userIds " +
+           "AND (p.createdAt < :beforeCreatedAt OR (p.createdAt = :beforeCreatedAt AND p.id < :beforeId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedPageBefore(@Param("userIds") List<Long> userIds,
+                                  @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                  @Param("beforeId") Long beforeId,
+                                  Pageable pageable);
+    
+    List<Post> findByCreatedAtBeforeOrderByIdAsc(LocalDateTime createdAt, Pageable pageable);
+    
+    @Query("SELECT p.location AS location, p.adventureType AS adventureType FROM Post p WHERE p.id = :id")
+    Optional<PostTrendingKeyView> findTrendingKeyById(@Param("id") Long id);
+    
+    @Query("SELECT p.adventureType AS adventureType, p.difficultyLevel AS difficultyLevel FROM Post p WHERE p.id = :id")
+    Optional<PostFacetKeyView> findFacetKeyById(@Param("id") Long id);
+    
+    @Query("SELECT p.adventureType AS adventureType, p.difficultyLevel AS difficultyLevel, COUNT(p) AS total " +
+           "FROM Post p GROUP BY p.adventureType, p.difficultyLevel")
+    List<FacetCountView> countByFacets();
+    
+    @Query("SELECT p.version FROM Post p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    @Query("SELECT p.id AS id, p.version AS version, p.createdAt AS createdAt FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostVersionView> findVersionsOrderByCreatedAtDesc(Pageable pageable);
+    
+    // Actualizaciones atómicas de contadores: sin lectura previa ni bloqueo de fila
+    @Modifying
+    @Query("UPDATE Post p SET p.likesCount = p.likesCount + 1, p.version = p.version + 1, p.updatedAt = :now " +
+           "WHERE p.id = :id")
+    int incrementLikes(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE Post p SET p.likesCount = p.likesCount - 1, p.version = p.version + 1, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.likesCount > 0")
+    int decrementLikes(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
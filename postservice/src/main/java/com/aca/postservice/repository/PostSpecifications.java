@@ -0,0 +1,45 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.dto.PostFilterRequest;
+import com.aca.postservice.model.Post;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros combinables (AND) sobre publicaciones. Solo igualdades, para que MySQL
+ * pueda resolverlos con los índices compuestos de {@link Post}.
+ */
+public final class PostSpecifications {
+    
+    public static final String ADVENTURE_TYPE = "adventureType";
+    public static final String DIFFICULTY_LEVEL = "difficultyLevel";
+    
+    private PostSpecifications() {
+    }
+    
+    public static Specification<Post> matching(PostFilterRequest filter) {
+        return matching(filter, null);
+    }
+    
+    /**
+     * Filtro completo excepto el atributo indicado; se usa para contar los valores
+     * alternativos de una faceta respetando el resto de filtros.
+     */
+    public static Specification<Post> matching(PostFilterRequest filter, String excludedAttribute) {
+        List<Specification<Post>> specifications = new ArrayList<>();
+        addEquals(specifications, "location", filter.getLocation(), excludedAttribute);
+        addEquals(specifications, ADVENTURE_TYPE, filter.getAdventureType(), excludedAttribute);
+        addEquals(specifications, DIFFICULTY_LEVEL, filter.getDifficultyLevel(), excludedAttribute);
+        addEquals(specifications, "estimatedDuration", filter.getEstimatedDuration(), excludedAttribute);
+        return Specification.allOf(specifications);
+    }
+    
+    private static void addEquals(List<Specification<Post>> specifications, String attribute, String value,
+                                  String excludedAttribute) {
+        if (value != null && !attribute.equals(excludedAttribute)) {
+            specifications.add((root, query, cb) -> cb.equal(root.get(attribute), value));
+        }
+    }
+}
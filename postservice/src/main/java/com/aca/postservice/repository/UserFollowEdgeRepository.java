@@ -0,0 +1,16 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.model.UserFollowEdge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserFollowEdgeRepository extends JpaRepository<UserFollowEdge, UserFollowEdge.Key> {
+    
+    @Query("SELECT e.followeeId FROM UserFollowEdge e WHERE e.followerId = :followerId AND e.following = true")
+    List<Long> findFolloweeIds(@Param("followerId") Long followerId);
+}
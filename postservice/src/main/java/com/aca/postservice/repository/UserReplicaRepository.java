@@ -0,0 +1,9 @@
+package com.aca.postservice.repository;
+
+import com.aca.postservice.model.UserReplica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserReplicaRepository extends JpaRepository<UserReplica, Long> {
+}
@@ -0,0 +1,12 @@
+package com.aca.postservice.repository.projection;
+
+/**
+ * Resumen de los comentarios de un post. Los comentarios no se editan,
+ * así que el total y el ID máximo cambian con cada alta o baja.
+ */
+public interface CommentsVersionView {
+    
+    long getTotal();
+    
+    Long getMaxId();
+}
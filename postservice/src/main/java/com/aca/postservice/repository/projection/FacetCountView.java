@@ -0,0 +1,13 @@
+package com.aca.postservice.repository.projection;
+
+/**
+ * Número de publicaciones por combinación de tipo de aventura y dificultad.
+ */
+public interface FacetCountView {
+    
+    String getAdventureType();
+    
+    String getDifficultyLevel();
+    
+    Long getTotal();
+}
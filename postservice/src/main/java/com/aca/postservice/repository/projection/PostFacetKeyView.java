@@ -0,0 +1,11 @@
+package com.aca.postservice.repository.projection;
+
+/**
+ * Valores de las facetas de una publicación.
+ */
+public interface PostFacetKeyView {
+    
+    String getAdventureType();
+    
+    String getDifficultyLevel();
+}
@@ -0,0 +1,16 @@
+package com.aca.postservice.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Coordenadas de una publicación, sin el resto de columnas.
+ */
+@Data
+@AllArgsConstructor
+public class PostGeoPoint {
+    
+    private Long id;
+    private Double latitude;
+    private Double longitude;
+}
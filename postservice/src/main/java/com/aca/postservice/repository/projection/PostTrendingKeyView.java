@@ -0,0 +1,11 @@
+package com.aca.postservice.repository.projection;
+
+/**
+ * Datos mínimos para ubicar una publicación en los rankings de tendencia.
+ */
+public interface PostTrendingKeyView {
+    
+    String getLocation();
+    
+    String getAdventureType();
+}
@@ -0,0 +1,15 @@
+package com.aca.postservice.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección mínima de una publicación usada para calcular ETags sin cargar la entidad.
+ */
+public interface PostVersionView {
+    
+    Long getId();
+    
+    Long getVersion();
+    
+    LocalDateTime getCreatedAt();
+}
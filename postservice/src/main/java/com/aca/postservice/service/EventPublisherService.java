@@ -7,6 +7,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -27,4 +29,29 @@ public class EventPublisherService {
             log.error("Error al publicar evento de publicación creada: {}", e.getMessage(), e);
         }
     }
+    
+    /**
+     * Publica varios eventos reutilizando un único canal de RabbitMQ.
+     */
+    public void publishPostCreatedEvents(List<PostCreatedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            log.info("Publicando lote de {} eventos de publicación creada", events.size());
+            rabbitTemplate.invoke(operations -> {
+                for (PostCreatedEvent event : events) {
+                    operations.convertAndSend(
+                        RabbitMQConfig.POST_CREATED_EXCHANGE,
+                        RabbitMQConfig.POST_CREATED_ROUTING_KEY,
+                        event
+                    );
+                }
+                return null;
+            });
+            log.info("Lote de eventos de publicación creada publicado exitosamente");
+        } catch (Exception e) {
+            log.error("Error al publicar lote de eventos de publicación creada: {}", e.getMessage(), e);
+        }
+    }
 }
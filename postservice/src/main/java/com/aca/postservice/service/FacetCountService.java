@@ -0,0 +1,148 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.dto.PostFilterRequest;
+import com.aca.postservice.event.PostActivityEvent;
+import com.aca.postservice.repository.PostRepository;
+import com.aca.postservice.repository.projection.FacetCountView;
+import com.aca.postservice.sharding.ShardTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de facetas (tipo de aventura × dificultad) mantenidos en memoria.
+ *
+ * <p>Se actualizan con cada alta, cambio o borrado de publicación y se reconcilian
+ * periódicamente con un GROUP BY sobre la tabla, que corrige cualquier evento perdido.
+ * Con filtros solo de tipo y/o dificultad los conteos salen de esta matriz sin consultar MySQL.</p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FacetCountService {
+    
+    private final PostRepository postRepository;
+    private final ShardTemplate shardTemplate;
+    
+    private volatile Map<FacetKey, AtomicLong> counts = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    
+    /**
+     * Conteos por faceta para el filtro, si la matriz puede responderlo
+     * (sin filtros de ubicación ni duración y ya cargada).
+     */
+    public Optional<FacetCounts> countsFor(PostFilterRequest filter) {
+        if (!loaded || filter.getLocation() != null || filter.getEstimatedDuration() != null) {
+            return Optional.empty();
+        }
+        
+        // Cada faceta se cuenta aplicando los demás filtros, pero no el suyo
+        Map<String, Long> adventureTypes = new HashMap<>();
+        Map<String, Long> difficultyLevels = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<FacetKey, AtomicLong> entry : counts.entrySet()) {
+            FacetKey key = entry.getKey();
+            long count = entry.getValue().get();
+            if (count <= 0) {
+                continue;
+            }
+            boolean typeMatches = filter.getAdventureType() == null || filter.getAdventureType().equals(key.adventureType());
+            boolean difficultyMatches = filter.getDifficultyLevel() == null || filter.getDifficultyLevel().equals(key.difficultyLevel());
+            if (difficultyMatches && key.adventureType() != null) {
+                adventureTypes.merge(key.adventureType(), count, Long::sum);
+            }
+            if (typeMatches && key.difficultyLevel() != null) {
+                difficultyLevels.merge(key.difficultyLevel(), count, Long::sum);
+            }
+            if (typeMatches && difficultyMatches) {
+                total += count;
+            }
+        }
+        return Optional.of(new FacetCounts(sortByCount(adventureTypes), sortByCount(difficultyLevels), total));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostActivity(PostActivityEvent event) {
+        switch (event.getType()) {
+            case CREATED -> adjust(event.getAdventureType(), event.getDifficultyLevel(), 1);
+            case UPDATED -> {
+                if (!Objects.equals(event.getAdventureType(), event.getPreviousAdventureType())
+                        || !Objects.equals(event.getDifficultyLevel(), event.getPreviousDifficultyLevel())) {
+                    adjust(event.getPreviousAdventureType(), event.getPreviousDifficultyLevel(), -1);
+                    adjust(event.getAdventureType(), event.getDifficultyLevel(), 1);
+                }
+            }
+            case DELETED -> adjust(event.getPreviousAdventureType(), event.getPreviousDifficultyLevel(), -1);
+            default -> {
+                // Likes y comentarios no cambian las facetas
+            }
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+    
+    /**
+     * Recalcula la matriz completa con una consulta agrupada por shard y la reemplaza.
+     */
+    @Scheduled(fixedDelayString = "${app.facets.reconcile-interval:PT10M}",
+            initialDelayString = "${app.facets.reconcile-interval:PT10M}")
+    public void reconcile() {
+        try {
+            Map<FacetKey, AtomicLong> fresh = new ConcurrentHashMap<>();
+            for (List<FacetCountView> rows : shardTemplate.readAll(shard -> postRepository.countByFacets())) {
+                for (FacetCountView row : rows) {
+                    fresh.computeIfAbsent(new FacetKey(row.getAdventureType(), row.getDifficultyLevel()), key -> new AtomicLong())
+                            .addAndGet(row.getTotal());
+                }
+            }
+            
+            long drift = 0;
+            for (Map.Entry<FacetKey, AtomicLong> entry : counts.entrySet()) {
+                AtomicLong expected = fresh.get(entry.getKey());
+                drift += Math.abs(entry.getValue().get() - (expected != null ? expected.get() : 0));
+            }
+            counts = fresh;
+            loaded = true;
+            if (drift > 0) {
+                log.info("Contadores de facetas reconciliados, diferencia corregida: {}", drift);
+            }
+        } catch (Exception e) {
+            log.error("Error al reconciliar contadores de facetas: {}", e.getMessage(), e);
+        }
+    }
+    
+    private void adjust(String adventureType, String difficultyLevel, long delta) {
+        counts.computeIfAbsent(new FacetKey(adventureType, difficultyLevel), key -> new AtomicLong())
+                .addAndGet(delta);
+    }
+    
+    public static Map<String, Long> sortByCount(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+    
+    private record FacetKey(String adventureType, String difficultyLevel) {
+    }
+    
+    public record FacetCounts(Map<String, Long> adventureTypes, Map<String, Long> difficultyLevels, long total) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.dto.PostResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Arma el feed de un usuario sin bloquear hilos por cada salto: obtiene los seguidos
+ * de la réplica local de usuarios, consulta en paralelo las publicaciones de cada grupo
+ * de seguidos y mezcla las ramas (ya ordenadas) con un k-way merge por createdAt.
+ * Cada rama pagina de forma perezosa, así que los primeros elementos se emiten en cuanto
+ * todas las ramas tienen su primera página, sin esperar a que terminen.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FeedAggregationService {
+    
+    static final Comparator<PostResponse> NEWEST_FIRST = Comparator
+            .comparing(PostResponse::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PostResponse::getId, Comparator.reverseOrder());
+    
+    private final UserReplicaService userReplicaService;
+    private final PostService postService;
+    private final Scheduler feedQueryScheduler;
+    
+    @Value("${app.feed.fan-out-chunk-size:50}")
+    private int fanOutChunkSize;
+    
+    @Value("${app.feed.page-size:20}")
+    private int pageSize;
+    
+    public Flux<PostResponse> streamFeed(Long userId, int limit) {
+        return userReplicaService.getFollowingIds(userId)
+                .flatMapMany(followees -> {
+                    log.info("Armando feed del usuario {} con {} seguidos", userId, followees.size());
+                    if (followees.isEmpty()) {
+                        return Flux.empty();
+                    }
+                    List<Flux<PostResponse>> branches = new ArrayList<>();
+                    for (int from = 0; from < followees.size(); from += fanOutChunkSize) {
+                        List<Long> chunk = List.copyOf(followees.subList(from, Math.min(from + fanOutChunkSize, followees.size())));
+                        branches.add(branch(chunk));
+                    }
+                    return mergeNewestFirst(branches);
+                })
+                .take(limit);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Flux<PostResponse> mergeNewestFirst(List<Flux<PostResponse>> branches) {
+        return Flux.mergeComparing(pageSize, NEWEST_FIRST, branches.toArray(new Flux[0]));
+    }
+    
+    /**
+     * Publicaciones de un grupo de usuarios, página a página (keyset sobre createdAt, id).
+     */
+    private Flux<PostResponse> branch(List<Long> userIds) {
+        return loadPage(userIds, null)
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : loadPage(userIds, page.get(page.size() - 1)))
+                .flatMapIterable(page -> page);
+    }
+    
+    private Mono<List<PostResponse>> loadPage(List<Long> userIds, PostResponse after) {
+        return Mono.fromCallable(() -> after == null
+                        ? postService.getFeedPage(userIds, null, null, pageSize)
+                        : postService.getFeedPage(userIds, after.getCreatedAt(), after.getId(), pageSize))
+                .subscribeOn(feedQueryScheduler);
+    }
+}
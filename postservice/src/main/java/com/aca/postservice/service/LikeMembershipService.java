@@ -0,0 +1,144 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.repository.PostLikeRepository;
+import com.aca.postservice.sharding.ShardTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Responde "¿a cuáles de estas publicaciones dio like el usuario?" para una página completa.
+ *
+ * <p>Las publicaciones calientes (consultadas {@code app.likes.hot-threshold} veces dentro de
+ * {@code app.likes.hot-window}) guardan en memoria un Roaring bitmap con los IDs de quienes les
+ * dieron like y se responden sin ir a MySQL. El resto se resuelve con una consulta por shard para
+ * toda la página, nunca una por publicación.</p>
+ *
+ * <p>Los likes de esta instancia actualizan el bitmap al momento; los de otras instancias se ven
+ * cuando el bitmap caduca ({@code app.likes.bitmap-ttl}) y se vuelve a cargar.</p>
+ */
+@Service
+@Slf4j
+public class LikeMembershipService {
+    
+    private final PostLikeRepository postLikeRepository;
+    private final ShardTemplate shardTemplate;
+    private final int hotThreshold;
+    private final int maxLikersPerBitmap;
+    private final Cache<Long, Roaring64Bitmap> hotPosts;
+    private final Cache<Long, AtomicInteger> lookups;
+    
+    public LikeMembershipService(PostLikeRepository postLikeRepository,
+                                 ShardTemplate shardTemplate,
+                                 @Value("${app.likes.hot-threshold:3}") int hotThreshold,
+                                 @Value("${app.likes.hot-window:PT1M}") Duration hotWindow,
+                                 @Value("${app.likes.bitmap-ttl:PT30S}") Duration bitmapTtl,
+                                 @Value("${app.likes.max-likers-per-bitmap:1000000}") int maxLikersPerBitmap,
+                                 @Value("${app.likes.bitmap-cache-max-bytes:64MB}") DataSize bitmapCacheMaxBytes) {
+        this.postLikeRepository = postLikeRepository;
+        this.shardTemplate = shardTemplate;
+        this.hotThreshold = hotThreshold;
+        this.maxLikersPerBitmap = maxLikersPerBitmap;
+        this.hotPosts = Caffeine.newBuilder()
+                .maximumWeight(bitmapCacheMaxBytes.toBytes())
+                .weigher((Long postId, Roaring64Bitmap bitmap) -> (int) Math.min(Integer.MAX_VALUE, bitmap.getLongSizeInBytes()))
+                .expireAfterWrite(bitmapTtl)
+                .build();
+        this.lookups = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(hotWindow)
+                .build();
+    }
+    
+    /**
+     * Subconjunto de {@code postIds} al que el usuario dio like.
+     */
+    public Set<Long> likedAmong(Long userId, Collection<Long> postIds) {
+        Set<Long> liked = new HashSet<>();
+        Map<Integer, List<Long>> missesByShard = new TreeMap<>();
+        for (Long postId : new LinkedHashSet<>(postIds)) {
+            Roaring64Bitmap likers = hotPosts.getIfPresent(postId);
+            if (likers == null) {
+                missesByShard.computeIfAbsent(shardTemplate.shardOfId(postId), shard -> new ArrayList<>()).add(postId);
+                continue;
+            }
+            synchronized (likers) {
+                if (likers.contains(userId)) {
+                    liked.add(postId);
+                }
+            }
+        }
+        if (missesByShard.isEmpty()) {
+            return liked;
+        }
+        
+        shardTemplate.readEach(missesByShard.keySet(), shard -> postLikeRepository.findLikedPostIds(userId, missesByShard.get(shard)))
+                .forEach(liked::addAll);
+        missesByShard.values().forEach(misses -> misses.forEach(this::countLookup));
+        return liked;
+    }
+    
+    public void onLiked(Long postId, Long userId) {
+        Roaring64Bitmap likers = hotPosts.getIfPresent(postId);
+        if (likers != null) {
+            synchronized (likers) {
+                likers.addLong(userId);
+            }
+        }
+    }
+    
+    public void onUnliked(Long postId, Long userId) {
+        Roaring64Bitmap likers = hotPosts.getIfPresent(postId);
+        if (likers != null) {
+            synchronized (likers) {
+                likers.removeLong(userId);
+            }
+        }
+    }
+    
+    public void onDeleted(Long postId) {
+        hotPosts.invalidate(postId);
+        lookups.invalidate(postId);
+    }
+    
+    /**
+     * Cuenta la consulta y, al llegar al umbral, carga el bitmap de la publicación. Las que superan
+     * {@code max-likers-per-bitmap} se siguen resolviendo con la consulta por página y no se vuelven
+     * a intentar hasta que pasa {@code hot-window}.
+     */
+    private void countLookup(Long postId) {
+        AtomicInteger count = lookups.get(postId, key -> new AtomicInteger());
+        if (count.incrementAndGet() != hotThreshold) {
+            return;
+        }
+        List<Long> userIds = shardTemplate.read(shardTemplate.shardOfId(postId),
+                () -> postLikeRepository.findUserIdsByPostId(postId, PageRequest.of(0, maxLikersPerBitmap + 1)));
+        if (userIds.size() > maxLikersPerBitmap) {
+            log.debug("Publicación {} con más de {} likes: no se carga en memoria", postId, maxLikersPerBitmap);
+            count.set(Integer.MIN_VALUE);
+            return;
+        }
+        Roaring64Bitmap likers = new Roaring64Bitmap();
+        userIds.forEach(likers::addLong);
+        likers.runOptimize();
+        hotPosts.put(postId, likers);
+        // Al caducar el bitmap vuelve a hacer falta el umbral de consultas para recargarlo
+        lookups.invalidate(postId);
+    }
+}
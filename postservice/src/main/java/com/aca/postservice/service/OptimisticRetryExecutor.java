@@ -0,0 +1,57 @@
+package com.aca.postservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una escritura en su propia transacción y la reintenta cuando falla
+ * la verificación de @Version, sin recurrir a bloqueos SELECT ... FOR UPDATE.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OptimisticRetryExecutor {
+    
+    private final PlatformTransactionManager transactionManager;
+    
+    @Value("${app.posts.optimistic-retry.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${app.posts.optimistic-retry.backoff-millis:5}")
+    private long backoffMillis;
+    
+    public <T> T execute(Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Conflicto de versión persistente tras {} intentos", attempt);
+                    throw e;
+                }
+                log.debug("Conflicto de versión (intento {}), reintentando", attempt);
+                pause(attempt);
+            }
+        }
+    }
+    
+    private void pause(int attempt) {
+        // Espera corta con jitter para que los escritores concurrentes no choquen de nuevo
+        long millis = ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.config.PhotoStorageProperties;
+import com.aca.postservice.model.PhotoAsset;
+import com.aca.postservice.model.PhotoVariant;
+import com.aca.postservice.repository.PhotoAssetRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Envío de archivos de fotos sin copiarlos al heap.
+ *
+ * <ul>
+ *   <li>Archivos grandes: sendfile de Tomcat (el conector NIO usa {@code FileChannel.transferTo},
+ *       el kernel copia del page cache al socket).</li>
+ *   <li>Archivos pequeños y frecuentes (miniaturas): se mapean en memoria una vez y se sirven
+ *       desde el mapeo; la caché W-TinyLFU de Caffeine decide cuáles merecen quedarse.</li>
+ *   <li>Sin sendfile disponible: {@code FileChannel.transferTo} hacia el canal de la respuesta.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class PhotoDeliveryService {
+    
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    private final PhotoStorageService photoStorageService;
+    private final PhotoAssetRepository photoAssetRepository;
+    private final PhotoStorageProperties properties;
+    private final Cache<Path, MappedByteBuffer> mappedFiles;
+    private final Cache<String, String> contentTypes;
+    
+    public PhotoDeliveryService(PhotoStorageService photoStorageService,
+                                PhotoAssetRepository photoAssetRepository,
+                                PhotoStorageProperties properties) {
+        this.photoStorageService = photoStorageService;
+        this.photoAssetRepository = photoAssetRepository;
+        this.properties = properties;
+        this.mappedFiles = Caffeine.newBuilder()
+                .maximumWeight(properties.getDelivery().getMmapCacheMaxBytes().toBytes())
+                .weigher((Path path, MappedByteBuffer buffer) -> buffer.capacity())
+                .build();
+        this.contentTypes = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .build();
+    }
+    
+    /**
+     * Archivo a servir para la versión pedida. Si la versión todavía no se generó se usa el original,
+     * marcado como no inmutable para que el cliente vuelva a pedir la versión más adelante.
+     */
+    public Optional<PhotoFile> resolve(String contentHash, PhotoVariant variant) {
+        try {
+            Path file = photoStorageService.variantPath(contentHash, variant);
+            boolean fallback = false;
+            if (!Files.isRegularFile(file) && variant != PhotoVariant.ORIGINAL) {
+                file = photoStorageService.variantPath(contentHash, PhotoVariant.ORIGINAL);
+                fallback = true;
+            }
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            boolean original = fallback || variant == PhotoVariant.ORIGINAL;
+            String contentType = original ? originalContentType(contentHash) : MediaType.IMAGE_JPEG_VALUE;
+            String eTag = "\"" + contentHash + "-" + (fallback ? PhotoVariant.ORIGINAL : variant).getPathName() + "\"";
+            return Optional.of(new PhotoFile(file, Files.size(file), contentType, eTag, !fallback));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Escribe los bytes [start, end] del archivo en la respuesta (el llamador ya fijó estado y cabeceras).
+     */
+    public void send(PhotoFile photo, long start, long end, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        
+        if (length >= properties.getDelivery().getSendfileMinSize().toBytes()
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat hace la transferencia al terminar la petición, sin pasar por el OutputStream
+            request.setAttribute(SENDFILE_FILENAME, photo.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        if (photo.size() <= properties.getDelivery().getMmapMaxFileSize().toBytes()) {
+            ByteBuffer mapped = mappedFiles.get(photo.path(), this::map).duplicate();
+            mapped.position((int) start).limit((int) (end + 1));
+            while (mapped.hasRemaining()) {
+                out.write(mapped);
+            }
+            return;
+        }
+        
+        try (FileChannel channel = FileChannel.open(photo.path(), StandardOpenOption.READ)) {
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+    
+    private MappedByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private String originalContentType(String contentHash) {
+        return contentTypes.get(contentHash, hash -> photoAssetRepository.findByContentHash(hash)
+                .map(PhotoAsset::getContentType)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE));
+    }
+    
+    /**
+     * @param immutable el contenido de la URL nunca cambia y se puede cachear indefinidamente
+     */
+    public record PhotoFile(Path path, long size, String contentType, String eTag, boolean immutable) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.dto.PhotoResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+public interface PhotoService {
+    
+    PhotoResponse uploadPhoto(MultipartFile file) throws IOException;
+    
+    PhotoResponse getPhoto(String contentHash);
+}
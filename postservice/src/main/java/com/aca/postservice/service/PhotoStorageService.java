@@ -0,0 +1,112 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.config.PhotoStorageProperties;
+import com.aca.postservice.model.PhotoVariant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Archivos de fotos en el sistema de archivos local.
+ * Estructura: {@code <storageDir>/<2 primeros caracteres del hash>/<hash>/<versión>}.
+ * Todo archivo se escribe primero en {@code tmp/} y se mueve de forma atómica a su ruta final.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PhotoStorageService {
+    
+    private final PhotoStorageProperties properties;
+    
+    /**
+     * Copia el contenido a un archivo temporal calculando su SHA-256 en la misma pasada.
+     */
+    public StoredUpload storeTemp(InputStream content) throws IOException {
+        Path tempDir = Files.createDirectories(properties.getStorageDir().resolve("tmp"));
+        Path tempFile = Files.createTempFile(tempDir, "upload-", ".part");
+        MessageDigest digest = sha256();
+        try (DigestInputStream in = new DigestInputStream(content, digest);
+             OutputStream out = Files.newOutputStream(tempFile)) {
+            long size = in.transferTo(out);
+            return new StoredUpload(tempFile, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+    
+    /**
+     * Mueve el temporal a la ruta del original. Si ya existe (misma foto), se descarta el temporal.
+     */
+    public Path promote(StoredUpload upload) throws IOException {
+        Path target = variantPath(upload.contentHash(), PhotoVariant.ORIGINAL);
+        if (Files.exists(target)) {
+            discard(upload);
+            return target;
+        }
+        Files.createDirectories(target.getParent());
+        // Mismo contenido por definición: si otra subida llegó antes, reemplazar es inofensivo
+        Files.move(upload.tempFile(), target, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+    
+    /**
+     * Escribe una versión generada pasando por un temporal para que nunca se sirva a medias.
+     */
+    public void writeVariant(String contentHash, PhotoVariant variant, VariantWriter writer) throws IOException {
+        Path target = variantPath(contentHash, variant);
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(target.getParent(), variant.getPathName() + "-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                writer.write(out);
+            }
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+    
+    public Path variantPath(String contentHash, PhotoVariant variant) {
+        return properties.getStorageDir()
+                .resolve(contentHash.substring(0, 2))
+                .resolve(contentHash)
+                .resolve(variant.getFileName());
+    }
+    
+    public void discard(StoredUpload upload) {
+        try {
+            Files.deleteIfExists(upload.tempFile());
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el temporal {}: {}", upload.tempFile(), e.getMessage());
+        }
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new UncheckedIOException(new IOException("SHA-256 no disponible", e));
+        }
+    }
+    
+    public record StoredUpload(Path tempFile, String contentHash, long sizeBytes) {
+    }
+    
+    @FunctionalInterface
+    public interface VariantWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,49 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.config.PhotoStorageProperties;
+import com.aca.postservice.dto.PhotoVariantUrls;
+import com.aca.postservice.model.PhotoVariant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Construye las URLs de las versiones de una foto a partir de su hash, sin consultar la base de datos.
+ */
+@Component
+@RequiredArgsConstructor
+public class PhotoUrlResolver {
+    
+    public static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+    
+    private static final Pattern HASH_IN_URL = Pattern.compile("/([0-9a-f]{64})(?:/[a-z]+)?$");
+    
+    private final PhotoStorageProperties properties;
+    
+    public PhotoVariantUrls urlsFor(String contentHash) {
+        return new PhotoVariantUrls(
+                url(contentHash, PhotoVariant.ORIGINAL),
+                url(contentHash, PhotoVariant.THUMBNAIL),
+                url(contentHash, PhotoVariant.MEDIUM));
+    }
+    
+    /**
+     * Versiones de una URL guardada en una publicación. Las URLs externas (no subidas aquí)
+     * no tienen versiones y se devuelven tal cual en los tres campos.
+     */
+    public PhotoVariantUrls resolve(String photoUrl) {
+        if (photoUrl != null && photoUrl.startsWith(properties.getBaseUrl() + "/")) {
+            Matcher matcher = HASH_IN_URL.matcher(photoUrl);
+            if (matcher.find()) {
+                return urlsFor(matcher.group(1));
+            }
+        }
+        return new PhotoVariantUrls(photoUrl, photoUrl, photoUrl);
+    }
+    
+    private String url(String contentHash, PhotoVariant variant) {
+        return properties.getBaseUrl() + "/" + contentHash + "/" + variant.getPathName();
+    }
+}
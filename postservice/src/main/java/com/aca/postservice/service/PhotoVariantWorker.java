@@ -0,0 +1,173 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.config.PhotoStorageProperties;
+import com.aca.postservice.model.PhotoAsset;
+import com.aca.postservice.model.PhotoVariant;
+import com.aca.postservice.repository.PhotoAssetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Genera las versiones reducidas (miniatura y mediana) de las fotos en un pool de hilos acotado.
+ * Si la cola está llena la foto queda PENDING y la barrida periódica la vuelve a encolar.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PhotoVariantWorker {
+    
+    private final PhotoAssetRepository photoAssetRepository;
+    private final PhotoStorageService photoStorageService;
+    private final PhotoStorageProperties properties;
+    
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolTaskExecutor executor;
+    
+    @PostConstruct
+    void start() {
+        // Pool propio y no un bean: un TaskExecutor expuesto desactivaría el applicationTaskExecutor de Spring Boot
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkers());
+        executor.setMaxPoolSize(properties.getWorkers());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("photo-variants-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+    
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+    
+    public void submit(String contentHash) {
+        if (!inFlight.add(contentHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(contentHash);
+                } finally {
+                    inFlight.remove(contentHash);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(contentHash);
+            log.warn("Cola de procesamiento de fotos llena, {} queda pendiente", contentHash);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.photos.retry-interval:PT1M}")
+    public void resubmitPending() {
+        for (PhotoAsset asset : photoAssetRepository.findTop100ByStatusOrderByIdAsc(PhotoAsset.Status.PENDING)) {
+            submit(asset.getContentHash());
+        }
+    }
+    
+    private void process(String contentHash) {
+        PhotoAsset asset = photoAssetRepository.findByContentHash(contentHash).orElse(null);
+        if (asset == null || asset.getStatus() != PhotoAsset.Status.PENDING) {
+            return;
+        }
+        
+        try {
+            Path original = photoStorageService.variantPath(contentHash, PhotoVariant.ORIGINAL);
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                throw new IOException("Formato de imagen no soportado");
+            }
+            writeJpeg(contentHash, PhotoVariant.THUMBNAIL, scaleToFit(source, properties.getThumbnailSize()));
+            writeJpeg(contentHash, PhotoVariant.MEDIUM, scaleToFit(source, properties.getMediumSize()));
+            
+            asset.setWidth(source.getWidth());
+            asset.setHeight(source.getHeight());
+            asset.setStatus(PhotoAsset.Status.READY);
+            log.info("Versiones generadas para la foto {}", contentHash);
+        } catch (Exception e) {
+            asset.setStatus(PhotoAsset.Status.FAILED);
+            log.error("Error al generar versiones de la foto {}: {}", contentHash, e.getMessage(), e);
+        }
+        asset.setProcessedAt(LocalDateTime.now());
+        photoAssetRepository.save(asset);
+    }
+    
+    /**
+     * Reduce la imagen para que su lado mayor no supere {@code maxSize}, nunca la amplía.
+     * Reduce a la mitad en varios pasos para que la interpolación bilineal no pierda calidad.
+     */
+    private static BufferedImage scaleToFit(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        
+        BufferedImage current = source;
+        while (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+            width /= 2;
+            height /= 2;
+            current = draw(current, width, height);
+        }
+        if (current == source || width != targetWidth || height != targetHeight) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+    
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        // JPEG no tiene transparencia: se pinta sobre fondo blanco
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+    
+    private void writeJpeg(String contentHash, PhotoVariant variant, BufferedImage image) throws IOException {
+        photoStorageService.writeVariant(contentHash, variant, out -> encodeJpeg(image, out));
+    }
+    
+    private void encodeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam params = writer.getDefaultWriteParam();
+            params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            params.setCompressionQuality(properties.getJpegQuality());
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
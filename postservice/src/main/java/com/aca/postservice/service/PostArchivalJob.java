@@ -0,0 +1,202 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.archive.ArchivedPost;
+import com.aca.postservice.archive.PostArchive;
+import com.aca.postservice.model.Comment;
+import com.aca.postservice.model.Post;
+import com.aca.postservice.repository.CommentRepository;
+import com.aca.postservice.repository.PostRepository;
+import com.aca.postservice.sharding.ShardContext;
+import com.aca.postservice.sharding.ShardTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Mueve las publicaciones antiguas (y sus comentarios) de MySQL a segmentos del {@link PostArchive}.
+ *
+ * <p>Cada lote se escribe primero en un segmento sincronizado a disco y solo después se borra de
+ * las tablas. Las filas modificadas entre la lectura y el borrado (versión distinta) no se borran:
+ * siguen vivas y la copia archivada queda oculta, porque las lecturas consultan MySQL primero.
+ * Las que ya no están (borradas mientras tanto) reciben una lápida para que la copia no reaparezca.</p>
+ *
+ * <p>Con particionado cada shard se archiva por separado, saltando los buckets que se están moviendo.</p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.archive", name = "enabled", havingValue = "true")
+public class PostArchivalJob {
+    
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final PostArchive postArchive;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardTemplate shardTemplate;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    @Value("${app.archive.older-than:P365D}")
+    private Duration olderThan;
+    
+    @Value("${app.archive.batch-size:5000}")
+    private int batchSize;
+    
+    @Value("${app.archive.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+    
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveOldPosts() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(olderThan);
+            log.info("Archivando publicaciones anteriores a {}", cutoff);
+            int archived = 0;
+            for (Integer shard : shardTemplate.allShards()) {
+                archived += shardTemplate.onShard(shard, () -> archiveShard(cutoff));
+            }
+            log.info("Archivado finalizado: {} publicaciones movidas al archivo", archived);
+        } catch (Exception e) {
+            log.error("Error al archivar publicaciones: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private int archiveShard(LocalDateTime cutoff) {
+        int archived = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int count = archiveBatch(cutoff);
+                archived += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return archived;
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<ArchivedPost> batch = readOnly.execute(status -> loadBatch(cutoff));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        
+        postArchive.writeSegment(batch);
+        int deleted = new TransactionTemplate(transactionManager).execute(status -> deleteArchived(batch));
+        if (deleted < batch.size()) {
+            log.info("{} publicaciones cambiaron durante el archivado y siguen en MySQL", batch.size() - deleted);
+        }
+        return batch.size();
+    }
+    
+    private List<ArchivedPost> loadBatch(LocalDateTime cutoff) {
+        int shard = ShardContext.current();
+        List<Post> posts = postRepository.findByCreatedAtBeforeOrderByIdAsc(cutoff, PageRequest.of(0, batchSize)).stream()
+                .filter(post -> shardTemplate.owns(shard, post.getId()) && !shardTemplate.isMoving(post.getId()))
+                .toList();
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<Comment>> comments = commentRepository
+                .findByPostIdInOrderByIdAsc(posts.stream().map(Post::getId).toList()).stream()
+                .collect(Collectors.groupingBy(Comment::getPostId));
+        
+        List<ArchivedPost> batch = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            // Las fotos son perezosas: se cargan antes de cerrar la sesión
+            Hibernate.initialize(post.getPhotos());
+            batch.add(new ArchivedPost(post, comments.getOrDefault(post.getId(), List.of())));
+        }
+        return batch;
+    }
+    
+    /**
+     * Borra las filas archivadas cuya versión no cambió. Los comentarios se borran por ID,
+     * así que los creados después de leer el lote siguen en la tabla.
+     */
+    private int deleteArchived(List<ArchivedPost> batch) {
+        Map<Long, ArchivedPost> byId = new HashMap<>();
+        batch.forEach(row -> byId.put(row.post().getId(), row));
+        
+        List<Long> unchangedIds = new ArrayList<>();
+        Set<Long> missingIds = new HashSet<>(byId.keySet());
+        for (List<Long> chunk : chunks(new ArrayList<>(byId.keySet()))) {
+            jdbcTemplate.query("SELECT id, version FROM posts WHERE id IN (:ids) FOR UPDATE",
+                    new MapSqlParameterSource("ids", chunk),
+                    rs -> {
+                        long id = rs.getLong("id");
+                        missingIds.remove(id);
+                        if (rs.getLong("version") == byId.get(id).post().getVersion()) {
+                            unchangedIds.add(id);
+                        }
+                    });
+        }
+        // Si el bucket cambió de shard la fila sigue viva en el otro: solo las borradas llevan lápida
+        int shard = ShardContext.current();
+        List<Long> deletedIds = missingIds.stream()
+                .filter(id -> shardTemplate.owns(shard, id) && !shardTemplate.isMoving(id))
+                .toList();
+        if (!deletedIds.isEmpty()) {
+            log.info("{} publicaciones se borraron durante el archivado", deletedIds.size());
+            postArchive.tombstone(deletedIds);
+        }
+        
+        List<Long> commentIds = unchangedIds.stream()
+                .flatMap(id -> byId.get(id).comments().stream())
+                .map(Comment::getId)
+                .toList();
+        for (List<Long> chunk : chunks(commentIds)) {
+            jdbcTemplate.update("DELETE FROM comments WHERE id IN (:ids)", new MapSqlParameterSource("ids", chunk));
+        }
+        for (List<Long> chunk : chunks(unchangedIds)) {
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", chunk);
+            // El archivo conserva el contador de likes, no quién los dio
+            jdbcTemplate.update("DELETE FROM post_likes WHERE post_id IN (:ids)", params);
+            jdbcTemplate.update("DELETE FROM post_photos WHERE post_id IN (:ids)", params);
+            jdbcTemplate.update("DELETE FROM posts WHERE id IN (:ids)", params);
+        }
+        // Las que faltaban ya no están en MySQL: cuentan como retiradas
+        return unchangedIds.size() + missingIds.size();
+    }
+    
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,94 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.config.CacheConfig;
+import com.aca.postservice.dto.PostResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caché de publicaciones por ID en la que una carga solo se guarda si la clave no se ha invalidado
+ * mientras se leía. Sin esto, una lectura que empezó antes de una actualización guarda la versión
+ * antigua justo después de la invalidación y se sirve (también como ETag) hasta que caduca.
+ *
+ * <p>Quien carga toma {@link #stamp(Long)} antes de leer y se lo pasa a {@link #putIfCurrent}; cada
+ * {@link #evict(Long)} avanza la generación. Las generaciones van por franjas del ID: dos IDs de la
+ * misma franja como mucho se cuestan un guardado que no se hace.</p>
+ */
+@Component
+public class PostCache {
+    
+    private static final int STRIPES = 1024;
+    
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final CacheManager cacheManager;
+    
+    public PostCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+    
+    public PostResponse get(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.POSTS_CACHE);
+        return cache != null ? cache.get(id, PostResponse.class) : null;
+    }
+    
+    /**
+     * Generación actual de la clave; se toma antes de leer de la base de datos.
+     */
+    public long stamp(Long id) {
+        return generations.get(stripe(id));
+    }
+    
+    /**
+     * Guarda la publicación salvo que la clave se haya invalidado desde {@code stamp}. Con Caffeine la
+     * comprobación y el guardado van dentro del bloqueo de la clave, el mismo que toma {@link #evict}.
+     */
+    public void putIfCurrent(Long id, PostResponse response, long stamp) {
+        Cache cache = cacheManager.getCache(CacheConfig.POSTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        int stripe = stripe(id);
+        ConcurrentMap<Object, Object> entries = caffeineEntries(cache);
+        if (entries != null) {
+            entries.compute(id, (key, current) -> generations.get(stripe) == stamp ? response : current);
+        } else if (generations.get(stripe) == stamp) {
+            cache.put(id, response);
+        }
+    }
+    
+    /**
+     * Invalida la publicación: la quita de la caché y descarta los guardados de las cargas en curso.
+     */
+    public void evict(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.POSTS_CACHE);
+        int stripe = stripe(id);
+        ConcurrentMap<Object, Object> entries = cache != null ? caffeineEntries(cache) : null;
+        if (entries != null) {
+            entries.compute(id, (key, current) -> {
+                generations.incrementAndGet(stripe);
+                return null;
+            });
+            return;
+        }
+        generations.incrementAndGet(stripe);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+    
+    private static int stripe(Long id) {
+        return Long.hashCode(id * 0x9E3779B97F4A7C15L) & (STRIPES - 1);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<Object, Object> caffeineEntries(Cache cache) {
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).asMap();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.dto.PostFilterRequest;
+import com.aca.postservice.repository.PostRepository;
+import com.aca.postservice.sharding.ShardTemplate;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Totales aproximados para los listados paginados, para no lanzar un COUNT(*) en cada petición.
+ *
+ * <p>El total de publicaciones sale de la matriz de facetas, que ya se mantiene en memoria. El de
+ * una búsqueda (o el total, si la matriz aún no se cargó) se cuenta la primera vez que se pide y
+ * después se refresca en segundo plano cada {@code app.posts.count-estimate.refresh-interval};
+ * mientras tanto se sirve el valor anterior.</p>
+ */
+@Service
+@Slf4j
+public class PostCountEstimator {
+    
+    private static final SearchKey ALL = new SearchKey(null, null, true);
+    
+    private final FacetCountService facetCountService;
+    private final LoadingCache<SearchKey, Long> searchCounts;
+    
+    public PostCountEstimator(FacetCountService facetCountService,
+                              PostRepository postRepository,
+                              ShardTemplate shardTemplate,
+                              @Value("${app.posts.count-estimate.refresh-interval:PT1M}") Duration refreshInterval,
+                              @Value("${app.posts.count-estimate.max-searches:1000}") long maxSearches) {
+        this.facetCountService = facetCountService;
+        this.searchCounts = Caffeine.newBuilder()
+                .maximumSize(maxSearches)
+                .refreshAfterWrite(refreshInterval)
+                .expireAfterWrite(refreshInterval.multipliedBy(10))
+                .build(key -> {
+                    log.debug("Contando publicaciones para {}", key);
+                    return shardTemplate.readAll(shard -> key.all()
+                                    ? postRepository.count()
+                                    : postRepository.countSearch(key.location(), key.adventureType()))
+                            .stream()
+                            .mapToLong(Long::longValue)
+                            .sum();
+                });
+    }
+    
+    public long estimateAll() {
+        return facetCountService.countsFor(new PostFilterRequest())
+                .map(FacetCountService.FacetCounts::total)
+                .orElseGet(() -> searchCounts.get(ALL));
+    }
+    
+    public long estimateSearch(String location, String adventureType) {
+        return searchCounts.get(new SearchKey(location, adventureType, false));
+    }
+    
+    private record SearchKey(String location, String adventureType, boolean all) {
+    }
+}
@@ -1,31 +1,64 @@
 package com.aca.postservice.service;
 
+import com.aca.postservice.dto.BulkCreatePostResponse;
 import com.aca.postservice.dto.CreatePostRequest;
+import com.aca.postservice.dto.FacetedPostSearchResponse;
+import com.aca.postservice.dto.NearbyPostResponse;
+import com.aca.postservice.dto.PostBatchResponse;
+import com.aca.postservice.dto.PostFilterRequest;
 import com.aca.postservice.dto.PostResponse;
+import com.aca.postservice.dto.PostSliceResponse;
+import com.aca.postservice.dto.UpdatePostRequest;
+import com.aca.postservice.model.AuthorActivity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 public interface PostService {
     
     PostResponse createPost(CreatePostRequest request);
     
+    BulkCreatePostResponse createPostsBulk(List<CreatePostRequest> requests);
+    
     PostResponse getPostById(Long id);
     
+    PostBatchResponse getPostsByIds(List<Long> ids);
+    
     Page<PostResponse> getAllPosts(Pageable pageable);
     
+    PostSliceResponse getLatestSlice(LocalDateTime beforeCreatedAt, Long beforeId, int size);
+    
     List<PostResponse> getPostsByUserId(Long userId);
     
+    AuthorActivity getAuthorActivity(Long userId);
+    
     Page<PostResponse> searchPosts(String location, String adventureType, Pageable pageable);
     
+    PostSliceResponse searchPostsSlice(String location, String adventureType,
+                                       LocalDateTime beforeCreatedAt, Long beforeId, int size);
+    
+    FacetedPostSearchResponse filterPosts(PostFilterRequest filter, Pageable pageable);
+    
     List<PostResponse> getPostsByUserIds(List<Long> userIds);
     
-    PostResponse updatePost(Long id, CreatePostRequest request);
+    List<PostResponse> getFeedPage(List<Long> userIds, LocalDateTime beforeCreatedAt, Long beforeId, int size);
+    
+    Page<NearbyPostResponse> searchNearby(double latitude, double longitude, double radiusKm, Pageable pageable);
+    
+    Page<NearbyPostResponse> searchWithin(double minLat, double minLon, double maxLat, double maxLon, Pageable pageable);
+    
+    PostResponse updatePost(Long id, CreatePostRequest request, Long expectedVersion);
+    
+    PostResponse patchPost(Long id, UpdatePostRequest request, Long expectedVersion);
     
     void deletePost(Long id);
     
-    void likePost(Long postId);
+    void likePost(Long postId, Long userId);
+    
+    void unlikePost(Long postId, Long userId);
     
-    void unlikePost(Long postId);
+    Set<Long> getLikedPostIds(Long userId, List<Long> postIds);
 }
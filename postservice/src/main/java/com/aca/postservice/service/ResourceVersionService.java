@@ -0,0 +1,124 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.dto.PostResponse;
+import com.aca.postservice.repository.CommentRepository;
+import com.aca.postservice.repository.PostRepository;
+import com.aca.postservice.repository.projection.CommentsVersionView;
+import com.aca.postservice.repository.projection.PostVersionView;
+import com.aca.postservice.sharding.ShardContext;
+import com.aca.postservice.sharding.ShardTemplate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Calcula ETags fuertes a partir de consultas ligeras, para poder responder 304
+ * antes de cargar las entidades y mapear los DTOs. Cada consulta se lanza en el shard
+ * que corresponde, en su propia transacción de solo lectura.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResourceVersionService {
+    
+    private static final Comparator<PostVersionView> NEWEST_FIRST = Comparator
+            .comparing(PostVersionView::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PostVersionView::getId, Comparator.reverseOrder());
+    
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final PostCache postCache;
+    private final ShardTemplate shardTemplate;
+    
+    public Optional<String> postETag(Long id) {
+        PostResponse cached = postCache.get(id);
+        if (cached != null) {
+            return Optional.of(postETag(id, cached.getVersion()));
+        }
+        return shardTemplate.read(shardTemplate.shardOfId(id), () -> postRepository.findVersionById(id))
+                .map(version -> postETag(id, version));
+    }
+    
+    public String postPageETag(Pageable pageable) {
+        List<PostVersionView> versions = pageVersions(pageable);
+        StringBuilder fingerprint = new StringBuilder()
+                .append(pageable.getPageNumber()).append(':').append(pageable.getPageSize());
+        for (PostVersionView version : versions) {
+            fingerprint.append('|').append(version.getId()).append("-v").append(version.getVersion());
+        }
+        return quote("posts-" + sha256(fingerprint.toString()));
+    }
+    
+    public String commentsETag(Long postId) {
+        CommentsVersionView version = shardTemplate.read(shardTemplate.shardOfId(postId),
+                () -> commentRepository.findVersionByPostId(postId));
+        return quote("comments-" + postId + "-" + version.getTotal() + "-" + version.getMaxId());
+    }
+    
+    public static String postETag(Long id, Long version) {
+        return quote("post-" + id + "-v" + version);
+    }
+    
+    /**
+     * Extrae la versión de un ETag generado por {@link #postETag(Long, Long)}, p. ej. para If-Match.
+     */
+    public static Optional<Long> parsePostVersion(String eTag) {
+        if (eTag == null) {
+            return Optional.empty();
+        }
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int index = value.lastIndexOf("-v");
+        if (!value.startsWith("post-") || index < 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(value.substring(index + 2)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Versiones de la página pedida, mezclando las primeras filas de cada shard igual que el listado.
+     */
+    private List<PostVersionView> pageVersions(Pageable pageable) {
+        if (!shardTemplate.isSharded()) {
+            return shardTemplate.read(ShardContext.CATALOG, () -> postRepository.findVersionsOrderByCreatedAtDesc(pageable));
+        }
+        Pageable top = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize());
+        return shardTemplate.readAll(shard -> postRepository.findVersionsOrderByCreatedAtDesc(top).stream()
+                        .filter(version -> shardTemplate.owns(shard, version.getId()))
+                        .toList())
+                .stream()
+                .flatMap(List::stream)
+                .sorted(NEWEST_FIRST)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+    
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+    
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.exception.CoalescedLoadTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Une las lecturas idénticas concurrentes: la primera petición de una clave ejecuta la carga en su
+ * propio hilo y las que llegan mientras tanto esperan el mismo resultado (o la misma excepción)
+ * hasta {@code app.single-flight.timeout}, que responde 503.
+ *
+ * <p>No guarda nada: al terminar la carga la clave se libera y la siguiente petición vuelve a leer.
+ * Con una caché delante, solo las peticiones que fallan en la caché a la vez llegan aquí.</p>
+ */
+@Component
+@Slf4j
+public class SingleFlight {
+    
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final Duration timeout;
+    
+    public SingleFlight(@Value("${app.single-flight.timeout:PT5S}") Duration timeout) {
+        this.timeout = timeout;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+        if (leader == null) {
+            loads.incrementAndGet();
+            try {
+                T value = loader.get();
+                mine.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+        
+        coalesced.incrementAndGet();
+        try {
+            return (T) leader.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Lectura compartida de {} sin terminar tras {}", key, timeout);
+            throw new CoalescedLoadTimeoutException(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera de la lectura compartida interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error en la lectura compartida de " + key, e.getCause());
+        }
+    }
+    
+    /**
+     * Suelta la carga en curso de la clave tras un cambio: quien llegue después lanza una nueva en
+     * lugar de esperar un resultado leído antes. Los que ya esperaban reciben el de la carga anterior.
+     */
+    public void forget(Object key) {
+        inFlight.remove(key);
+    }
+    
+    /**
+     * Cargas ejecutadas contra la base de datos.
+     */
+    public long getLoads() {
+        return loads.get();
+    }
+    
+    /**
+     * Peticiones que reutilizaron una carga en curso en lugar de lanzar la suya.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+}
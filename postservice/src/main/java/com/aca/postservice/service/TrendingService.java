@@ -0,0 +1,359 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.event.PostActivityEvent;
+import com.aca.postservice.model.PostTrendingScore;
+import com.aca.postservice.repository.PostRepository;
+import com.aca.postservice.repository.PostTrendingScoreRepository;
+import com.aca.postservice.repository.projection.PostTrendingKeyView;
+import com.aca.postservice.sharding.ShardTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Motor incremental de publicaciones en tendencia.
+ *
+ * <p>Cada actividad suma {@code peso * 2^((t - t0) / vidaMedia)} a la puntuación de la publicación
+ * (decaimiento "hacia adelante"): el paso del tiempo no obliga a recalcular las demás puntuaciones
+ * y el orden relativo se mantiene. Cada publicación vive en cuatro rankings (global, ubicación,
+ * tipo y ubicación+tipo), ordenados en skip lists acotadas, así que consultar el top K es O(K).
+ * Periódicamente se mueve la referencia t0 (para evitar desbordes) y se guarda un snapshot en MySQL.</p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TrendingService {
+    
+    private static final String ANY = "*";
+    
+    private static final Comparator<Ranked> RANKING = Comparator
+            .comparingDouble(Ranked::score).reversed()
+            .thenComparingLong(Ranked::postId);
+    
+    private static final String UPSERT_SNAPSHOT_SQL =
+            "INSERT INTO post_trending_scores (post_id, location, adventure_type, score, snapshot_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE location = VALUES(location), " +
+            "adventure_type = VALUES(adventure_type), score = VALUES(score), snapshot_at = VALUES(snapshot_at)";
+    
+    private final PostRepository postRepository;
+    private final PostTrendingScoreRepository trendingScoreRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardTemplate shardTemplate;
+    
+    @Value("${app.trending.half-life:PT6H}")
+    private Duration halfLife;
+    
+    @Value("${app.trending.max-per-ranking:500}")
+    private int maxPerRanking;
+    
+    @Value("${app.trending.min-score:0.01}")
+    private double minScore;
+    
+    @Value("${app.trending.weights.created:1.0}")
+    private double createdWeight;
+    
+    @Value("${app.trending.weights.like:1.0}")
+    private double likeWeight;
+    
+    @Value("${app.trending.weights.comment:2.0}")
+    private double commentWeight;
+    
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+    private volatile Map<String, Ranking> rankings = new ConcurrentHashMap<>();
+    private volatile long landmarkMillis = System.currentTimeMillis();
+    
+    /**
+     * Publicaciones en tendencia; ubicación y tipo son opcionales.
+     */
+    public List<TrendingItem> getTrending(String location, String adventureType, int limit) {
+        Ranking ranking = rankings.get(rankingKey(normalize(location), normalize(adventureType)));
+        if (ranking == null) {
+            return List.of();
+        }
+        double decay = decayFactor(System.currentTimeMillis());
+        List<TrendingItem> items = new ArrayList<>(limit);
+        Iterator<Ranked> iterator = ranking.entries.iterator();
+        while (iterator.hasNext() && items.size() < limit) {
+            Ranked ranked = iterator.next();
+            items.add(new TrendingItem(ranked.postId(), ranked.score() * decay));
+        }
+        return items;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostActivity(PostActivityEvent event) {
+        try {
+            switch (event.getType()) {
+                case CREATED -> addScore(event.getPostId(), event.getLocation(), event.getAdventureType(), createdWeight);
+                case UPDATED -> relocate(event.getPostId(), event.getLocation(), event.getAdventureType());
+                case DELETED -> remove(event.getPostId());
+                case LIKED -> addScore(event.getPostId(), likeWeight);
+                case UNLIKED -> addScoreIfTracked(event.getPostId(), -likeWeight);
+                case COMMENTED -> addScore(event.getPostId(), commentWeight);
+            }
+        } catch (Exception e) {
+            // Un fallo del ranking nunca debe afectar a la escritura que ya se confirmó
+            log.error("Error al actualizar tendencias para la publicación {}: {}", event.getPostId(), e.getMessage(), e);
+        }
+    }
+    
+    private void addScore(Long postId, double weight) {
+        boolean tracked;
+        synchronized (this) {
+            tracked = entries.containsKey(postId);
+        }
+        if (tracked) {
+            addScoreIfTracked(postId, weight);
+            return;
+        }
+        lookupKey(postId).ifPresent(key -> addScore(postId, key.getLocation(), key.getAdventureType(), weight));
+    }
+    
+    private synchronized void addScore(Long postId, String location, String adventureType, double weight) {
+        Entry entry = entries.get(postId);
+        if (entry == null) {
+            entry = new Entry(postId, normalize(location), normalize(adventureType));
+            entries.put(postId, entry);
+        } else {
+            unrank(entry);
+        }
+        entry.score = Math.max(0, entry.score + weight * growthFactor(System.currentTimeMillis()));
+        rank(entry, rankings);
+        dirty.add(postId);
+        removed.remove(postId);
+    }
+    
+    private synchronized void addScoreIfTracked(Long postId, double weight) {
+        Entry entry = entries.get(postId);
+        if (entry != null) {
+            addScore(postId, entry.location, entry.adventureType, weight);
+        }
+    }
+    
+    private synchronized void relocate(Long postId, String location, String adventureType) {
+        Entry entry = entries.get(postId);
+        if (entry == null) {
+            return;
+        }
+        unrank(entry);
+        entry.location = normalize(location);
+        entry.adventureType = normalize(adventureType);
+        rank(entry, rankings);
+        dirty.add(postId);
+    }
+    
+    private synchronized void remove(Long postId) {
+        Entry entry = entries.remove(postId);
+        if (entry != null) {
+            unrank(entry);
+        }
+        dirty.remove(postId);
+        removed.add(postId);
+    }
+    
+    /**
+     * Mueve la referencia t0 al instante actual, descarta las publicaciones cuya puntuación
+     * decayó por debajo del mínimo y reconstruye los rankings.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.rebase-interval:PT1H}", initialDelayString = "${app.trending.rebase-interval:PT1H}")
+    public synchronized void rebase() {
+        long now = System.currentTimeMillis();
+        double decay = decayFactor(now);
+        Map<String, Ranking> rebuilt = new ConcurrentHashMap<>();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            entry.score *= decay;
+            if (entry.score < minScore) {
+                iterator.remove();
+                dirty.remove(entry.postId);
+                removed.add(entry.postId);
+            } else {
+                rank(entry, rebuilt);
+            }
+        }
+        landmarkMillis = now;
+        rankings = rebuilt;
+        log.info("Tendencias recalculadas: {} publicaciones activas", entries.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${app.trending.snapshot-interval:PT1M}", initialDelayString = "${app.trending.snapshot-interval:PT1M}")
+    public void snapshot() {
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        synchronized (this) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            double decay = decayFactor(System.currentTimeMillis());
+            for (Long postId : dirty) {
+                Entry entry = entries.get(postId);
+                if (entry != null) {
+                    upserts.add(new Object[]{entry.postId, entry.location, entry.adventureType, entry.score * decay, now});
+                }
+            }
+            for (Long postId : removed) {
+                deletes.add(new Object[]{postId});
+            }
+            dirty.clear();
+            removed.clear();
+        }
+        if (upserts.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+        try {
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SNAPSHOT_SQL, upserts);
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate("DELETE FROM post_trending_scores WHERE post_id = ?", deletes);
+            }
+            log.debug("Snapshot de tendencias guardado: {} actualizadas, {} eliminadas", upserts.size(), deletes.size());
+        } catch (Exception e) {
+            log.error("Error al guardar snapshot de tendencias: {}", e.getMessage(), e);
+            // Se vuelven a marcar para el siguiente intento
+            upserts.forEach(row -> dirty.add((Long) row[0]));
+            deletes.forEach(row -> removed.add((Long) row[0]));
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        try {
+            List<PostTrendingScore> snapshot = trendingScoreRepository.findAll();
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                for (PostTrendingScore saved : snapshot) {
+                    if (entries.containsKey(saved.getPostId())) {
+                        continue;
+                    }
+                    long ageMillis = Math.max(0, Duration.between(saved.getSnapshotAt(), LocalDateTime.now()).toMillis());
+                    Entry entry = new Entry(saved.getPostId(), saved.getLocation(), saved.getAdventureType());
+                    entry.score = saved.getScore() * Math.pow(2, -(double) ageMillis / halfLife.toMillis())
+                            * growthFactor(now);
+                    entries.put(entry.postId, entry);
+                    rank(entry, rankings);
+                }
+            }
+            log.info("Tendencias cargadas desde snapshot: {} publicaciones", snapshot.size());
+        } catch (Exception e) {
+            log.error("No se pudo cargar el snapshot de tendencias: {}", e.getMessage(), e);
+        }
+    }
+    
+    private Optional<PostTrendingKeyView> lookupKey(Long postId) {
+        // Se ejecuta tras el commit de la escritura original, así que usa su propia transacción
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        return shardTemplate.onShard(shardTemplate.shardOfId(postId),
+                () -> transactionTemplate.execute(status -> postRepository.findTrendingKeyById(postId)));
+    }
+    
+    private void rank(Entry entry, Map<String, Ranking> target) {
+        Ranked ranked = new Ranked(entry.postId, entry.score);
+        for (String key : entry.rankingKeys()) {
+            Ranking ranking = target.computeIfAbsent(key, k -> new Ranking());
+            if (ranking.entries.add(ranked)) {
+                ranking.size++;
+            }
+            // Recortar la cola es exacto: una publicación fuera del ranking solo puede volver
+            // a superar a las demás con actividad propia, que la vuelve a insertar
+            while (ranking.size > maxPerRanking) {
+                ranking.entries.pollLast();
+                ranking.size--;
+            }
+        }
+    }
+    
+    private void unrank(Entry entry) {
+        Ranked ranked = new Ranked(entry.postId, entry.score);
+        for (String key : entry.rankingKeys()) {
+            Ranking ranking = rankings.get(key);
+            if (ranking != null && ranking.entries.remove(ranked)) {
+                ranking.size--;
+            }
+        }
+    }
+    
+    private double growthFactor(long nowMillis) {
+        return Math.pow(2, (double) (nowMillis - landmarkMillis) / halfLife.toMillis());
+    }
+    
+    private double decayFactor(long nowMillis) {
+        return 1.0 / growthFactor(nowMillis);
+    }
+    
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String rankingKey(String location, String adventureType) {
+        return (location == null ? ANY : location) + "|" + (adventureType == null ? ANY : adventureType);
+    }
+    
+    public record TrendingItem(Long postId, double score) {
+    }
+    
+    private record Ranked(long postId, double score) {
+    }
+    
+    private static final class Ranking {
+        private final ConcurrentSkipListSet<Ranked> entries = new ConcurrentSkipListSet<>(RANKING);
+        // Solo se modifica con el lock del motor; evita el size() O(n) de la skip list
+        private int size;
+    }
+    
+    private static final class Entry {
+        private final long postId;
+        private String location;
+        private String adventureType;
+        private double score;
+        
+        private Entry(long postId, String location, String adventureType) {
+            this.postId = postId;
+            this.location = location;
+            this.adventureType = adventureType;
+        }
+        
+        private List<String> rankingKeys() {
+            List<String> keys = new ArrayList<>(4);
+            keys.add(rankingKey(null, null));
+            if (location != null) {
+                keys.add(rankingKey(location, null));
+            }
+            if (adventureType != null) {
+                keys.add(rankingKey(null, adventureType));
+            }
+            if (location != null && adventureType != null) {
+                keys.add(rankingKey(location, adventureType));
+            }
+            return keys;
+        }
+    }
+}
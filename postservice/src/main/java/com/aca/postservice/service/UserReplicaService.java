@@ -0,0 +1,58 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.model.UserReplica;
+import com.aca.postservice.repository.UserFollowEdgeRepository;
+import com.aca.postservice.repository.UserReplicaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Lecturas sobre la réplica local de usuarios. Solo los usuarios que todavía no llegaron a la
+ * réplica (anteriores al flujo de eventos y sin instantánea cargada) se consultan al user-service.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserReplicaService {
+    
+    private final UserReplicaRepository userReplicaRepository;
+    private final UserFollowEdgeRepository userFollowEdgeRepository;
+    private final UserServiceClient userServiceClient;
+    private final Scheduler feedQueryScheduler;
+    
+    public Mono<List<Long>> getFollowingIds(Long userId) {
+        return Mono.fromCallable(() -> userReplicaRepository.existsById(userId)
+                        ? userFollowEdgeRepository.findFolloweeIds(userId)
+                        : null)
+                .subscribeOn(feedQueryScheduler)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.debug("Usuario {} sin réplica local, se consultan sus seguidos al user-service", userId);
+                    return userServiceClient.getFollowingIds(userId);
+                }));
+    }
+    
+    /**
+     * Nombre replicado del usuario, o el recibido en la petición si el usuario aún no está replicado.
+     */
+    public String resolveUserName(Long userId, String fallback) {
+        if (userId == null) {
+            return fallback;
+        }
+        return userReplicaRepository.findById(userId)
+                .map(UserReplica::getUsername)
+                .orElse(fallback);
+    }
+    
+    public Map<Long, String> findUserNames(Collection<Long> userIds) {
+        return userReplicaRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(UserReplica::getUserId, UserReplica::getUsername));
+    }
+}
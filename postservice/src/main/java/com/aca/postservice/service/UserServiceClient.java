@@ -0,0 +1,38 @@
+package com.aca.postservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Cliente no bloqueante del user-service.
+ */
+@Service
+@Slf4j
+public class UserServiceClient {
+    
+    private static final ParameterizedTypeReference<List<Long>> ID_LIST = new ParameterizedTypeReference<>() {};
+    
+    private final WebClient webClient;
+    
+    public UserServiceClient(@Qualifier("userServiceWebClient") WebClient webClient) {
+        this.webClient = webClient;
+    }
+    
+    public Mono<List<Long>> getFollowingIds(Long userId) {
+        return webClient.get()
+                .uri("/api/users/{userId}/following", userId)
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(),
+                        response -> Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario no encontrado: " + userId)))
+                .bodyToMono(ID_LIST)
+                .doOnError(e -> log.error("Error al obtener seguidos del usuario {}: {}", userId, e.getMessage()));
+    }
+}
@@ -1,23 +1,39 @@
 package com.aca.postservice.service.impl;
 
+import com.aca.postservice.archive.ArchivedPost;
+import com.aca.postservice.archive.PostArchive;
 import com.aca.postservice.dto.CreateCommentRequest;
+import com.aca.postservice.event.MutationType;
+import com.aca.postservice.event.PostActivityEvent;
 import com.aca.postservice.model.Comment;
 import com.aca.postservice.repository.CommentRepository;
 import com.aca.postservice.service.CommentService;
+import com.aca.postservice.service.MutationLog;
+import com.aca.postservice.service.UserReplicaService;
+import com.aca.postservice.sharding.ShardTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
 public class CommentServiceImpl implements CommentService {
     
     private final CommentRepository commentRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final PostArchive postArchive;
+    private final MutationLog mutationLog;
+    private final UserReplicaService userReplicaService;
+    private final ShardTemplate shardTemplate;
     
     @Override
     public Comment createComment(CreateCommentRequest request) {
@@ -27,31 +43,55 @@ public class CommentServiceImpl implements CommentService {
         comment.setContent(request.getContent());
         comment.setPostId(request.getPostId());
         comment.setUserId(request.getUserId());
-        comment.setUserName(request.getUserName());
+        comment.setUserName(userReplicaService.resolveUserName(request.getUserId(), request.getUserName()));
         
-        Comment savedComment = commentRepository.save(comment);
+        // El comentario vive en el shard de su publicación
+        Comment savedComment = shardTemplate.write(shardTemplate.writableShardOfId(request.getPostId()), () -> {
+            Comment saved = commentRepository.save(comment);
+            mutationLog.recordPostMutation(saved.getPostId(), MutationType.COMMENT_CREATED, saved);
+            applicationEventPublisher.publishEvent(PostActivityEvent.of(PostActivityEvent.Type.COMMENTED, saved.getPostId()));
+            return saved;
+        });
         log.info("Comentario creado exitosamente con ID: {}", savedComment.getId());
         
         return savedComment;
     }
     
     @Override
-    @Transactional(readOnly = true)
     public List<Comment> getCommentsByPostId(Long postId) {
         log.info("Obteniendo comentarios del post: {}", postId);
         
-        return commentRepository.findByPostIdOrderByCreatedAtAsc(postId);
+        List<Comment> comments = shardTemplate.read(shardTemplate.shardOfId(postId),
+                () -> commentRepository.findByPostIdOrderByCreatedAtAsc(postId));
+        if (postArchive.isEmpty()) {
+            return comments;
+        }
+        
+        // Comentarios de una publicación archivada: los del archivo más los creados después del archivado
+        List<Comment> archived = postArchive.findPost(postId)
+                .map(ArchivedPost::comments)
+                .orElse(List.of());
+        if (archived.isEmpty()) {
+            return comments;
+        }
+        List<Comment> merged = new ArrayList<>(archived);
+        merged.addAll(comments);
+        return merged;
     }
     
     @Override
     public void deleteComment(Long id) {
         log.info("Eliminando comentario con ID: {}", id);
         
-        if (!commentRepository.existsById(id)) {
-            throw new RuntimeException("Comentario no encontrado con ID: " + id);
-        }
-        
-        commentRepository.deleteById(id);
+        // El ID del comentario lleva el bucket de su publicación
+        shardTemplate.writeWithoutResult(shardTemplate.writableShardOfId(id), () -> {
+            Comment comment = commentRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Comentario no encontrado con ID: " + id));
+            
+            commentRepository.delete(comment);
+            mutationLog.recordPostMutation(comment.getPostId(), MutationType.COMMENT_DELETED,
+                    Map.of("postId", comment.getPostId(), "commentId", id));
+        });
         log.info("Comentario eliminado exitosamente");
     }
     
@@ -59,7 +99,10 @@ public class CommentServiceImpl implements CommentService {
     public void deleteCommentsByPostId(Long postId) {
         log.info("Eliminando todos los comentarios del post: {}", postId);
         
-        commentRepository.deleteByPostId(postId);
+        shardTemplate.writeWithoutResult(shardTemplate.writableShardOfId(postId), () -> {
+            commentRepository.deleteByPostId(postId);
+            mutationLog.recordPostMutation(postId, MutationType.COMMENTS_DELETED, Map.of("postId", postId));
+        });
         log.info("Comentarios eliminados exitosamente");
     }
 }
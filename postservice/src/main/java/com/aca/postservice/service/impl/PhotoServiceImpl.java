@@ -0,0 +1,92 @@
+package com.aca.postservice.service.impl;
+
+import com.aca.postservice.dto.PhotoResponse;
+import com.aca.postservice.model.PhotoAsset;
+import com.aca.postservice.repository.PhotoAssetRepository;
+import com.aca.postservice.service.PhotoService;
+import com.aca.postservice.service.PhotoStorageService;
+import com.aca.postservice.service.PhotoUrlResolver;
+import com.aca.postservice.service.PhotoVariantWorker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhotoServiceImpl implements PhotoService {
+    
+    private final PhotoAssetRepository photoAssetRepository;
+    private final PhotoStorageService photoStorageService;
+    private final PhotoVariantWorker photoVariantWorker;
+    private final PhotoUrlResolver photoUrlResolver;
+    
+    @Override
+    public PhotoResponse uploadPhoto(MultipartFile file) throws IOException {
+        log.info("Subiendo foto: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        
+        PhotoStorageService.StoredUpload upload;
+        try (InputStream content = file.getInputStream()) {
+            upload = photoStorageService.storeTemp(content);
+        }
+        
+        // Mismo contenido que una foto ya subida: se reutiliza sin guardar otra copia
+        Optional<PhotoAsset> existing = photoAssetRepository.findByContentHash(upload.contentHash());
+        if (existing.isPresent()) {
+            photoStorageService.discard(upload);
+            log.info("Foto duplicada, se reutiliza {}", upload.contentHash());
+            return mapToPhotoResponse(existing.get(), true);
+        }
+        
+        photoStorageService.promote(upload);
+        PhotoAsset asset = new PhotoAsset();
+        asset.setContentHash(upload.contentHash());
+        asset.setContentType(file.getContentType());
+        asset.setOriginalFilename(file.getOriginalFilename());
+        asset.setSizeBytes(upload.sizeBytes());
+        asset.setStatus(PhotoAsset.Status.PENDING);
+        
+        PhotoAsset savedAsset;
+        try {
+            savedAsset = photoAssetRepository.saveAndFlush(asset);
+        } catch (DataIntegrityViolationException e) {
+            // Dos subidas simultáneas de la misma foto: gana la primera
+            log.info("Foto {} registrada por otra subida concurrente", upload.contentHash());
+            return photoAssetRepository.findByContentHash(upload.contentHash())
+                    .map(concurrent -> mapToPhotoResponse(concurrent, true))
+                    .orElseThrow(() -> e);
+        }
+        
+        photoVariantWorker.submit(savedAsset.getContentHash());
+        log.info("Foto guardada con hash: {}", savedAsset.getContentHash());
+        return mapToPhotoResponse(savedAsset, false);
+    }
+    
+    @Override
+    public PhotoResponse getPhoto(String contentHash) {
+        PhotoAsset asset = photoAssetRepository.findByContentHash(contentHash)
+                .orElseThrow(() -> new RuntimeException("Foto no encontrada: " + contentHash));
+        return mapToPhotoResponse(asset, false);
+    }
+    
+    private PhotoResponse mapToPhotoResponse(PhotoAsset asset, boolean duplicate) {
+        PhotoResponse response = new PhotoResponse();
+        response.setContentHash(asset.getContentHash());
+        response.setStatus(asset.getStatus().name());
+        response.setContentType(asset.getContentType());
+        response.setOriginalFilename(asset.getOriginalFilename());
+        response.setSizeBytes(asset.getSizeBytes());
+        response.setWidth(asset.getWidth());
+        response.setHeight(asset.getHeight());
+        response.setUrls(photoUrlResolver.urlsFor(asset.getContentHash()));
+        response.setDuplicate(duplicate);
+        response.setCreatedAt(asset.getCreatedAt());
+        return response;
+    }
+}
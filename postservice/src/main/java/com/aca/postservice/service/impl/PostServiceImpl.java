@@ -1,20 +1,78 @@
 package com.aca.postservice.service.impl;
 
+import com.aca.postservice.dto.BulkCreatePostResponse;
+import com.aca.postservice.dto.BulkPostItemResult;
+import com.aca.postservice.archive.ArchivedPost;
+import com.aca.postservice.archive.PostArchive;
 import com.aca.postservice.dto.CreatePostRequest;
+import com.aca.postservice.dto.FacetedPostSearchResponse;
+import com.aca.postservice.dto.NearbyPostResponse;
+import com.aca.postservice.dto.PostBatchResponse;
+import com.aca.postservice.dto.PostFilterRequest;
 import com.aca.postservice.dto.PostResponse;
+import com.aca.postservice.dto.PostSliceResponse;
+import com.aca.postservice.dto.UpdatePostRequest;
+import com.aca.postservice.event.MutationType;
+import com.aca.postservice.event.PostActivityEvent;
 import com.aca.postservice.event.PostCreatedEvent;
+import com.aca.postservice.exception.GeoSearchTruncatedException;
+import com.aca.postservice.exception.PostVersionConflictException;
+import com.aca.postservice.exception.ShardBucketFrozenException;
+import com.aca.postservice.geo.GeoDistance;
+import com.aca.postservice.geo.GeoHash;
+import com.aca.postservice.model.AuthorActivity;
 import com.aca.postservice.model.Post;
+import com.aca.postservice.repository.AuthorActivityRepository;
+import com.aca.postservice.repository.PostBatchRepository;
+import com.aca.postservice.repository.PostLikeRepository;
 import com.aca.postservice.repository.PostRepository;
+import com.aca.postservice.repository.PostSpecifications;
+import com.aca.postservice.repository.projection.PostFacetKeyView;
+import com.aca.postservice.repository.projection.PostGeoPoint;
 import com.aca.postservice.service.EventPublisherService;
+import com.aca.postservice.service.FacetCountService;
+import com.aca.postservice.service.LikeMembershipService;
+import com.aca.postservice.service.MutationLog;
+import com.aca.postservice.service.OptimisticRetryExecutor;
+import com.aca.postservice.service.PostCache;
+import com.aca.postservice.service.PhotoUrlResolver;
+import com.aca.postservice.service.PostCountEstimator;
 import com.aca.postservice.service.PostService;
+import com.aca.postservice.service.SingleFlight;
+import com.aca.postservice.service.UserReplicaService;
+import com.aca.postservice.sharding.ShardContext;
+import com.aca.postservice.sharding.ShardTemplate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,150 +82,800 @@ import java.util.stream.Collectors;
 public class PostServiceImpl implements PostService {
     
     private final PostRepository postRepository;
+    private final PostBatchRepository postBatchRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final LikeMembershipService likeMembershipService;
     private final EventPublisherService eventPublisherService;
+    private final Validator validator;
+    private final PostCache postCache;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final FacetCountService facetCountService;
+    private final PostCountEstimator postCountEstimator;
+    private final PhotoUrlResolver photoUrlResolver;
+    private final PostArchive postArchive;
+    private final MutationLog mutationLog;
+    private final AuthorActivityRepository authorActivityRepository;
+    private final UserReplicaService userReplicaService;
+    private final ShardTemplate shardTemplate;
+    private final SingleFlight singleFlight;
+    
+    private static final Comparator<PostResponse> NEWEST_FIRST = Comparator
+            .comparing(PostResponse::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PostResponse::getId, Comparator.reverseOrder());
+    
+    // Clave del single-flight de las lecturas por ID, que se suelta al invalidar la publicación
+    private static final String POST_LOAD = "post";
+    
+    private static final Sort NEWEST_SORT = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+    
+    @Value("${app.posts.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+    
+    @Value("${app.geo.max-cells:16}")
+    private int geoMaxCells;
+    
+    @Value("${app.geo.max-candidates:5000}")
+    private int geoMaxCandidates;
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PostResponse createPost(CreatePostRequest request) {
         log.info("Creando nueva publicación: {}", request.getTitle());
         
-        Post post = new Post();
-        post.setTitle(request.getTitle());
-        post.setDescription(request.getDescription());
-        post.setLocation(request.getLocation());
-        post.setAdventureType(request.getAdventureType());
-        post.setDifficultyLevel(request.getDifficultyLevel());
-        post.setEstimatedDuration(request.getEstimatedDuration());
-        post.setUserId(request.getUserId());
-        post.setUserName(request.getUserName());
-        post.setPhotos(request.getPhotos());
+        // La réplica de usuarios está en el shard 0: se consulta antes de abrir la transacción del shard del autor
+        Post post = mapToPost(request);
+        post.setUserName(userReplicaService.resolveUserName(request.getUserId(), request.getUserName()));
         
-        Post savedPost = postRepository.save(post);
-        log.info("Publicación creada exitosamente con ID: {}", savedPost.getId());
-        
-        // Publicar evento
-        PostCreatedEvent event = new PostCreatedEvent(
-            savedPost.getId(),
-            savedPost.getTitle(),
-            savedPost.getLocation(),
-            savedPost.getAdventureType(),
-            savedPost.getUserId(),
-            savedPost.getUserName(),
-            savedPost.getPhotos(),
-            savedPost.getCreatedAt()
-        );
-        eventPublisherService.publishPostCreatedEvent(event);
+        return shardTemplate.write(shardTemplate.writableShardOfUser(request.getUserId()), () -> {
+            Post savedPost = postRepository.save(post);
+            log.info("Publicación creada exitosamente con ID: {}", savedPost.getId());
+            PostResponse response = mapToPostResponse(savedPost);
+            mutationLog.recordPostMutation(savedPost.getId(), MutationType.POST_CREATED, response);
+            
+            // Publicar evento
+            eventPublisherService.publishPostCreatedEvent(mapToPostCreatedEvent(savedPost));
+            applicationEventPublisher.publishEvent(PostActivityEvent.of(
+                    PostActivityEvent.Type.CREATED, savedPost.getId(), savedPost.getLocation(), savedPost.getAdventureType(),
+                    savedPost.getDifficultyLevel()));
+            
+            return response;
+        });
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkCreatePostResponse createPostsBulk(List<CreatePostRequest> requests) {
+        log.info("Creando {} publicaciones en bloque (tamaño de lote: {})", requests.size(), bulkChunkSize);
+        
+        BulkPostItemResult[] results = new BulkPostItemResult[requests.size()];
+        List<Integer> pendingIndexes = new ArrayList<>();
+        
+        // Validar cada elemento por separado para reportar errores por posición
+        for (int i = 0; i < requests.size(); i++) {
+            CreatePostRequest request = requests.get(i);
+            if (request == null) {
+                results[i] = BulkPostItemResult.failed(i, "La publicación es obligatoria");
+                continue;
+            }
+            Set<ConstraintViolation<CreatePostRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                String error = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                results[i] = BulkPostItemResult.failed(i, error);
+                continue;
+            }
+            pendingIndexes.add(i);
+        }
+        
+        // Cada lote se guarda en su propia transacción para no retener una transacción larga
+        // Nombres de autor de la réplica local en lugar de los del cuerpo de la petición
+        Map<Long, String> userNames = userReplicaService.findUserNames(pendingIndexes.stream()
+                .map(index -> requests.get(index).getUserId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        
+        for (int from = 0; from < pendingIndexes.size(); from += bulkChunkSize) {
+            List<Integer> chunkIndexes = pendingIndexes.subList(from, Math.min(from + bulkChunkSize, pendingIndexes.size()));
+            LocalDateTime now = LocalDateTime.now();
+            
+            // Cada shard recibe su parte del lote en su propia transacción
+            Map<Integer, List<Integer>> indexesByShard = new TreeMap<>();
+            for (Integer index : chunkIndexes) {
+                try {
+                    int shard = shardTemplate.writableShardOfUser(requests.get(index).getUserId());
+                    indexesByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(index);
+                } catch (ShardBucketFrozenException e) {
+                    results[index] = BulkPostItemResult.failed(index, e.getMessage());
+                }
+            }
+            indexesByShard.forEach((shard, shardIndexes) -> {
+                List<Post> chunk = shardIndexes.stream()
+                        .map(index -> {
+                            Post post = mapToPost(requests.get(index));
+                            post.setUserName(userNames.getOrDefault(post.getUserId(), post.getUserName()));
+                            post.setCreatedAt(now);
+                            post.setUpdatedAt(now);
+                            post.setVersion(0L);
+                            return post;
+                        })
+                        .collect(Collectors.toList());
+                saveBulkChunk(shard, shardIndexes, chunk, results);
+            });
+        }
+        
+        int created = (int) Arrays.stream(results).filter(BulkPostItemResult::isSuccess).count();
+        log.info("Carga en bloque finalizada: {} creadas, {} con error", created, requests.size() - created);
         
-        return mapToPostResponse(savedPost);
+        return new BulkCreatePostResponse(requests.size(), created, requests.size() - created, Arrays.asList(results));
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PostResponse getPostById(Long id) {
+        PostResponse cached = postCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
         log.info("Buscando publicación con ID: {}", id);
         
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Publicación no encontrada con ID: " + id));
+        // Las publicaciones archivadas ya no están en MySQL: se buscan en los segmentos del archivo
+        return coalesce(() -> {
+            long stamp = postCache.stamp(id);
+            PostResponse response = shardTemplate.read(shardTemplate.shardOfId(id),
+                            () -> postRepository.findById(id).map(this::mapToPostResponse))
+                    .or(() -> postArchive.findPost(id).map(archived -> mapToPostResponse(archived.post())))
+                    .orElseThrow(() -> new RuntimeException("Publicación no encontrada con ID: " + id));
+            postCache.putIfCurrent(id, response, stamp);
+            return response;
+        }, POST_LOAD, id);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PostBatchResponse getPostsByIds(List<Long> ids) {
+        log.info("Buscando {} publicaciones por ID", ids.size());
+        
+        // Se conserva el orden de entrada y se descartan IDs repetidos
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Long, PostResponse> found = new HashMap<>();
+        List<Long> cacheMisses = new ArrayList<>();
         
-        return mapToPostResponse(post);
+        for (Long id : uniqueIds) {
+            PostResponse cached = postCache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                cacheMisses.add(id);
+            }
+        }
+        
+        if (!cacheMisses.isEmpty()) {
+            // Por shard, una consulta IN para las publicaciones y otra (por @BatchSize) para sus fotos
+            Map<Integer, List<Long>> missesByShard = cacheMisses.stream()
+                    .collect(Collectors.groupingBy(shardTemplate::shardOfId, TreeMap::new, Collectors.toList()));
+            List<List<PostResponse>> loaded = coalesce(() -> {
+                Map<Long, Long> stamps = cacheMisses.stream().collect(Collectors.toMap(id -> id, postCache::stamp));
+                List<List<PostResponse>> shardPosts = shardTemplate.readEach(missesByShard.keySet(), shard ->
+                        postRepository.findAllById(missesByShard.get(shard)).stream()
+                                .map(this::mapToPostResponse)
+                                .toList());
+                shardPosts.forEach(posts -> posts.forEach(response ->
+                        postCache.putIfCurrent(response.getId(), response, stamps.get(response.getId()))));
+                return shardPosts;
+            }, "posts", List.copyOf(cacheMisses));
+            for (List<PostResponse> shardPosts : loaded) {
+                for (PostResponse response : shardPosts) {
+                    found.put(response.getId(), response);
+                }
+            }
+            cacheMisses.removeIf(found::containsKey);
+            if (!cacheMisses.isEmpty() && !postArchive.isEmpty()) {
+                postArchive.findPosts(cacheMisses).forEach((id, archived) -> found.put(id, mapToPostResponse(archived.post())));
+            }
+        }
+        
+        List<PostResponse> posts = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            PostResponse response = found.get(id);
+            if (response != null) {
+                posts.add(response);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        log.info("Publicaciones encontradas: {}, no encontradas: {}", posts.size(), missingIds.size());
+        
+        return new PostBatchResponse(posts, missingIds);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Page<PostResponse> getAllPosts(Pageable pageable) {
         log.info("Obteniendo todas las publicaciones con paginación");
         
-        Page<Post> posts = postRepository.findAllByOrderByCreatedAtDesc(pageable);
-        return posts.map(this::mapToPostResponse);
+        List<PostResponse> content = coalesce(() -> latestAcrossShards(pageable, postRepository::findLatest),
+                "latest", pageable.getPageNumber(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, postCountEstimator.estimateAll());
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PostSliceResponse getLatestSlice(LocalDateTime beforeCreatedAt, Long beforeId, int size) {
+        log.info("Obteniendo publicaciones anteriores a {} / {}, tamaño: {}", beforeCreatedAt, beforeId, size);
+        
+        return coalesce(() -> toSlice(latestAcrossShards(PageRequest.of(0, size + 1), page -> beforeCreatedAt == null
+                ? postRepository.findLatest(page)
+                : postRepository.findLatestBefore(beforeCreatedAt, beforeId, page)), size),
+                "latest-slice", beforeCreatedAt, beforeId, size);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PostResponse> getPostsByUserId(Long userId) {
         log.info("Obteniendo publicaciones del usuario: {}", userId);
         
-        List<Post> posts = postRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return posts.stream()
-                .map(this::mapToPostResponse)
-                .collect(Collectors.toList());
+        return coalesce(() -> loadPostsByUserId(userId), "user-posts", userId);
+    }
+    
+    private List<PostResponse> loadPostsByUserId(Long userId) {
+        List<PostResponse> responses = mergeNewestFirst(shardTemplate.readEach(shardTemplate.shardsOfUser(userId),
+                shard -> ownedResponses(shard, postRepository.findByUserIdOrderByCreatedAtDesc(userId))));
+        
+        // Las archivadas son las más antiguas: van después de las que siguen en MySQL
+        if (!postArchive.isEmpty()) {
+            Set<Long> liveIds = responses.stream().map(PostResponse::getId).collect(Collectors.toSet());
+            postArchive.findPostsByUserId(userId).stream()
+                    .map(ArchivedPost::post)
+                    .filter(post -> !liveIds.contains(post.getId()))
+                    .sorted(Comparator.comparing(Post::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                            .thenComparing(Post::getId, Comparator.reverseOrder()))
+                    .map(this::mapToPostResponse)
+                    .forEach(responses::add);
+        }
+        return responses;
     }
     
     @Override
     @Transactional(readOnly = true)
+    public AuthorActivity getAuthorActivity(Long userId) {
+        // La vista se actualiza de forma asíncrona desde post.created; sin fila, el autor no ha publicado
+        return authorActivityRepository.findById(userId)
+                .orElseGet(() -> new AuthorActivity(userId, 0L, null, null));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Page<PostResponse> searchPosts(String location, String adventureType, Pageable pageable) {
         log.info("Buscando publicaciones con ubicación: {} y tipo de aventura: {}", location, adventureType);
         
-        Page<Post> posts = postRepository.findByLocationOrAdventureType(location, adventureType, pageable);
-        return posts.map(this::mapToPostResponse);
+        List<PostResponse> content = latestAcrossShards(pageable, page -> postRepository.searchLatest(location, adventureType, page));
+        return new PageImpl<>(content, pageable, postCountEstimator.estimateSearch(location, adventureType));
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PostSliceResponse searchPostsSlice(String location, String adventureType,
+                                              LocalDateTime beforeCreatedAt, Long beforeId, int size) {
+        log.info("Buscando publicaciones con ubicación: {} y tipo de aventura: {}, anteriores a {} / {}",
+                location, adventureType, beforeCreatedAt, beforeId);
+        
+        return toSlice(latestAcrossShards(PageRequest.of(0, size + 1), page -> beforeCreatedAt == null
+                ? postRepository.searchLatest(location, adventureType, page)
+                : postRepository.searchLatestBefore(location, adventureType, beforeCreatedAt, beforeId, page)), size);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FacetedPostSearchResponse filterPosts(PostFilterRequest filter, Pageable pageable) {
+        log.info("Filtrando publicaciones: {}", filter);
+        
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_SORT);
+        Page<PostResponse> posts = pageAcrossShards(sorted, page -> postRepository.findAll(PostSpecifications.matching(filter), page));
+        
+        // Los conteos salen de la matriz en memoria cuando es posible; si no, GROUP BY sobre el resultado filtrado
+        Optional<FacetCountService.FacetCounts> precomputed = facetCountService.countsFor(filter);
+        Map<String, Long> adventureTypeCounts = precomputed
+                .map(FacetCountService.FacetCounts::adventureTypes)
+                .orElseGet(() -> FacetCountService.sortByCount(countAcrossShards(() -> postRepository.countGroupedBy(
+                        PostSpecifications.ADVENTURE_TYPE, PostSpecifications.matching(filter, PostSpecifications.ADVENTURE_TYPE)))));
+        Map<String, Long> difficultyLevelCounts = precomputed
+                .map(FacetCountService.FacetCounts::difficultyLevels)
+                .orElseGet(() -> FacetCountService.sortByCount(countAcrossShards(() -> postRepository.countGroupedBy(
+                        PostSpecifications.DIFFICULTY_LEVEL, PostSpecifications.matching(filter, PostSpecifications.DIFFICULTY_LEVEL)))));
+        
+        return new FacetedPostSearchResponse(posts, adventureTypeCounts, difficultyLevelCounts);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PostResponse> getPostsByUserIds(List<Long> userIds) {
         log.info("Obteniendo publicaciones de usuarios: {}", userIds);
         
-        List<Post> posts = postRepository.findByUserIdsOrderByCreatedAtDesc(userIds);
-        return posts.stream()
-                .map(this::mapToPostResponse)
+        Map<Integer, List<Long>> usersByShard = usersByShard(userIds);
+        return coalesce(() -> mergeNewestFirst(shardTemplate.readEach(usersByShard.keySet(),
+                shard -> ownedResponses(shard, postRepository.findByUserIdsOrderByCreatedAtDesc(usersByShard.get(shard))))),
+                "users-posts", List.copyOf(userIds));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<PostResponse> getFeedPage(List<Long> userIds, LocalDateTime beforeCreatedAt, Long beforeId, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        Map<Integer, List<Long>> usersByShard = usersByShard(userIds);
+        return coalesce(() -> {
+            List<PostResponse> posts = mergeNewestFirst(shardTemplate.readEach(usersByShard.keySet(), shard -> {
+                List<Long> shardUserIds = usersByShard.get(shard);
+                return ownedResponses(shard, beforeCreatedAt == null
+                        ? postRepository.findFeedPage(shardUserIds, pageable)
+                        : postRepository.findFeedPageBefore(shardUserIds, beforeCreatedAt, beforeId, pageable));
+            }));
+            return posts.size() > size ? new ArrayList<>(posts.subList(0, size)) : posts;
+        }, "feed-page", List.copyOf(userIds), beforeCreatedAt, beforeId, size);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<NearbyPostResponse> searchNearby(double latitude, double longitude, double radiusKm, Pageable pageable) {
+        log.info("Buscando publicaciones a {} km de ({}, {})", radiusKm, latitude, longitude);
+        
+        double radiusMeters = radiusKm * 1000;
+        double[] box = GeoDistance.boundingBox(latitude, longitude, radiusMeters);
+        List<NearbyPostResponse> candidates = findGeoCandidates(box, latitude, longitude).stream()
+                .filter(candidate -> candidate.getDistanceMeters() <= radiusMeters)
                 .collect(Collectors.toList());
+        return toNearbyPage(candidates, pageable);
     }
     
     @Override
-    public PostResponse updatePost(Long id, CreatePostRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<NearbyPostResponse> searchWithin(double minLat, double minLon, double maxLat, double maxLon, Pageable pageable) {
+        log.info("Buscando publicaciones dentro de ({}, {}) - ({}, {})", minLat, minLon, maxLat, maxLon);
+        
+        // La distancia se mide desde el centro del rectángulo; con minLon > maxLon cruza el antimeridiano
+        double centerLat = (minLat + maxLat) / 2;
+        double centerLon = GeoDistance.centerLongitude(minLon, maxLon);
+        return toNearbyPage(findGeoCandidates(new double[]{minLat, minLon, maxLat, maxLon}, centerLat, centerLon), pageable);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PostResponse updatePost(Long id, CreatePostRequest request, Long expectedVersion) {
         log.info("Actualizando publicación con ID: {}", id);
         
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Publicación no encontrada con ID: " + id));
+        PostResponse response = writeWithVersionCheck(id, expectedVersion, post -> {
+            applyIfChanged(request.getTitle(), post.getTitle(), post::setTitle);
+            applyIfChanged(request.getDescription(), post.getDescription(), post::setDescription);
+            applyIfChanged(request.getLocation(), post.getLocation(), post::setLocation);
+            applyCoordinates(post, request.getLatitude(), request.getLongitude());
+            applyIfChanged(request.getAdventureType(), post.getAdventureType(), post::setAdventureType);
+            applyIfChanged(request.getDifficultyLevel(), post.getDifficultyLevel(), post::setDifficultyLevel);
+            applyIfChanged(request.getEstimatedDuration(), post.getEstimatedDuration(), post::setEstimatedDuration);
+            applyIfChanged(request.getPhotos(), post.getPhotos(), post::setPhotos);
+        });
+        evictPost(id);
+        log.info("Publicación actualizada exitosamente");
         
-        post.setTitle(request.getTitle());
-        post.setDescription(request.getDescription());
-        post.setLocation(request.getLocation());
-        post.setAdventureType(request.getAdventureType());
-        post.setDifficultyLevel(request.getDifficultyLevel());
-        post.setEstimatedDuration(request.getEstimatedDuration());
-        post.setPhotos(request.getPhotos());
+        return response;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PostResponse patchPost(Long id, UpdatePostRequest request, Long expectedVersion) {
+        log.info("Actualizando parcialmente publicación con ID: {}", id);
         
-        Post updatedPost = postRepository.save(post);
-        log.info("Publicación actualizada exitosamente");
+        PostResponse response = writeWithVersionCheck(id, expectedVersion, post -> {
+            // Solo los campos presentes; con @DynamicUpdate el UPDATE incluye únicamente las columnas cambiadas
+            if (request.getTitle() != null) {
+                applyIfChanged(request.getTitle(), post.getTitle(), post::setTitle);
+            }
+            if (request.getDescription() != null) {
+                applyIfChanged(request.getDescription(), post.getDescription(), post::setDescription);
+            }
+            if (request.getLocation() != null) {
+                applyIfChanged(request.getLocation(), post.getLocation(), post::setLocation);
+            }
+            if (request.getLatitude() != null || request.getLongitude() != null) {
+                applyCoordinates(post,
+                        request.getLatitude() != null ? request.getLatitude() : post.getLatitude(),
+                        request.getLongitude() != null ? request.getLongitude() : post.getLongitude());
+            }
+            if (request.getAdventureType() != null) {
+                applyIfChanged(request.getAdventureType(), post.getAdventureType(), post::setAdventureType);
+            }
+            if (request.getDifficultyLevel() != null) {
+                applyIfChanged(request.getDifficultyLevel(), post.getDifficultyLevel(), post::setDifficultyLevel);
+            }
+            if (request.getEstimatedDuration() != null) {
+                applyIfChanged(request.getEstimatedDuration(), post.getEstimatedDuration(), post::setEstimatedDuration);
+            }
+            if (request.getPhotos() != null) {
+                applyIfChanged(request.getPhotos(), post.getPhotos(), post::setPhotos);
+            }
+        });
+        evictPost(id);
+        log.info("Publicación actualizada parcialmente");
         
-        return mapToPostResponse(updatedPost);
+        return response;
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deletePost(Long id) {
         log.info("Eliminando publicación con ID: {}", id);
         
-        if (!postRepository.existsById(id)) {
+        int shard = shardTemplate.writableShardOfId(id);
+        boolean live = shardTemplate.write(shard, () -> {
+            Optional<PostFacetKeyView> facetKey = postRepository.findFacetKeyById(id);
+            if (facetKey.isEmpty()) {
+                return false;
+            }
+            
+            postLikeRepository.deleteByPostId(id);
+            postRepository.deleteById(id);
+            mutationLog.recordPostMutation(id, MutationType.POST_DELETED, Map.of("postId", id));
+            applicationEventPublisher.publishEvent(PostActivityEvent.deleted(
+                    id, facetKey.get().getAdventureType(), facetKey.get().getDifficultyLevel()));
+            return true;
+        });
+        
+        // Una copia archivada (archivado en curso, o fila modificada durante el archivado) no debe reaparecer
+        boolean archived = !postArchive.isEmpty() && postArchive.findPost(id).isPresent();
+        if (!live && !archived) {
             throw new RuntimeException("Publicación no encontrada con ID: " + id);
         }
-        
-        postRepository.deleteById(id);
+        if (archived) {
+            postArchive.tombstone(List.of(id));
+        }
+        if (!live) {
+            // Las archivadas ya no cuentan en las facetas: solo se registra la mutación
+            shardTemplate.writeWithoutResult(shard, () ->
+                    mutationLog.recordPostMutation(id, MutationType.POST_DELETED, Map.of("postId", id)));
+        }
+        evictPost(id);
+        likeMembershipService.onDeleted(id);
         log.info("Publicación eliminada exitosamente");
     }
     
     @Override
-    public void likePost(Long postId) {
-        log.info("Dando like a la publicación: {}", postId);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void likePost(Long postId, Long userId) {
+        log.info("Usuario {} dando like a la publicación: {}", userId, postId);
         
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Publicación no encontrada con ID: " + postId));
+        // Repetir el like no cambia nada: el contador solo sube si se insertó la fila del registro
+        boolean added = shardTemplate.write(shardTemplate.writableShardOfId(postId), () -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (postLikeRepository.insertIfAbsent(postId, userId, now) == 0) {
+                if (!postRepository.existsById(postId)) {
+                    throw new RuntimeException("Publicación no encontrada con ID: " + postId);
+                }
+                return false;
+            }
+            if (postRepository.incrementLikes(postId, now) == 0) {
+                throw new RuntimeException("Publicación no encontrada con ID: " + postId);
+            }
+            mutationLog.recordPostMutation(postId, MutationType.POST_LIKED, Map.of("postId", postId, "userId", userId));
+            applicationEventPublisher.publishEvent(PostActivityEvent.of(PostActivityEvent.Type.LIKED, postId));
+            return true;
+        });
+        evictPost(postId);
+        if (added) {
+            likeMembershipService.onLiked(postId, userId);
+            log.info("Like agregado a la publicación: {}", postId);
+        }
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void unlikePost(Long postId, Long userId) {
+        log.info("Usuario {} quitando like de la publicación: {}", userId, postId);
         
-        post.setLikesCount(post.getLikesCount() + 1);
-        postRepository.save(post);
-        log.info("Like agregado a la publicación: {}", postId);
+        boolean removed = shardTemplate.write(shardTemplate.writableShardOfId(postId), () -> {
+            if (postLikeRepository.deleteLike(postId, userId) == 0) {
+                if (!postRepository.existsById(postId)) {
+                    throw new RuntimeException("Publicación no encontrada con ID: " + postId);
+                }
+                return false;
+            }
+            postRepository.decrementLikes(postId, LocalDateTime.now());
+            mutationLog.recordPostMutation(postId, MutationType.POST_UNLIKED, Map.of("postId", postId, "userId", userId));
+            applicationEventPublisher.publishEvent(PostActivityEvent.of(PostActivityEvent.Type.UNLIKED, postId));
+            return true;
+        });
+        evictPost(postId);
+        if (removed) {
+            likeMembershipService.onUnliked(postId, userId);
+            log.info("Like removido de la publicación: {}", postId);
+        }
     }
     
     @Override
-    public void unlikePost(Long postId) {
-        log.info("Quitando like de la publicación: {}", postId);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Set<Long> getLikedPostIds(Long userId, List<Long> postIds) {
+        return likeMembershipService.likedAmong(userId, postIds);
+    }
+    
+    /**
+     * Lee la publicación, aplica los cambios y hace flush en una transacción propia.
+     * Sin versión esperada, los conflictos de @Version se reintentan sobre el estado fresco;
+     * con versión esperada (If-Match), un conflicto se informa al cliente con 409.
+     */
+    private PostResponse writeWithVersionCheck(Long id, Long expectedVersion, Consumer<Post> changes) {
+        Supplier<PostResponse> write = () -> {
+            Post post = postRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Publicación no encontrada con ID: " + id));
+            if (expectedVersion != null && !expectedVersion.equals(post.getVersion())) {
+                throw new PostVersionConflictException(id, expectedVersion, post.getVersion());
+            }
+            String previousAdventureType = post.getAdventureType();
+            String previousDifficultyLevel = post.getDifficultyLevel();
+            changes.accept(post);
+            Post updatedPost = postRepository.saveAndFlush(post);
+            PostResponse response = mapToPostResponse(updatedPost);
+            mutationLog.recordPostMutation(id, MutationType.POST_UPDATED, response);
+            applicationEventPublisher.publishEvent(PostActivityEvent.updated(
+                    id, updatedPost.getLocation(), updatedPost.getAdventureType(), updatedPost.getDifficultyLevel(),
+                    previousAdventureType, previousDifficultyLevel));
+            return response;
+        };
+        
+        int shard = shardTemplate.writableShardOfId(id);
+        if (expectedVersion == null) {
+            return shardTemplate.onShard(shard, () -> optimisticRetryExecutor.execute(write));
+        }
+        try {
+            return shardTemplate.write(shard, write);
+        } catch (OptimisticLockingFailureException e) {
+            throw new PostVersionConflictException(id);
+        }
+    }
+    
+    /**
+     * Guarda en un shard su parte de un lote de la carga masiva y anota el resultado de cada elemento.
+     */
+    private void saveBulkChunk(int shard, List<Integer> chunkIndexes, List<Post> chunk, BulkPostItemResult[] results) {
+        try {
+            shardTemplate.writeWithoutResult(shard, () -> {
+                postBatchRepository.insertAll(chunk);
+                chunk.forEach(post -> mutationLog.recordPostMutation(
+                        post.getId(), MutationType.POST_CREATED, mapToPostResponse(post)));
+            });
+        } catch (Exception e) {
+            log.error("Error al guardar lote de {} publicaciones: {}", chunk.size(), e.getMessage(), e);
+            for (Integer index : chunkIndexes) {
+                results[index] = BulkPostItemResult.failed(index, "Error al guardar la publicación: " + e.getMessage());
+            }
+            return;
+        }
         
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Publicación no encontrada con ID: " + postId));
+        for (int i = 0; i < chunk.size(); i++) {
+            results[chunkIndexes.get(i)] = BulkPostItemResult.created(chunkIndexes.get(i), mapToPostResponse(chunk.get(i)));
+        }
+        eventPublisherService.publishPostCreatedEvents(chunk.stream()
+                .map(this::mapToPostCreatedEvent)
+                .collect(Collectors.toList()));
+        chunk.forEach(post -> applicationEventPublisher.publishEvent(PostActivityEvent.of(
+                PostActivityEvent.Type.CREATED, post.getId(), post.getLocation(), post.getAdventureType(),
+                post.getDifficultyLevel())));
+    }
+    
+    /**
+     * Página de más reciente a más antigua sobre todos los shards. Cada shard devuelve sus primeras
+     * (página + 1) * tamaño filas y la mezcla se queda con la página pedida; los totales se suman.
+     * Con un único shard la consulta se ejecuta tal cual, con la paginación recibida.
+     */
+    private Page<PostResponse> pageAcrossShards(Pageable pageable, Function<Pageable, Page<Post>> query) {
+        if (!shardTemplate.isSharded()) {
+            return shardTemplate.read(ShardContext.CATALOG, () -> query.apply(pageable).map(this::mapToPostResponse));
+        }
         
-        if (post.getLikesCount() > 0) {
-            post.setLikesCount(post.getLikesCount() - 1);
-            postRepository.save(post);
-            log.info("Like removido de la publicación: {}", postId);
+        Pageable top = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), NEWEST_SORT);
+        List<Page<PostResponse>> pages = shardTemplate.readAll(shard -> {
+            Page<Post> page = query.apply(top);
+            return new PageImpl<>(ownedResponses(shard, page.getContent()), top, page.getTotalElements());
+        });
+        List<PostResponse> content = pages.stream()
+                .flatMap(page -> page.getContent().stream())
+                .sorted(NEWEST_FIRST)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, pages.stream().mapToLong(Page::getTotalElements).sum());
+    }
+    
+    /**
+     * Como {@link #pageAcrossShards} pero sin total: la consulta ya ordena de más reciente a más antigua.
+     */
+    private List<PostResponse> latestAcrossShards(Pageable pageable, Function<Pageable, List<Post>> query) {
+        if (!shardTemplate.isSharded()) {
+            return shardTemplate.read(ShardContext.CATALOG, () -> query.apply(pageable).stream()
+                    .map(this::mapToPostResponse)
+                    .collect(Collectors.toList()));
+        }
+        
+        Pageable top = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize());
+        return shardTemplate.readAll(shard -> ownedResponses(shard, query.apply(top))).stream()
+                .flatMap(List::stream)
+                .sorted(NEWEST_FIRST)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Recorta a {@code size} un resultado pedido con una fila de más, que solo indica si hay siguiente página.
+     */
+    private static PostSliceResponse toSlice(List<PostResponse> posts, int size) {
+        if (posts.size() <= size) {
+            return new PostSliceResponse(posts, false, null, null);
         }
+        List<PostResponse> page = new ArrayList<>(posts.subList(0, size));
+        PostResponse last = page.get(page.size() - 1);
+        return new PostSliceResponse(page, true, last.getCreatedAt(), last.getId());
+    }
+    
+    /**
+     * Invalida la publicación en caché tras un cambio confirmado. Primero se suelta la carga en curso,
+     * para que nadie se una después a una lectura anterior al cambio.
+     */
+    private void evictPost(Long id) {
+        singleFlight.forget(Arrays.asList(POST_LOAD, id));
+        postCache.evict(id);
+    }
+    
+    /**
+     * Lectura unida con las idénticas que estén en curso; la clave son la operación y sus argumentos.
+     */
+    private <T> T coalesce(Supplier<T> loader, Object... key) {
+        return singleFlight.execute(Arrays.asList(key), loader);
+    }
+    
+    private Map<String, Long> countAcrossShards(Supplier<Map<String, Long>> query) {
+        Map<String, Long> counts = new HashMap<>();
+        shardTemplate.readAll(shard -> query.get())
+                .forEach(shardCounts -> shardCounts.forEach((key, count) -> counts.merge(key, count, Long::sum)));
+        return counts;
+    }
+    
+    /**
+     * Agrupa los usuarios por los shards que pueden tener publicaciones suyas.
+     */
+    private Map<Integer, List<Long>> usersByShard(List<Long> userIds) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long userId : userIds) {
+            for (Integer shard : shardTemplate.shardsOfUser(userId)) {
+                byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(userId);
+            }
+        }
+        return byShard;
+    }
+    
+    /**
+     * Mapea las publicaciones leídas de un shard descartando las copias de las que no es dueño
+     * (un bucket a medio mover está en dos shards).
+     */
+    private List<PostResponse> ownedResponses(int shard, List<Post> posts) {
+        return posts.stream()
+                .filter(post -> shardTemplate.owns(shard, post.getId()))
+                .map(this::mapToPostResponse)
+                .toList();
+    }
+    
+    private static List<PostResponse> mergeNewestFirst(List<List<PostResponse>> lists) {
+        if (lists.size() == 1) {
+            return new ArrayList<>(lists.get(0));
+        }
+        return lists.stream()
+                .flatMap(List::stream)
+                .sorted(NEWEST_FIRST)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Lee del índice geohash de cada shard las publicaciones del rectángulo y calcula su distancia al punto de referencia.
+     * Un rectángulo que cruza el antimeridiano se consulta como dos. Si un shard tiene más de
+     * {@code app.geo.max-candidates} publicaciones en el área se rechaza la búsqueda: con la lectura
+     * cortada se perderían justo las más cercanas y el total sería falso.
+     */
+    private List<NearbyPostResponse> findGeoCandidates(double[] box, double latitude, double longitude) {
+        List<PostGeoPoint> points = new ArrayList<>();
+        for (double[] part : GeoDistance.splitAtAntimeridian(box)) {
+            List<String> prefixes = GeoHash.cover(part[0], part[1], part[2], part[3], geoMaxCells);
+            shardTemplate.readAll(shard -> {
+                // Una fila de más basta para saber si la lectura quedaría cortada
+                List<PostGeoPoint> shardPoints = postRepository.findGeoPoints(prefixes, part[0], part[1], part[2], part[3], geoMaxCandidates + 1);
+                if (shardPoints.size() > geoMaxCandidates) {
+                    log.warn("Búsqueda geográfica rechazada: más de {} candidatas en el shard {}", geoMaxCandidates, shard);
+                    throw new GeoSearchTruncatedException(geoMaxCandidates);
+                }
+                return shardPoints.stream().filter(point -> shardTemplate.owns(shard, point.getId())).toList();
+            }).forEach(points::addAll);
+        }
+        return points.stream()
+                .map(point -> {
+                    NearbyPostResponse candidate = new NearbyPostResponse();
+                    candidate.setPost(new PostResponse());
+                    candidate.getPost().setId(point.getId());
+                    candidate.setDistanceMeters(GeoDistance.meters(latitude, longitude, point.getLatitude(), point.getLongitude()));
+                    return candidate;
+                })
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Ordena por distancia y carga solo las publicaciones de la página pedida.
+     */
+    private Page<NearbyPostResponse> toNearbyPage(List<NearbyPostResponse> candidates, Pageable pageable) {
+        candidates.sort(Comparator.comparingDouble(NearbyPostResponse::getDistanceMeters)
+                .thenComparing(candidate -> candidate.getPost().getId(), Comparator.reverseOrder()));
+        
+        int from = (int) Math.min(pageable.getOffset(), candidates.size());
+        int to = Math.min(from + pageable.getPageSize(), candidates.size());
+        List<NearbyPostResponse> page = candidates.subList(from, to);
+        
+        Map<Long, PostResponse> posts = getPostsByIds(page.stream()
+                        .map(candidate -> candidate.getPost().getId())
+                        .collect(Collectors.toList()))
+                .getPosts().stream()
+                .collect(Collectors.toMap(PostResponse::getId, post -> post));
+        List<NearbyPostResponse> content = page.stream()
+                .filter(candidate -> posts.containsKey(candidate.getPost().getId()))
+                .map(candidate -> new NearbyPostResponse(posts.get(candidate.getPost().getId()), candidate.getDistanceMeters()))
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, candidates.size());
+    }
+    
+    private static void applyCoordinates(Post post, Double latitude, Double longitude) {
+        applyIfChanged(latitude, post.getLatitude(), post::setLatitude);
+        applyIfChanged(longitude, post.getLongitude(), post::setLongitude);
+        applyIfChanged(geohashOf(latitude, longitude), post.getGeohash(), post::setGeohash);
+    }
+    
+    private static String geohashOf(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return GeoHash.encode(latitude, longitude, GeoHash.MAX_PRECISION);
+    }
+    
+    private static <T> void applyIfChanged(T newValue, T currentValue, Consumer<T> setter) {
+        if (!Objects.equals(newValue, currentValue)) {
+            setter.accept(newValue);
+        }
+    }
+    
+    private Post mapToPost(CreatePostRequest request) {
+        Post post = new Post();
+        post.setTitle(request.getTitle());
+        post.setDescription(request.getDescription());
+        post.setLocation(request.getLocation());
+        post.setLatitude(request.getLatitude());
+        post.setLongitude(request.getLongitude());
+        post.setGeohash(geohashOf(request.getLatitude(), request.getLongitude()));
+        post.setAdventureType(request.getAdventureType());
+        post.setDifficultyLevel(request.getDifficultyLevel());
+        post.setEstimatedDuration(request.getEstimatedDuration());
+        post.setUserId(request.getUserId());
+        post.setUserName(request.getUserName());
+        post.setPhotos(request.getPhotos());
+        return post;
+    }
+    
+    private PostCreatedEvent mapToPostCreatedEvent(Post post) {
+        return new PostCreatedEvent(
+            "post.created:" + post.getId(),
+            post.getId(),
+            post.getTitle(),
+            post.getLocation(),
+            post.getAdventureType(),
+            post.getUserId(),
+            post.getUserName(),
+            post.getPhotos(),
+            post.getCreatedAt()
+        );
     }
     
     private PostResponse mapToPostResponse(Post post) {
@@ -176,16 +884,24 @@ public class PostServiceImpl implements PostService {
         response.setTitle(post.getTitle());
         response.setDescription(post.getDescription());
         response.setLocation(post.getLocation());
+        response.setLatitude(post.getLatitude());
+        response.setLongitude(post.getLongitude());
         response.setAdventureType(post.getAdventureType());
         response.setDifficultyLevel(post.getDifficultyLevel());
         response.setEstimatedDuration(post.getEstimatedDuration());
         response.setUserId(post.getUserId());
         response.setUserName(post.getUserName());
         response.setPhotos(post.getPhotos());
+        if (post.getPhotos() != null) {
+            response.setPhotoVariants(post.getPhotos().stream()
+                    .map(photoUrlResolver::resolve)
+                    .collect(Collectors.toList()));
+        }
         response.setLikesCount(post.getLikesCount());
         response.setCommentsCount(post.getCommentsCount());
         response.setCreatedAt(post.getCreatedAt());
         response.setUpdatedAt(post.getUpdatedAt());
+        response.setVersion(post.getVersion());
         return response;
     }
 }
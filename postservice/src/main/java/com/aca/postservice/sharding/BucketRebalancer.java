@@ -0,0 +1,262 @@
+package com.aca.postservice.sharding;
+
+import com.aca.postservice.config.ShardingProperties;
+import com.aca.postservice.dto.BucketMoveResponse;
+import com.aca.postservice.model.ShardBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Mueve un bucket (y con él a sus usuarios) de un shard a otro sin parar el servicio.
+ *
+ * <ol>
+ *   <li>Copia en caliente: el bucket pasa a MOVING, sigue admitiendo escrituras y sus filas se
+ *   copian al destino comparando (id, versión) en ambos lados.</li>
+ *   <li>Congelado: el bucket pasa a FROZEN y sus escrituras responden 503. Tras esperar a que todas
+ *   las instancias vean el cambio y a que el relay publique las mutaciones pendientes del bucket,
+ *   una segunda comparación copia solo lo que cambió durante la copia en caliente.</li>
+ *   <li>Reasignación: el directorio apunta al destino y el bucket vuelve a WRITABLE.</li>
+ *   <li>Limpieza: tras otra espera, se borran las filas del origen.</li>
+ * </ol>
+ *
+ * <p>Mientras ambos shards tienen copia, las consultas repartidas descartan las filas de un shard
+ * que no es el dueño del bucket (ver {@link ShardTemplate#owns(int, Long)}).</p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class BucketRebalancer {
+    
+    private final ShardRoutingDataSource shardRoutingDataSource;
+    private final ShardDirectory directory;
+    private final ShardingProperties properties;
+    
+    private final AtomicBoolean moving = new AtomicBoolean();
+    
+    public BucketMoveResponse moveBucket(int bucket, int targetShard) {
+        if (bucket < 0 || bucket >= ShardKeys.BUCKETS) {
+            throw new IllegalArgumentException("Bucket fuera de rango: " + bucket);
+        }
+        if (targetShard < 0 || targetShard >= shardRoutingDataSource.getShardCount()) {
+            throw new IllegalArgumentException("Shard no configurado: " + targetShard);
+        }
+        int sourceShard = directory.shardOf(bucket);
+        if (sourceShard == targetShard) {
+            throw new IllegalArgumentException("El bucket " + bucket + " ya está en el shard " + targetShard);
+        }
+        if (!moving.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay un movimiento de bucket en curso");
+        }
+        try {
+            if (!directory.transition(bucket, ShardBucket.State.WRITABLE, ShardBucket.State.MOVING)) {
+                throw new IllegalStateException("El bucket " + bucket + " ya se está moviendo");
+            }
+            log.info("Moviendo bucket {} del shard {} al shard {}", bucket, sourceShard, targetShard);
+            JdbcTemplate source = new JdbcTemplate(shardRoutingDataSource.getShard(sourceShard));
+            JdbcTemplate target = new JdbcTemplate(shardRoutingDataSource.getShard(targetShard));
+            long fromId = ShardKeys.firstId(bucket);
+            long toId = ShardKeys.firstId(bucket + 1);
+            
+            SyncStats hot;
+            try {
+                hot = sync(source, target, fromId, toId);
+            } catch (RuntimeException e) {
+                directory.transition(bucket, ShardBucket.State.MOVING, ShardBucket.State.WRITABLE);
+                throw e;
+            }
+            log.info("Bucket {}: copia en caliente terminada ({} publicaciones, {} comentarios)",
+                    bucket, hot.posts(), hot.comments());
+            
+            directory.transition(bucket, ShardBucket.State.MOVING, ShardBucket.State.FROZEN);
+            SyncStats frozen;
+            try {
+                pause(properties.getRebalance().getFreezeGrace());
+                awaitOutboxDrained(source, fromId, toId);
+                frozen = sync(source, target, fromId, toId);
+                copySequences(source, target, fromId, toId);
+                directory.reassign(bucket, targetShard);
+            } catch (RuntimeException e) {
+                directory.transition(bucket, ShardBucket.State.FROZEN, ShardBucket.State.WRITABLE);
+                throw e;
+            }
+            log.info("Bucket {} reasignado al shard {} ({} publicaciones y {} comentarios en la pasada final)",
+                    bucket, targetShard, frozen.posts(), frozen.comments());
+            
+            // Las instancias con el directorio anterior pueden leer del origen hasta su próximo refresco
+            pause(properties.getRebalance().getFreezeGrace());
+            long deleted = deleteRange(source, fromId, toId);
+            log.info("Bucket {}: {} filas borradas del shard {}", bucket, deleted, sourceShard);
+            
+            return new BucketMoveResponse(bucket, sourceShard, targetShard,
+                    hot.posts() + frozen.posts(), hot.comments() + frozen.comments(), deleted);
+        } finally {
+            moving.set(false);
+        }
+    }
+    
+    /**
+     * Deja en el destino las mismas publicaciones (por versión) y comentarios que en el origen.
+     * Un like cambia la versión de la publicación, así que sus likes viajan con ella.
+     */
+    private SyncStats sync(JdbcTemplate source, JdbcTemplate target, long fromId, long toId) {
+        String versionsSql = "SELECT id, version FROM posts WHERE id >= ? AND id < ?";
+        Map<Long, Long> sourcePosts = versions(source, versionsSql, fromId, toId);
+        Map<Long, Long> targetPosts = versions(target, versionsSql, fromId, toId);
+        List<Long> changedPosts = sourcePosts.entrySet().stream()
+                .filter(entry -> !Objects.equals(entry.getValue(), targetPosts.get(entry.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        List<Long> removedPosts = targetPosts.keySet().stream()
+                .filter(id -> !sourcePosts.containsKey(id))
+                .collect(Collectors.toList());
+        
+        // Los comentarios no se editan: basta con comparar IDs
+        Set<Long> sourceComments = new HashSet<>(source.queryForList(
+                "SELECT id FROM comments WHERE id >= ? AND id < ?", Long.class, fromId, toId));
+        Set<Long> targetComments = new HashSet<>(target.queryForList(
+                "SELECT id FROM comments WHERE id >= ? AND id < ?", Long.class, fromId, toId));
+        List<Long> newComments = sourceComments.stream().filter(id -> !targetComments.contains(id)).toList();
+        List<Long> removedComments = targetComments.stream().filter(id -> !sourceComments.contains(id)).toList();
+        
+        for (List<Long> chunk : chunks(changedPosts)) {
+            copyRows(source, target, "posts", "id", chunk);
+            target.update("DELETE FROM post_photos WHERE post_id IN (" + placeholders(chunk) + ")", chunk.toArray());
+            copyRows(source, target, "post_photos", "post_id", chunk);
+            target.update("DELETE FROM post_likes WHERE post_id IN (" + placeholders(chunk) + ")", chunk.toArray());
+            copyRows(source, target, "post_likes", "post_id", chunk);
+        }
+        for (List<Long> chunk : chunks(newComments)) {
+            copyRows(source, target, "comments", "id", chunk);
+        }
+        for (List<Long> chunk : chunks(removedComments)) {
+            target.update("DELETE FROM comments WHERE id IN (" + placeholders(chunk) + ")", chunk.toArray());
+        }
+        for (List<Long> chunk : chunks(removedPosts)) {
+            target.update("DELETE FROM post_likes WHERE post_id IN (" + placeholders(chunk) + ")", chunk.toArray());
+            target.update("DELETE FROM post_photos WHERE post_id IN (" + placeholders(chunk) + ")", chunk.toArray());
+            target.update("DELETE FROM posts WHERE id IN (" + placeholders(chunk) + ")", chunk.toArray());
+        }
+        return new SyncStats(changedPosts.size() + removedPosts.size(), newComments.size() + removedComments.size());
+    }
+    
+    /**
+     * Copia con upsert las filas cuya columna clave está en la lista, sea cual sea el esquema de la tabla.
+     */
+    private static void copyRows(JdbcTemplate source, JdbcTemplate target, String table, String keyColumn, List<Long> keys) {
+        List<Map<String, Object>> rows = source.queryForList(
+                "SELECT * FROM " + table + " WHERE " + keyColumn + " IN (" + placeholders(keys) + ")", keys.toArray());
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + placeholders(columns) + ") ON DUPLICATE KEY UPDATE "
+                + columns.stream().map(column -> column + " = VALUES(" + column + ")").collect(Collectors.joining(", "));
+        List<Object[]> values = rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .toList();
+        target.batchUpdate(sql, values);
+    }
+    
+    private void awaitOutboxDrained(JdbcTemplate source, long fromId, long toId) {
+        long deadline = System.currentTimeMillis() + properties.getRebalance().getOutboxDrainTimeout().toMillis();
+        while (true) {
+            Long pending = source.queryForObject("SELECT COUNT(*) FROM mutation_outbox WHERE published_at IS NULL " +
+                    "AND aggregate_type = 'post' AND aggregate_id >= ? AND aggregate_id < ?", Long.class, fromId, toId);
+            if (pending == null || pending == 0) {
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("El relay no publicó las " + pending + " mutaciones pendientes del bucket");
+            }
+            pause(Duration.ofMillis(200));
+        }
+    }
+    
+    /**
+     * Las secuencias por publicación siguen en el destino donde las dejó el origen.
+     */
+    private void copySequences(JdbcTemplate source, JdbcTemplate target, long fromId, long toId) {
+        List<Object[]> rows = source.query("SELECT aggregate_type, aggregate_id, last_sequence FROM aggregate_sequences " +
+                        "WHERE aggregate_type = 'post' AND aggregate_id >= ? AND aggregate_id < ?",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2), rs.getLong(3)}, fromId, toId);
+        for (int from = 0; from < rows.size(); from += chunkSize()) {
+            target.batchUpdate("INSERT INTO aggregate_sequences (aggregate_type, aggregate_id, last_sequence) VALUES (?, ?, ?) " +
+                            "ON DUPLICATE KEY UPDATE last_sequence = GREATEST(last_sequence, VALUES(last_sequence))",
+                    rows.subList(from, Math.min(from + chunkSize(), rows.size())));
+        }
+    }
+    
+    private long deleteRange(JdbcTemplate source, long fromId, long toId) {
+        long deleted = 0;
+        deleted += deleteInChunks(source, "DELETE FROM comments WHERE id >= ? AND id < ?", fromId, toId);
+        deleted += deleteInChunks(source, "DELETE FROM post_likes WHERE post_id >= ? AND post_id < ?", fromId, toId);
+        deleted += deleteInChunks(source, "DELETE FROM post_photos WHERE post_id >= ? AND post_id < ?", fromId, toId);
+        deleted += deleteInChunks(source, "DELETE FROM posts WHERE id >= ? AND id < ?", fromId, toId);
+        deleted += deleteInChunks(source, "DELETE FROM aggregate_sequences WHERE aggregate_type = 'post' " +
+                "AND aggregate_id >= ? AND aggregate_id < ?", fromId, toId);
+        return deleted;
+    }
+    
+    private long deleteInChunks(JdbcTemplate jdbcTemplate, String sql, long fromId, long toId) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql + " LIMIT " + chunkSize(), fromId, toId);
+            total += deleted;
+        } while (deleted == chunkSize());
+        return total;
+    }
+    
+    private static Map<Long, Long> versions(JdbcTemplate jdbcTemplate, String sql, long fromId, long toId) {
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            versions.put(rs.getLong(1), rs.getLong(2));
+        }, fromId, toId);
+        return versions;
+    }
+    
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize()) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize(), ids.size())));
+        }
+        return chunks;
+    }
+    
+    private int chunkSize() {
+        return properties.getRebalance().getChunkSize();
+    }
+    
+    private static String placeholders(List<?> values) {
+        return String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+    
+    private static void pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Movimiento de bucket interrumpido", e);
+        }
+    }
+    
+    private record SyncStats(long posts, long comments) {
+    }
+}
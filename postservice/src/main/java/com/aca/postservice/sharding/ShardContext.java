@@ -0,0 +1,44 @@
+package com.aca.postservice.sharding;
+
+/**
+ * Shard al que van las conexiones pedidas por el hilo actual. Sin contexto se usa el shard 0,
+ * que también guarda las tablas globales.
+ *
+ * <p>El contexto debe fijarse antes de la primera sentencia de la transacción: la conexión se
+ * elige una sola vez y una transacción nunca abarca dos shards.</p>
+ */
+public final class ShardContext {
+    
+    public static final int CATALOG = 0;
+    
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    
+    private ShardContext() {
+    }
+    
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : CATALOG;
+    }
+    
+    /**
+     * Fija el shard hasta cerrar el ámbito devuelto, que restaura el anterior.
+     */
+    public static Scope open(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+    
+    public interface Scope extends AutoCloseable {
+        
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,153 @@
+package com.aca.postservice.sharding;
+
+import com.aca.postservice.config.ShardingProperties;
+import com.aca.postservice.model.ShardBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copia en memoria del directorio bucket -> shard ({@code shard_buckets} en el shard 0).
+ *
+ * <p>Sin particionado todos los buckets están en el shard 0 y la tabla no se lee. La primera
+ * instancia que arranca con particionado llena el directorio: si el shard 0 no tiene publicaciones
+ * reparte los buckets entre todos los shards; si ya tiene datos deja todo en el shard 0 y los
+ * buckets se mueven después con {@link BucketRebalancer}, sin parar el servicio.</p>
+ */
+@Component
+@Slf4j
+public class ShardDirectory implements SmartInitializingSingleton {
+    
+    private final boolean enabled;
+    private final int shardCount;
+    private final JdbcTemplate catalog;
+    
+    private volatile int[] shards = new int[ShardKeys.BUCKETS];
+    private volatile ShardBucket.State[] states = filled(ShardBucket.State.WRITABLE);
+    
+    public ShardDirectory(ShardingProperties properties, ObjectProvider<ShardRoutingDataSource> shardRouting) {
+        ShardRoutingDataSource routing = shardRouting.getIfAvailable();
+        this.enabled = properties.isEnabled() && routing != null;
+        this.shardCount = routing != null ? routing.getShardCount() : 1;
+        this.catalog = routing != null ? new JdbcTemplate(routing.getShard(ShardContext.CATALOG)) : null;
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        seedIfEmpty();
+        load();
+        log.info("Directorio de shards cargado: {} buckets en {} shards", ShardKeys.BUCKETS, shardCount);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public int getShardCount() {
+        return shardCount;
+    }
+    
+    public int shardOf(int bucket) {
+        return shards[bucket];
+    }
+    
+    public ShardBucket.State stateOf(int bucket) {
+        return states[bucket];
+    }
+    
+    /**
+     * Buckets asignados a un shard, para la consola de administración.
+     */
+    public List<Integer> bucketsOf(int shard) {
+        List<Integer> buckets = new ArrayList<>();
+        int[] current = shards;
+        for (int bucket = 0; bucket < current.length; bucket++) {
+            if (current[bucket] == shard) {
+                buckets.add(bucket);
+            }
+        }
+        return buckets;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.sharding.directory-refresh-interval:PT2S}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            load();
+        } catch (Exception e) {
+            // Se conserva el último directorio conocido
+            log.error("Error al refrescar el directorio de shards: {}", e.getMessage(), e);
+        }
+    }
+    
+    private void load() {
+        int[] freshShards = new int[ShardKeys.BUCKETS];
+        ShardBucket.State[] freshStates = filled(ShardBucket.State.WRITABLE);
+        catalog.query("SELECT bucket, shard, state FROM shard_buckets", rs -> {
+            int bucket = rs.getInt("bucket");
+            int shard = rs.getInt("shard");
+            if (shard >= shardCount) {
+                throw new IllegalStateException("El bucket " + bucket + " apunta al shard " + shard
+                        + ", que no está configurado");
+            }
+            freshShards[bucket] = shard;
+            freshStates[bucket] = ShardBucket.State.valueOf(rs.getString("state"));
+        });
+        shards = freshShards;
+        states = freshStates;
+    }
+    
+    /**
+     * Cambia el estado de un bucket solo si sigue en el estado esperado; devuelve si lo cambió.
+     */
+    boolean transition(int bucket, ShardBucket.State from, ShardBucket.State to) {
+        int updated = catalog.update("UPDATE shard_buckets SET state = ?, updated_at = ? WHERE bucket = ? AND state = ?",
+                to.name(), Timestamp.valueOf(LocalDateTime.now()), bucket, from.name());
+        load();
+        return updated == 1;
+    }
+    
+    void reassign(int bucket, int shard) {
+        catalog.update("UPDATE shard_buckets SET shard = ?, state = ?, updated_at = ? WHERE bucket = ?",
+                shard, ShardBucket.State.WRITABLE.name(), Timestamp.valueOf(LocalDateTime.now()), bucket);
+        load();
+    }
+    
+    private void seedIfEmpty() {
+        Integer rows = catalog.queryForObject("SELECT COUNT(*) FROM shard_buckets", Integer.class);
+        if (rows != null && rows == ShardKeys.BUCKETS) {
+            return;
+        }
+        boolean fresh = !Boolean.TRUE.equals(catalog.queryForObject("SELECT EXISTS (SELECT 1 FROM posts)", Boolean.class));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> assignments = new ArrayList<>(ShardKeys.BUCKETS);
+        for (int bucket = 0; bucket < ShardKeys.BUCKETS; bucket++) {
+            assignments.add(new Object[]{bucket, fresh ? bucket % shardCount : ShardContext.CATALOG,
+                    ShardBucket.State.WRITABLE.name(), now});
+        }
+        // INSERT IGNORE: si otra instancia llenó el directorio a la vez, gana la primera
+        catalog.batchUpdate("INSERT IGNORE INTO shard_buckets (bucket, shard, state, updated_at) VALUES (?, ?, ?, ?)",
+                assignments);
+        log.info("Directorio de shards inicializado ({})", fresh ? "buckets repartidos" : "todo en el shard 0");
+    }
+    
+    private static ShardBucket.State[] filled(ShardBucket.State state) {
+        ShardBucket.State[] values = new ShardBucket.State[ShardKeys.BUCKETS];
+        Arrays.fill(values, state);
+        return values;
+    }
+}
@@ -0,0 +1,129 @@
+package com.aca.postservice.sharding;
+
+import com.aca.postservice.config.ShardingProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Genera IDs globalmente únicos que codifican el bucket (ver {@link ShardKeys}).
+ *
+ * <p>La secuencia es global y se reserva por bloques en la tabla {@code id_sequences} del shard 0,
+ * con una conexión propia en autocommit: la reserva no forma parte de la transacción que inserta,
+ * así que un rollback solo deja huecos. La primera reserva de cada secuencia la inicializa por
+ * encima del mayor ID existente, para no chocar con los IDs autoincrementales anteriores.</p>
+ */
+@Component
+@Slf4j
+public class ShardIdAllocator {
+    
+    public static final String POSTS = "posts";
+    public static final String COMMENTS = "comments";
+    
+    private static volatile ShardIdAllocator instance;
+    
+    // LAST_INSERT_ID(expr) deja el nuevo valor en la misma conexión sin otra lectura
+    private static final String RESERVE_SQL =
+            "UPDATE id_sequences SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?";
+    
+    private final DataSource dataSource;
+    private final int blockSize;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    
+    public ShardIdAllocator(DataSource dataSource, ObjectProvider<ShardRoutingDataSource> shardRouting,
+                            ShardingProperties properties) {
+        // Con particionado la tabla de secuencias está en el shard 0, sea cual sea el contexto del hilo
+        ShardRoutingDataSource routing = shardRouting.getIfAvailable();
+        this.dataSource = routing != null ? routing.getShard(ShardContext.CATALOG) : dataSource;
+        this.blockSize = properties.getIdBlockSize();
+    }
+    
+    @PostConstruct
+    void register() {
+        instance = this;
+    }
+    
+    /**
+     * Instancia para el generador de Hibernate, que no se crea como bean de Spring.
+     */
+    static ShardIdAllocator get() {
+        if (instance == null) {
+            throw new IllegalStateException("El generador de IDs todavía no está inicializado");
+        }
+        return instance;
+    }
+    
+    public long nextId(String sequence, int bucket) {
+        return ShardKeys.compose(bucket, blocks.computeIfAbsent(sequence, Block::new).next());
+    }
+    
+    private long[] reserve(String sequence) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            long end = update(connection, sequence);
+            if (end < 0) {
+                seed(connection, sequence);
+                end = update(connection, sequence);
+            }
+            log.debug("Reservado bloque de IDs para {}: [{}, {})", sequence, end - blockSize, end);
+            return new long[]{end - blockSize, end};
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo reservar un bloque de IDs para " + sequence, e);
+        }
+    }
+    
+    private long update(Connection connection, String sequence) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(RESERVE_SQL)) {
+            update.setInt(1, blockSize);
+            update.setString(2, sequence);
+            if (update.executeUpdate() == 0) {
+                return -1;
+            }
+        }
+        try (PreparedStatement select = connection.prepareStatement("SELECT LAST_INSERT_ID()");
+             ResultSet rs = select.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+    
+    private void seed(Connection connection, String sequence) throws SQLException {
+        // La máscara descarta el bucket: cuenta la secuencia de los IDs ya particionados
+        String sql = "INSERT IGNORE INTO id_sequences (name, next_value) " +
+                "SELECT ?, COALESCE(MAX(id & " + ShardKeys.MAX_SEQUENCE + "), 0) + 1 FROM " + sequence;
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            insert.setString(1, sequence);
+            insert.executeUpdate();
+        }
+        log.info("Secuencia de IDs {} inicializada", sequence);
+    }
+    
+    private final class Block {
+        
+        private final String sequence;
+        private long next;
+        private long end;
+        
+        private Block(String sequence) {
+            this.sequence = sequence;
+        }
+        
+        synchronized long next() {
+            if (next >= end) {
+                long[] range = reserve(sequence);
+                next = range[0];
+                end = range[1];
+            }
+            return next++;
+        }
+    }
+}
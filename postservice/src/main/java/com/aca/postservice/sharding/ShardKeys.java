@@ -0,0 +1,50 @@
+package com.aca.postservice.sharding;
+
+/**
+ * Aritmética de buckets e IDs.
+ *
+ * <p>Los usuarios se reparten en {@link #BUCKETS} buckets lógicos fijos y el directorio asigna
+ * cada bucket a un shard físico; mover usuarios de shard es mover buckets, sin cambiar IDs.
+ * Un ID es {@code bucket << 43 | secuencia}: cabe en 53 bits (seguro como número en JavaScript)
+ * y el bucket se recupera del propio ID sin consultar nada. Los IDs anteriores al particionado
+ * son menores que 2^43, así que pertenecen al bucket 0.</p>
+ */
+public final class ShardKeys {
+    
+    public static final int BUCKETS = 1024;
+    
+    static final int SEQUENCE_BITS = 43;
+    
+    public static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    
+    private ShardKeys() {
+    }
+    
+    /**
+     * Bucket de las publicaciones de un usuario (hash de Fibonacci: los 10 bits altos).
+     */
+    public static int bucketOfUser(long userId) {
+        return (int) ((userId * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - 10));
+    }
+    
+    /**
+     * Bucket codificado en un ID de publicación o de comentario.
+     */
+    public static int bucketOfId(long id) {
+        return (int) (id >>> SEQUENCE_BITS);
+    }
+    
+    public static long compose(int bucket, long sequence) {
+        if (sequence < 1 || sequence > MAX_SEQUENCE) {
+            throw new IllegalStateException("Secuencia de ID fuera de rango: " + sequence);
+        }
+        return ((long) bucket << SEQUENCE_BITS) | sequence;
+    }
+    
+    /**
+     * Primer ID del bucket; los IDs del bucket son [firstId(b), firstId(b + 1)).
+     */
+    public static long firstId(int bucket) {
+        return (long) bucket << SEQUENCE_BITS;
+    }
+}
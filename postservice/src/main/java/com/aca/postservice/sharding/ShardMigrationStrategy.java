@@ -0,0 +1,44 @@
+package com.aca.postservice.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aplica las migraciones de Flyway en todos los shards, no solo en el shard 0: cada shard tiene su
+ * propia tabla de historial y recibe las mismas migraciones ({@code spring.flyway.*}), así que un
+ * cambio de esquema posterior llega a todos. Las tablas globales también se crean en los demás
+ * shards, pero allí quedan vacías.
+ *
+ * <p>Un shard con tablas pero sin historial (preparado antes copiando el esquema del shard 0) se
+ * toma como ya migrado hasta la versión actual del shard 0.</p>
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardMigrationStrategy implements FlywayMigrationStrategy {
+    
+    private final ShardRoutingDataSource shardRoutingDataSource;
+    
+    @Override
+    public void migrate(Flyway flyway) {
+        flyway.migrate();
+        MigrationInfo catalogVersion = flyway.info().current();
+        for (int shard = 1; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            FluentConfiguration configuration = Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(shardRoutingDataSource.getShard(shard));
+            if (catalogVersion != null) {
+                configuration.baselineVersion(catalogVersion.getVersion());
+            }
+            int applied = configuration.load().migrate().migrationsExecuted;
+            log.info("Esquema del shard {} al día ({} migraciones aplicadas)", shard, applied);
+        }
+    }
+}
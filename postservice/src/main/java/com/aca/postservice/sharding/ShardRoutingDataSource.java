@@ -0,0 +1,54 @@
+package com.aca.postservice.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envía cada conexión al shard del {@link ShardContext} del hilo.
+ *
+ * <p>Igual que el enrutado de réplicas, debe usarse detrás de un {@code LazyConnectionDataSourceProxy}
+ * para que la conexión se pida en la primera sentencia, con el contexto ya fijado.</p>
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    
+    private final List<HikariDataSource> shards;
+    
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(ShardContext.CATALOG));
+        // Un shard inexistente es un error de enrutado, no un motivo para escribir en el shard 0
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+    
+    public int getShardCount() {
+        return shards.size();
+    }
+    
+    /**
+     * Pool de un shard concreto, sin pasar por el contexto (herramientas de administración).
+     */
+    public HikariDataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+    
+    @Override
+    public void destroy() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
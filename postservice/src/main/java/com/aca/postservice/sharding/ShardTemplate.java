@@ -0,0 +1,183 @@
+package com.aca.postservice.sharding;
+
+import com.aca.postservice.config.ShardingProperties;
+import com.aca.postservice.exception.ShardBucketFrozenException;
+import com.aca.postservice.model.ShardBucket;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Ejecuta trabajo contra un shard (o contra todos en paralelo) con el contexto ya fijado.
+ *
+ * <p>Los métodos que abren transacción deben llamarse fuera de cualquier otra transacción: una
+ * transacción ya iniciada conserva la conexión de su shard. Sin particionado hay un único shard
+ * y todo se ejecuta en el hilo que llama, igual que antes.</p>
+ */
+@Component
+public class ShardTemplate {
+    
+    private final ShardDirectory directory;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutorService fanOutExecutor;
+    
+    public ShardTemplate(ShardDirectory directory, PlatformTransactionManager transactionManager,
+                         ShardingProperties properties) {
+        this.directory = directory;
+        this.transactionManager = transactionManager;
+        this.fanOutExecutor = directory.getShardCount() > 1
+                ? Executors.newFixedThreadPool(properties.getFanOutThreads())
+                : null;
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdown();
+        }
+    }
+    
+    public boolean isSharded() {
+        return directory.getShardCount() > 1;
+    }
+    
+    public List<Integer> allShards() {
+        return IntStream.range(0, directory.getShardCount()).boxed().toList();
+    }
+    
+    public int shardOfUser(Long userId) {
+        return directory.shardOf(ShardKeys.bucketOfUser(userId));
+    }
+    
+    /**
+     * Shard de una publicación o de un comentario (el ID codifica el bucket).
+     */
+    public int shardOfId(Long id) {
+        return directory.shardOf(ShardKeys.bucketOfId(id));
+    }
+    
+    /**
+     * Shards con publicaciones de un usuario: el de su bucket y el del bucket 0, donde quedaron
+     * las anteriores al particionado.
+     */
+    public Set<Integer> shardsOfUser(Long userId) {
+        Set<Integer> shards = new LinkedHashSet<>();
+        shards.add(shardOfUser(userId));
+        shards.add(directory.shardOf(0));
+        return shards;
+    }
+    
+    /**
+     * Si el shard es el dueño actual de la fila. Durante un movimiento el bucket existe en dos shards
+     * y las consultas repartidas deben quedarse solo con la copia del dueño.
+     */
+    public boolean owns(int shard, Long id) {
+        return shardOfId(id) == shard;
+    }
+    
+    /**
+     * Si la fila pertenece a un bucket que se está moviendo de shard.
+     */
+    public boolean isMoving(Long id) {
+        return directory.stateOf(ShardKeys.bucketOfId(id)) != ShardBucket.State.WRITABLE;
+    }
+    
+    /**
+     * Fija el contexto sin abrir transacción, para código que gestiona la suya.
+     */
+    public <T> T onShard(int shard, Supplier<T> action) {
+        try (ShardContext.Scope scope = ShardContext.open(shard)) {
+            return action.get();
+        }
+    }
+    
+    public <T> T read(int shard, Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return onShard(shard, () -> transactionTemplate.execute(status -> action.get()));
+    }
+    
+    public <T> T write(int shard, Supplier<T> action) {
+        return onShard(shard, () -> new TransactionTemplate(transactionManager).execute(status -> action.get()));
+    }
+    
+    public void writeWithoutResult(int shard, Runnable action) {
+        onShard(shard, () -> {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+            return null;
+        });
+    }
+    
+    public int writableShardOfUser(Long userId) {
+        return writableShard(ShardKeys.bucketOfUser(userId));
+    }
+    
+    public int writableShardOfId(Long id) {
+        return writableShard(ShardKeys.bucketOfId(id));
+    }
+    
+    /**
+     * Shard de un bucket que admite escrituras; un bucket congelado por un movimiento responde 503.
+     */
+    public int writableShard(int bucket) {
+        if (directory.stateOf(bucket) == ShardBucket.State.FROZEN) {
+            throw new ShardBucketFrozenException(bucket);
+        }
+        return directory.shardOf(bucket);
+    }
+    
+    /**
+     * Ejecuta la consulta en cada shard, en paralelo y cada una en su transacción de solo lectura.
+     * Los resultados vuelven en el orden de los shards recibidos.
+     */
+    public <T> List<T> readEach(Collection<Integer> shards, IntFunction<T> query) {
+        List<Integer> targets = List.copyOf(shards);
+        if (targets.size() == 1 || fanOutExecutor == null) {
+            List<T> results = new ArrayList<>(targets.size());
+            for (Integer shard : targets) {
+                results.add(read(shard, () -> query.apply(shard)));
+            }
+            return results;
+        }
+        
+        List<Future<T>> futures = new ArrayList<>(targets.size());
+        for (Integer shard : targets) {
+            futures.add(fanOutExecutor.submit(() -> read(shard, () -> query.apply(shard))));
+        }
+        List<T> results = new ArrayList<>(targets.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Consulta a los shards interrumpida", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error al consultar los shards", e.getCause());
+        }
+        return results;
+    }
+    
+    public <T> List<T> readAll(IntFunction<T> query) {
+        return readEach(allShards(), query);
+    }
+}
@@ -0,0 +1,9 @@
+package com.aca.postservice.sharding;
+
+/**
+ * Entidad cuyo ID se genera con {@link ShardedId} y por tanto codifica su bucket.
+ */
+public interface ShardedEntity {
+    
+    int shardBucket();
+}
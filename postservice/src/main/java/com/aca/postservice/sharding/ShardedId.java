@@ -0,0 +1,22 @@
+package com.aca.postservice.sharding;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ID generado por {@link ShardIdAllocator} con el bucket de la entidad ({@link ShardedEntity}).
+ */
+@IdGeneratorType(ShardedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedId {
+    
+    /**
+     * Secuencia de {@code id_sequences}; coincide con la tabla de la entidad.
+     */
+    String sequence();
+}
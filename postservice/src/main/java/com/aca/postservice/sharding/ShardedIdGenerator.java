@@ -0,0 +1,34 @@
+package com.aca.postservice.sharding;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Generador de Hibernate para {@link ShardedId}. A diferencia de IDENTITY, el ID se conoce antes
+ * del INSERT, lo que además permite a Hibernate agrupar inserciones en lotes.
+ */
+public class ShardedIdGenerator implements BeforeExecutionGenerator {
+    
+    private final String sequence;
+    
+    public ShardedIdGenerator(ShardedId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.sequence = config.sequence();
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return ShardIdAllocator.get().nextId(sequence, ((ShardedEntity) owner).shardBucket());
+    }
+    
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
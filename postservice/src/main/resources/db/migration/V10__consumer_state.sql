@@ -0,0 +1,17 @@
+-- Consumidores idempotentes: mensajes ya procesados y actividad por autor que mantienen.
+
+CREATE TABLE author_activity (
+    user_id       BIGINT NOT NULL,
+    posts_created BIGINT NOT NULL,
+    last_post_id  BIGINT,
+    last_post_at  DATETIME(6),
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE processed_messages (
+    consumer     VARCHAR(64)  NOT NULL,
+    message_id   VARCHAR(128) NOT NULL,
+    processed_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (consumer, message_id),
+    INDEX idx_processed_messages_at (processed_at)
+) ENGINE = InnoDB;
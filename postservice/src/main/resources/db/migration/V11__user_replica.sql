@@ -0,0 +1,17 @@
+-- Réplica local de los usuarios y de sus seguimientos, alimentada por los eventos del user-service.
+
+CREATE TABLE user_follow_edges (
+    follower_id BIGINT NOT NULL,
+    followee_id BIGINT NOT NULL,
+    following   BIT    NOT NULL,
+    version     BIGINT NOT NULL,
+    PRIMARY KEY (follower_id, followee_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_replicas (
+    user_id    BIGINT      NOT NULL,
+    username   VARCHAR(50) NOT NULL,
+    version    BIGINT      NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,26 @@
+-- Particionado: secuencias de IDs por bloques, directorio bucket -> shard, e IDs de publicaciones y
+-- comentarios asignados por la aplicación (la secuencia arranca por encima del mayor ID existente).
+-- Quitar AUTO_INCREMENT reconstruye las tablas (ALGORITHM = COPY) y post_photos tiene una clave
+-- foránea hacia posts.id, que MySQL no deja tocar con la comprobación activa.
+
+CREATE TABLE id_sequences (
+    name       VARCHAR(32) NOT NULL,
+    next_value BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE shard_buckets (
+    bucket     INT         NOT NULL,
+    shard      INT         NOT NULL,
+    state      VARCHAR(16) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (bucket)
+) ENGINE = InnoDB;
+
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE posts MODIFY id BIGINT NOT NULL;
+
+ALTER TABLE comments MODIFY id BIGINT NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
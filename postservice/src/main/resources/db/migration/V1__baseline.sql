@@ -0,0 +1,36 @@
+-- Esquema de partida: el que generaba Hibernate con ddl-auto=update antes de las migraciones.
+-- En una base ya creada por Hibernate esta versión no se ejecuta (baseline-on-migrate con versión 1);
+-- los cambios posteriores van cada uno en su propia versión.
+
+CREATE TABLE posts (
+    id                 BIGINT       NOT NULL AUTO_INCREMENT,
+    title              VARCHAR(255) NOT NULL,
+    description        TEXT,
+    location           VARCHAR(255) NOT NULL,
+    adventure_type     VARCHAR(255),
+    difficulty_level   VARCHAR(255),
+    estimated_duration VARCHAR(255),
+    user_id            BIGINT       NOT NULL,
+    user_name          VARCHAR(255),
+    likes_count        INT DEFAULT 0,
+    comments_count     INT DEFAULT 0,
+    created_at         DATETIME(6),
+    updated_at         DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE post_photos (
+    post_id   BIGINT NOT NULL,
+    photo_url VARCHAR(255),
+    CONSTRAINT fk_post_photos_post FOREIGN KEY (post_id) REFERENCES posts (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE comments (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    content    TEXT         NOT NULL,
+    post_id    BIGINT       NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    user_name  VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
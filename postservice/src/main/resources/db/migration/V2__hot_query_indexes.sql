@@ -0,0 +1,12 @@
+-- Índices de las consultas calientes: timeline de un autor y feed (user_id, created_at), listado
+-- general por fecha (created_at) y comentarios de una publicación (post_id, created_at).
+-- Online DDL: la tabla sigue aceptando lecturas y escrituras mientras se construye el índice.
+
+ALTER TABLE posts
+    ADD INDEX idx_posts_user_created (user_id, created_at),
+    ADD INDEX idx_posts_created (created_at),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+ALTER TABLE comments
+    ADD INDEX idx_comments_post_created (post_id, created_at),
+    ALGORITHM = INPLACE, LOCK = NONE;
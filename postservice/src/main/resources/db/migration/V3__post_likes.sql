@@ -0,0 +1,9 @@
+-- Registro de quién dio like a cada publicación: el like es idempotente por (post_id, user_id).
+-- Tabla particionada: vive en el shard de la publicación.
+
+CREATE TABLE post_likes (
+    post_id    BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (post_id, user_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,5 @@
+-- Versión para el bloqueo optimista de las publicaciones (@Version): las filas existentes empiezan en 0.
+
+ALTER TABLE posts
+    ADD COLUMN version BIGINT DEFAULT 0 NOT NULL,
+    ALGORITHM = INSTANT;
@@ -0,0 +1,10 @@
+-- Instantánea de las puntuaciones de tendencia, para no empezar de cero tras un reinicio.
+
+CREATE TABLE post_trending_scores (
+    post_id        BIGINT      NOT NULL,
+    location       VARCHAR(255),
+    adventure_type VARCHAR(255),
+    score          DOUBLE      NOT NULL,
+    snapshot_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (post_id)
+) ENGINE = InnoDB;
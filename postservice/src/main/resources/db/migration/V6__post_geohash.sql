@@ -0,0 +1,12 @@
+-- Coordenadas de las publicaciones y su celda geohash, indexada para la búsqueda por zona.
+-- Las publicaciones existentes quedan sin coordenadas hasta que se editen.
+
+ALTER TABLE posts
+    ADD COLUMN latitude DOUBLE,
+    ADD COLUMN longitude DOUBLE,
+    ADD COLUMN geohash VARCHAR(12),
+    ALGORITHM = INSTANT;
+
+ALTER TABLE posts
+    ADD INDEX idx_posts_geohash (geohash),
+    ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,8 @@
+-- Índices de los filtros combinados por igualdad; created_at al final sirve el orden sin filesort.
+
+ALTER TABLE posts
+    ADD INDEX idx_posts_type_difficulty_created (adventure_type, difficulty_level, created_at),
+    ADD INDEX idx_posts_difficulty_created (difficulty_level, created_at),
+    ADD INDEX idx_posts_location_type_difficulty (location, adventure_type, difficulty_level),
+    ADD INDEX idx_posts_duration_created (estimated_duration, created_at),
+    ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,16 @@
+-- Fotos subidas, deduplicadas por el hash de su contenido.
+
+CREATE TABLE photo_assets (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    content_hash      VARCHAR(64)  NOT NULL,
+    content_type      VARCHAR(255) NOT NULL,
+    original_filename VARCHAR(255),
+    size_bytes        BIGINT       NOT NULL,
+    width             INT,
+    height            INT,
+    status            VARCHAR(16)  NOT NULL,
+    created_at        DATETIME(6)  NOT NULL,
+    processed_at      DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_photo_assets_content_hash UNIQUE (content_hash)
+) ENGINE = InnoDB;
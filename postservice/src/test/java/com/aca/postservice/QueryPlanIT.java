@@ -0,0 +1,124 @@
+package com.aca.postservice;
+
+import com.aca.postservice.repository.CommentRepository;
+import com.aca.postservice.repository.PostRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba contra MySQL que las consultas calientes usan índice: siembra datos, ejecuta cada consulta
+ * y revisa {@code NO_INDEX_USED} en {@code performance_schema} para las sentencias de esa misma conexión.
+ *
+ * <p>Necesita una base real ({@code SPRING_DATASOURCE_URL}); se ejecuta con {@code mvn -Pquery-plans verify}.</p>
+ */
+@SpringBootTest(properties = {
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "app.sharding.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanIT {
+    
+    // Rango de IDs propio para no tocar datos existentes
+    private static final long FIRST_ID = 9_000_000_000L;
+    private static final long FIRST_USER = 9_000_000L;
+    private static final int USERS = 200;
+    private static final int POSTS = 2000;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> posts = new ArrayList<>(POSTS);
+        List<Object[]> comments = new ArrayList<>(POSTS);
+        for (int i = 0; i < POSTS; i++) {
+            Timestamp createdAt = Timestamp.valueOf(start.plusMinutes(i * 7L));
+            posts.add(new Object[]{FIRST_ID + i, "Ruta " + i, "Lugar " + (i % 50), "HIKING", "MEDIUM",
+                    FIRST_USER + (i % USERS), "usuario" + (i % USERS), createdAt, createdAt});
+            comments.add(new Object[]{FIRST_ID + i, "Comentario " + i, FIRST_ID + (i % 100),
+                    FIRST_USER + (i % USERS), "usuario" + (i % USERS), createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO posts (id, title, location, adventure_type, difficulty_level, user_id, " +
+                "user_name, likes_count, comments_count, created_at, updated_at, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?, 0)", posts);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, content, post_id, user_id, user_name, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", comments);
+        jdbcTemplate.execute("ANALYZE TABLE posts, comments");
+    }
+    
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM comments WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM posts WHERE id >= ?", FIRST_ID);
+    }
+    
+    @Test
+    void timelineDeUsuarioUsaIndice() {
+        assertUsesIndex(() -> postRepository.findByUserIdOrderByCreatedAtDesc(FIRST_USER + 7));
+    }
+    
+    @Test
+    void feedUsaIndice() {
+        List<Long> userIds = List.of(FIRST_USER + 1, FIRST_USER + 2, FIRST_USER + 3);
+        assertUsesIndex(() -> postRepository.findFeedPage(userIds, PageRequest.of(0, 20)));
+        assertUsesIndex(() -> postRepository.findFeedPageBefore(userIds, LocalDateTime.now().minusDays(10),
+                Long.MAX_VALUE, PageRequest.of(0, 20)));
+    }
+    
+    @Test
+    void listadoRecienteUsaIndice() {
+        assertUsesIndex(() -> postRepository.findLatest(PageRequest.of(0, 20)));
+        assertUsesIndex(() -> postRepository.findLatestBefore(LocalDateTime.now().minusDays(10), Long.MAX_VALUE,
+                PageRequest.of(0, 20)));
+        assertUsesIndex(() -> postRepository.findVersionsOrderByCreatedAtDesc(PageRequest.of(0, 20)));
+    }
+    
+    @Test
+    void comentariosDePublicacionUsanIndice() {
+        assertUsesIndex(() -> commentRepository.findByPostIdOrderByCreatedAtAsc(FIRST_ID + 5));
+        assertUsesIndex(() -> commentRepository.findVersionByPostId(FIRST_ID + 5));
+    }
+    
+    /**
+     * Ejecuta la consulta en una transacción (una sola conexión) y falla si alguna SELECT que lanzó
+     * recorrió una tabla completa.
+     */
+    private void assertUsesIndex(Runnable query) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Long marker = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(EVENT_ID), 0) " +
+                    "FROM performance_schema.events_statements_history WHERE THREAD_ID = PS_CURRENT_THREAD_ID()",
+                    Long.class);
+            query.run();
+            List<String> fullScans = jdbcTemplate.queryForList("SELECT SQL_TEXT " +
+                    "FROM performance_schema.events_statements_history WHERE THREAD_ID = PS_CURRENT_THREAD_ID() " +
+                    "AND EVENT_ID > ? AND LOWER(SQL_TEXT) LIKE 'select%' AND NO_INDEX_USED = 1", String.class, marker);
+            assertTrue(fullScans.isEmpty(), "Consultas sin índice: " + fullScans);
+        });
+    }
+}
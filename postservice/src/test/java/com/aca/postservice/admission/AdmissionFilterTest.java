@@ -0,0 +1,119 @@
+package com.aca.postservice.admission;
+
+import com.aca.postservice.config.AdmissionProperties;
+import com.aca.postservice.config.CorsConfig;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.CorsFilter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionFilterTest {
+    
+    private final AdmissionFilter filter = new AdmissionFilter(likesRule());
+    
+    @Test
+    void cambiarElUserIdDeLaQueryNoDaUnCuboNuevo() throws Exception {
+        assertEquals(200, like("7", "10.0.0.1").getStatus());
+        assertEquals(429, like("8", "10.0.0.1").getStatus());
+        // Otra IP sí tiene su propio cubo
+        assertEquals(200, like("7", "10.0.0.2").getStatus());
+    }
+    
+    @Test
+    void laClaveDeUsuarioSaleDelUsuarioAutenticado() throws Exception {
+        MockHttpServletRequest first = request("POST", "7", "10.0.0.1");
+        first.setUserPrincipal(() -> "ana");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(first, response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+        
+        // Mismo usuario desde otra IP: comparte cubo
+        MockHttpServletRequest second = request("POST", "8", "10.0.0.2");
+        second.setUserPrincipal(() -> "ana");
+        response = new MockHttpServletResponse();
+        filter.doFilter(second, response, new MockFilterChain());
+        assertEquals(429, response.getStatus());
+    }
+    
+    @Test
+    void laClaveDeUsuarioSaleDeLaVariableDeLaRuta() throws Exception {
+        AdmissionProperties.Rule rule = new AdmissionProperties.Rule();
+        rule.setPath("/api/posts/user/{userId}");
+        rule.setKey(AdmissionProperties.KeySource.USER);
+        rule.setRate(0.01);
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRules(List.of(rule));
+        AdmissionFilter byPath = new AdmissionFilter(properties);
+        
+        assertEquals(200, get(byPath, "/api/posts/user/7", "10.0.0.1").getStatus());
+        assertEquals(429, get(byPath, "/api/posts/user/7", "10.0.0.2").getStatus());
+        assertEquals(200, get(byPath, "/api/posts/user/8", "10.0.0.1").getStatus());
+    }
+    
+    @Test
+    void losPreflightNoGastanCupo() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest preflight = request("OPTIONS", "9", "10.0.0.1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(preflight, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(200, like("9", "10.0.0.1").getStatus());
+    }
+    
+    @Test
+    void elRechazoLlevaLasCabecerasCors() throws Exception {
+        CorsFilter corsFilter = new CorsFilter(new CorsConfig().corsConfigurationSource());
+        like("11", "10.0.0.1");
+        
+        MockHttpServletRequest request = request("POST", "11", "10.0.0.1");
+        request.addHeader(HttpHeaders.ORIGIN, "http://localhost:3000");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new HttpServlet() {
+        }, corsFilter, filter).doFilter(request, response);
+        
+        assertEquals(429, response.getStatus());
+        assertEquals("http://localhost:3000", response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+    }
+    
+    private MockHttpServletResponse like(String userId, String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("POST", userId, remoteAddr), response, new MockFilterChain());
+        return response;
+    }
+    
+    private static MockHttpServletResponse get(AdmissionFilter filter, String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+    
+    private static MockHttpServletRequest request(String method, String userId, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/posts/1/like");
+        request.setQueryString("userId=" + userId);
+        request.addParameter("userId", userId);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+    
+    private static AdmissionProperties likesRule() {
+        AdmissionProperties.Rule rule = new AdmissionProperties.Rule();
+        rule.setName("likes");
+        rule.setPath("/api/posts/{id}/like");
+        rule.setKey(AdmissionProperties.KeySource.USER);
+        rule.setRate(0.01);
+        rule.setBurst(1);
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRules(List.of(rule));
+        return properties;
+    }
+}
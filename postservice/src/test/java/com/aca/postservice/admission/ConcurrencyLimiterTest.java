@@ -0,0 +1,70 @@
+package com.aca.postservice.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+    
+    @Test
+    void esperaComoMuchoElTiempoDeColaYRechaza() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, Duration.ofMillis(50), Duration.ofSeconds(1), Duration.ofMinutes(1));
+        assertTrue(limiter.tryAcquire());
+        
+        long start = System.nanoTime();
+        assertFalse(limiter.tryAcquire());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+        
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+    
+    @Test
+    void unaPeticionEnColaEntraCuandoSeLiberaUnHueco() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ofMinutes(1));
+        assertTrue(limiter.tryAcquire());
+        
+        Thread releaser = new Thread(() -> {
+            sleep(50);
+            limiter.release();
+        });
+        releaser.start();
+        assertTrue(limiter.tryAcquire());
+        releaser.join();
+    }
+    
+    @Test
+    void descartaAlMomentoSiLaColaNoSeVaciaDuranteUnIntervaloYSeRecupera() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, Duration.ofMillis(60), Duration.ofMillis(1), Duration.ofMillis(20));
+        assertTrue(limiter.tryAcquire());
+        
+        // Primer intervalo: incluye la entrada sin espera, todavía no hay saturación
+        assertFalse(limiter.tryAcquire());
+        // Segundo intervalo: solo esperas largas, el endpoint pasa a descartar
+        assertFalse(limiter.tryAcquire());
+        assertTrue(limiter.isOverloaded());
+        
+        long start = System.nanoTime();
+        assertFalse(limiter.tryAcquire());
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(30).toNanos(), "Debería rechazar sin esperar");
+        
+        // Con el hueco libre se entra sin esperar y el siguiente intervalo cierra la saturación
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+        limiter.release();
+        sleep(30);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.isOverloaded());
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.aca.postservice.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketLimiterTest {
+    
+    private static final long SECOND = 1_000_000_000L;
+    private static final long START = 100 * SECOND;
+    
+    @Test
+    void admiteLaRafagaCompletaYRechazaLaSiguiente() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 5, 1000);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("cliente", START));
+        }
+        // El siguiente token llega al cabo de un intervalo de emisión (100 ms)
+        assertEquals(SECOND / 10, limiter.tryAcquire("cliente", START));
+    }
+    
+    @Test
+    void recargaUnTokenPorIntervalo() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 5, 1000);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("cliente", START);
+        }
+        long now = START + SECOND / 10;
+        assertEquals(0, limiter.tryAcquire("cliente", now));
+        assertEquals(SECOND / 10, limiter.tryAcquire("cliente", now));
+        
+        // Tras estar inactivo el cubo vuelve a estar lleno, sin pasar de la ráfaga
+        now += 10 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("cliente", now));
+        }
+        assertEquals(SECOND / 10, limiter.tryAcquire("cliente", now));
+    }
+    
+    @Test
+    void sinRafagaSoloAdmiteUnaPeticionPorIntervalo() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 1000);
+        assertEquals(0, limiter.tryAcquire("cliente", START));
+        assertEquals(SECOND / 2, limiter.tryAcquire("cliente", START));
+        assertEquals(SECOND / 4, limiter.tryAcquire("cliente", START + SECOND / 4));
+        assertEquals(0, limiter.tryAcquire("cliente", START + SECOND / 2));
+    }
+    
+    @Test
+    void cadaClienteTieneSuPropioCubo() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 1000);
+        assertEquals(0, limiter.tryAcquire("a", START));
+        assertEquals(0, limiter.tryAcquire("b", START));
+        assertEquals(SECOND, limiter.tryAcquire("a", START));
+    }
+    
+    @Test
+    void olvidarClientesInactivosNoCambiaLosResultados() {
+        // Una entrada por franja: cada cliente nuevo obliga a limpiar
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 2, 16);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryAcquire("cliente-" + i, START + i * SECOND));
+        }
+        assertEquals(0, limiter.tryAcquire("cliente-0", START + 2000 * SECOND));
+        assertEquals(0, limiter.tryAcquire("cliente-0", START + 2000 * SECOND));
+        assertEquals(SECOND, limiter.tryAcquire("cliente-0", START + 2000 * SECOND));
+    }
+    
+    @Test
+    void rotarClavesNoReiniciaElCuboDeOtroCliente() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 5, 64);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("agotado", START));
+        }
+        // Miles de claves nuevas en el mismo instante llenan todas las franjas varias veces
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("rotada-" + i, START);
+        }
+        assertEquals(SECOND, limiter.tryAcquire("agotado", START));
+    }
+}
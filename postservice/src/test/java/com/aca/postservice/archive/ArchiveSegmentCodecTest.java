@@ -0,0 +1,87 @@
+package com.aca.postservice.archive;
+
+import com.aca.postservice.model.Comment;
+import com.aca.postservice.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchiveSegmentCodecTest {
+    
+    @Test
+    void unBloqueSeDecodificaIgualQueSeCodifico() throws Exception {
+        List<ArchivedPost> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(archivedPost(1_000L + i * 3, i));
+        }
+        
+        List<ArchivedPost> decoded = ArchiveSegmentCodec.decodeBlock(ArchiveSegmentCodec.encodeBlock(rows));
+        
+        assertEquals(rows.size(), decoded.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i).post(), decoded.get(i).post());
+            assertEquals(rows.get(i).comments(), decoded.get(i).comments());
+        }
+    }
+    
+    @Test
+    void conservaLosNulos() throws Exception {
+        Post post = new Post();
+        post.setId(7L);
+        post.setUserId(3L);
+        post.setVersion(0L);
+        post.setTitle("Sin datos");
+        
+        ArchivedPost decoded = ArchiveSegmentCodec.decodeBlock(
+                ArchiveSegmentCodec.encodeBlock(List.of(new ArchivedPost(post, List.of())))).get(0);
+        
+        assertEquals("Sin datos", decoded.post().getTitle());
+        assertNull(decoded.post().getDescription());
+        assertNull(decoded.post().getLatitude());
+        assertNull(decoded.post().getCreatedAt());
+        assertTrue(decoded.post().getPhotos().isEmpty());
+        assertTrue(decoded.comments().isEmpty());
+    }
+    
+    static ArchivedPost archivedPost(long id, int i) {
+        LocalDateTime createdAt = LocalDateTime.of(2023, 5, 1, 10, 30).plusHours(i);
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle("Ruta " + i);
+        post.setDescription("Descripción con acentos y ñ " + i);
+        post.setLocation("Lugar " + (i % 5));
+        post.setLatitude(-33.4 + i * 0.01);
+        post.setLongitude(-70.6 - i * 0.01);
+        post.setGeohash("66jc" + i);
+        post.setAdventureType("HIKING");
+        post.setDifficultyLevel(i % 2 == 0 ? "EASY" : "HARD");
+        post.setEstimatedDuration(i + "h");
+        post.setUserId(100L + i % 4);
+        post.setUserName("usuario" + (i % 4));
+        post.setPhotos(i % 3 == 0 ? List.of() : List.of("foto-" + i + ".jpg", "foto-" + i + "-b.jpg"));
+        post.setLikesCount(i * 2);
+        post.setCommentsCount(i % 3);
+        post.setCreatedAt(createdAt);
+        post.setUpdatedAt(createdAt.plusMinutes(5));
+        post.setVersion((long) i);
+        
+        List<Comment> comments = new ArrayList<>();
+        for (int c = 0; c < i % 3; c++) {
+            Comment comment = new Comment();
+            comment.setId(id * 10 + c);
+            comment.setPostId(id);
+            comment.setUserId(200L + c);
+            comment.setUserName("comentarista" + c);
+            comment.setContent("Comentario " + c);
+            comment.setCreatedAt(createdAt.plusDays(c));
+            comments.add(comment);
+        }
+        return new ArchivedPost(post, comments);
+    }
+}
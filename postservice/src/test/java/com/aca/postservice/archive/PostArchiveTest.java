@@ -0,0 +1,61 @@
+package com.aca.postservice.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostArchiveTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void encuentraLasPublicacionesDeUnSegmento() throws Exception {
+        PostArchive archive = open();
+        archive.writeSegment(posts(600));
+        
+        assertEquals("Ruta 300", archive.findPost(1_000L + 300).orElseThrow().post().getTitle());
+        assertTrue(archive.findPost(5L).isEmpty());
+        assertEquals(150, archive.findPostsByUserId(100L).size());
+        archive.closeSegments();
+    }
+    
+    @Test
+    void unaPublicacionConLapidaNoSeDevuelveNiTrasReabrir() throws Exception {
+        PostArchive archive = open();
+        archive.writeSegment(posts(600));
+        
+        archive.tombstone(List.of(1_000L + 4));
+        
+        assertTrue(archive.findPost(1_000L + 4).isEmpty());
+        assertFalse(archive.findPostsByUserId(100L).stream().anyMatch(row -> row.post().getId() == 1_000L + 4));
+        assertEquals(149, archive.findPostsByUserId(100L).size());
+        archive.closeSegments();
+        
+        PostArchive reopened = open();
+        assertTrue(reopened.findPost(1_000L + 4).isEmpty());
+        assertTrue(reopened.findPost(1_000L + 8).isPresent());
+        reopened.closeSegments();
+    }
+    
+    private PostArchive open() throws Exception {
+        PostArchive archive = new PostArchive(directory, 64, 16);
+        archive.openSegments();
+        return archive;
+    }
+    
+    private static List<ArchivedPost> posts(int count) {
+        List<ArchivedPost> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(ArchiveSegmentCodecTest.archivedPost(1_000L + i, i));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,38 @@
+package com.aca.postservice.controller;
+
+import com.aca.postservice.dto.NearbyPostResponse;
+import com.aca.postservice.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostControllerGeoTest {
+    
+    private final PostService postService = mock(PostService.class);
+    private final PostController controller = new PostController(postService, null, null, null, null, null);
+    
+    @Test
+    void unAreaQueCruzaElAntimeridianoSeBusca() {
+        when(postService.searchWithin(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any())).thenReturn(Page.empty());
+        
+        ResponseEntity<Page<NearbyPostResponse>> response = controller.searchWithin(-10, 170, 10, -170, 0, 10);
+        
+        assertEquals(200, response.getStatusCode().value());
+        verify(postService).searchWithin(-10, 170, 10, -170, PageRequest.of(0, 10));
+    }
+    
+    @Test
+    void unAreaConLatitudesInvertidasSeRechaza() {
+        assertEquals(400, controller.searchWithin(10, 170, -10, -170, 0, 10).getStatusCode().value());
+        verify(postService, never()).searchWithin(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any());
+    }
+}
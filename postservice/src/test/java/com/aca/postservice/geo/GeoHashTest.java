@@ -0,0 +1,131 @@
+package com.aca.postservice.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoHashTest {
+    
+    @Test
+    void codificaPuntosConocidos() {
+        assertEquals("ezs42", GeoHash.encode(42.6, -5.6, 5));
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("s0000", GeoHash.encode(0, 0, 5));
+    }
+    
+    @Test
+    void elPrefijoEsLaCeldaDeMenorPrecision() {
+        String full = GeoHash.encode(-33.4489, -70.6693, GeoHash.MAX_PRECISION);
+        for (int precision = 1; precision < GeoHash.MAX_PRECISION; precision++) {
+            assertEquals(full.substring(0, precision), GeoHash.encode(-33.4489, -70.6693, precision));
+        }
+    }
+    
+    @Test
+    void laCoberturaContieneTodoPuntoDelRectangulo() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            double minLat = -80 + random.nextDouble() * 150;
+            double minLon = -170 + random.nextDouble() * 330;
+            double maxLat = Math.min(90, minLat + random.nextDouble() * 5);
+            double maxLon = Math.min(180, minLon + random.nextDouble() * 5);
+            List<String> cells = GeoHash.cover(minLat, minLon, maxLat, maxLon, 16);
+            assertTrue(cells.size() <= 16, "Demasiadas celdas: " + cells.size());
+            for (int j = 0; j < 50; j++) {
+                double lat = minLat + random.nextDouble() * (maxLat - minLat);
+                double lon = minLon + random.nextDouble() * (maxLon - minLon);
+                assertCovered(cells, lat, lon);
+            }
+            assertCovered(cells, minLat, minLon);
+            assertCovered(cells, maxLat, maxLon);
+        }
+    }
+    
+    @Test
+    void elCirculoQueCruzaElAntimeridianoSeParteEnDos() {
+        double[] box = GeoDistance.boundingBox(10, 179.9, 50_000);
+        assertTrue(box[1] > box[3], "El rectángulo debería cruzar el antimeridiano");
+        
+        List<double[]> parts = GeoDistance.splitAtAntimeridian(box);
+        assertEquals(2, parts.size());
+        
+        // Un punto a ~30 km al otro lado del antimeridiano queda dentro del radio y de la cobertura
+        double lat = 10;
+        double lon = -179.85;
+        assertTrue(GeoDistance.meters(10, 179.9, lat, lon) < 50_000);
+        boolean covered = parts.stream()
+                .filter(part -> lon >= part[1] && lon <= part[3])
+                .anyMatch(part -> GeoHash.cover(part[0], part[1], part[2], part[3], 16).stream()
+                        .anyMatch(cell -> GeoHash.encode(lat, lon, GeoHash.MAX_PRECISION).startsWith(cell)));
+        assertTrue(covered, "El punto al otro lado del antimeridiano no está cubierto");
+    }
+    
+    @Test
+    void unAreaQueCruzaElAntimeridianoCubreAmbosLadosYCentraEnElPacifico() {
+        // Lo que recibe /within para un área de 170 a -170: minLon > maxLon
+        double[] box = {-10, 170, 10, -170};
+        assertEquals(180, Math.abs(GeoDistance.centerLongitude(box[1], box[3])), 1e-9);
+        assertEquals(-175, GeoDistance.centerLongitude(170, -160), 1e-9);
+        assertEquals(5, GeoDistance.centerLongitude(-10, 20), 1e-9);
+        
+        List<double[]> parts = GeoDistance.splitAtAntimeridian(box);
+        for (double lon : new double[]{171, 179.99, -179.99, -171}) {
+            assertTrue(parts.stream()
+                    .filter(part -> lon >= part[1] && lon <= part[3])
+                    .anyMatch(part -> GeoHash.cover(part[0], part[1], part[2], part[3], 16).stream()
+                            .anyMatch(cell -> GeoHash.encode(0, lon, GeoHash.MAX_PRECISION).startsWith(cell))),
+                    "Longitud " + lon + " sin cubrir");
+        }
+        // Lo que queda fuera del área no está en ninguna parte
+        assertTrue(parts.stream().noneMatch(part -> 0 >= part[1] && 0 <= part[3]));
+    }
+    
+    @Test
+    void elRectanguloContieneElCirculo() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            double lat = -85 + random.nextDouble() * 170;
+            double lon = -180 + random.nextDouble() * 360;
+            double radius = 1_000 + random.nextDouble() * 200_000;
+            double[] box = GeoDistance.boundingBox(lat, lon, radius);
+            // Puntos en el borde del círculo, en varias direcciones
+            for (int bearing = 0; bearing < 360; bearing += 15) {
+                double[] point = destination(lat, lon, radius * 0.999, Math.toRadians(bearing));
+                assertTrue(point[0] >= box[0] && point[0] <= box[2], "Latitud fuera del rectángulo");
+                boolean inLon = box[1] <= box[3]
+                        ? point[1] >= box[1] && point[1] <= box[3]
+                        : point[1] >= box[1] || point[1] <= box[3];
+                assertTrue(inLon, "Longitud " + point[1] + " fuera de [" + box[1] + ", " + box[3] + "]");
+            }
+        }
+    }
+    
+    @Test
+    void unCirculoQueContieneElPoloAbarcaTodasLasLongitudes() {
+        double[] box = GeoDistance.boundingBox(89.6, 10, 50_000);
+        assertEquals(-180, box[1]);
+        assertEquals(180, box[3]);
+        assertEquals(90, box[2]);
+    }
+    
+    private static void assertCovered(List<String> cells, double lat, double lon) {
+        String hash = GeoHash.encode(lat, lon, GeoHash.MAX_PRECISION);
+        assertTrue(cells.stream().anyMatch(hash::startsWith), "(" + lat + ", " + lon + ") sin celda");
+    }
+    
+    // Punto a la distancia y rumbo dados sobre la esfera
+    private static double[] destination(double lat, double lon, double meters, double bearing) {
+        double angular = meters / GeoDistance.EARTH_RADIUS_METERS;
+        double lat1 = Math.toRadians(lat);
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular) + Math.cos(lat1) * Math.sin(angular) * Math.cos(bearing));
+        double lon2 = Math.toRadians(lon) + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(lat1),
+                Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+        double degrees = Math.toDegrees(lon2);
+        degrees = ((degrees + 540) % 360) - 180;
+        return new double[]{Math.toDegrees(lat2), degrees};
+    }
+}
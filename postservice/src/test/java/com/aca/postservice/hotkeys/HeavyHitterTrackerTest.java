@@ -0,0 +1,75 @@
+package com.aca.postservice.hotkeys;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHitterTrackerTest {
+    
+    @Test
+    void nuncaEstimaPorDebajoDelValorReal() {
+        // Sketch pequeño para forzar colisiones: el error solo puede ser por exceso
+        HeavyHitterTracker tracker = new HeavyHitterTracker(64, 10);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            // Distribución sesgada: pocas claves muy frecuentes y una cola larga
+            String key = "post-" + (int) (Math.pow(random.nextDouble(), 3) * 2000);
+            tracker.record(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+        exact.forEach((key, count) -> assertTrue(tracker.estimate(key) >= count,
+                key + ": estimado " + tracker.estimate(key) + " < real " + count));
+    }
+    
+    @Test
+    void clavesConElMismoHashCodeNoCompartenContadores() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        HeavyHitterTracker tracker = new HeavyHitterTracker(1024, 10);
+        for (int i = 0; i < 100; i++) {
+            tracker.record("Aa");
+        }
+        assertEquals(100, tracker.estimate("Aa"));
+        assertEquals(0, tracker.estimate("BB"));
+    }
+    
+    @Test
+    void elTopDevuelveLasClavesMasFrecuentesEnOrden() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(1024, 3);
+        for (int key = 0; key < 200; key++) {
+            tracker.record("frio-" + key);
+        }
+        for (int i = 0; i < 50; i++) {
+            tracker.record("caliente");
+            if (i < 30) {
+                tracker.record("templado");
+            }
+        }
+        List<HeavyHitterTracker.HeavyHitter> top = tracker.top(2);
+        assertEquals("caliente", top.get(0).key());
+        assertEquals("templado", top.get(1).key());
+        assertTrue(top.get(0).estimate() >= 50);
+    }
+    
+    @Test
+    void elDecaimientoDivideLosContadoresALaMitad() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(1024, 10);
+        for (int i = 0; i < 40; i++) {
+            tracker.record("clave");
+        }
+        tracker.decay();
+        assertEquals(20, tracker.estimate("clave"));
+    }
+    
+    @Test
+    void elAnchoDebeSerPotenciaDeDos() {
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitterTracker(1000, 10));
+    }
+}
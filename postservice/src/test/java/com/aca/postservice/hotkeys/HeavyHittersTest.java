@@ -0,0 +1,36 @@
+package com.aca.postservice.hotkeys;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHittersTest {
+    
+    @Test
+    void laMetricaExportaLosIdsPeroNoLosTerminosDeBusqueda() {
+        HeavyHitters heavyHitters = new HeavyHitters(1024, 10, 5, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        heavyHitters.bindTo(registry);
+        
+        heavyHitters.record(HeavyHitters.Category.POST, 42L);
+        heavyHitters.record(HeavyHitters.Category.SEARCH, "  Nevado de Toluca ");
+        heavyHitters.refresh();
+        
+        List<String> keys = registry.find("hotkeys.estimate").meters().stream()
+                .map(Meter::getId)
+                .map(id -> id.getTag("key"))
+                .toList();
+        assertTrue(keys.contains("42"));
+        assertTrue(keys.contains(HeavyHitters.metricKey(HeavyHitters.Category.SEARCH, "nevado de toluca")));
+        assertFalse(keys.stream().anyMatch(key -> key.contains("nevado")));
+        
+        // El endpoint sigue mostrando el término
+        assertEquals("nevado de toluca", heavyHitters.top(HeavyHitters.Category.SEARCH, 1).get(0).key());
+    }
+}
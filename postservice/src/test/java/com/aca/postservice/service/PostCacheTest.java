@@ -0,0 +1,123 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.config.CacheConfig;
+import com.aca.postservice.dto.PostResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostCacheTest {
+    
+    private static final Long ID = 42L;
+    
+    @Test
+    void guardaLaCargaSiNadieLaHaInvalidado() {
+        PostCache cache = caffeineCache();
+        long stamp = cache.stamp(ID);
+        cache.putIfCurrent(ID, post(1), stamp);
+        assertEquals(1L, cache.get(ID).getVersion());
+    }
+    
+    @Test
+    void descartaLaCargaSiSeInvalidoMientrasSeLeia() {
+        PostCache cache = caffeineCache();
+        long stamp = cache.stamp(ID);
+        cache.evict(ID);
+        cache.putIfCurrent(ID, post(1), stamp);
+        assertNull(cache.get(ID));
+        
+        // La siguiente carga, ya posterior al cambio, sí se guarda
+        cache.putIfCurrent(ID, post(2), cache.stamp(ID));
+        assertEquals(2L, cache.get(ID).getVersion());
+    }
+    
+    @Test
+    void sinCaffeineTambienDescartaLaCargaInvalidada() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.POSTS_CACHE);
+        PostCache cache = new PostCache(cacheManager);
+        long stamp = cache.stamp(ID);
+        cache.evict(ID);
+        cache.putIfCurrent(ID, post(1), stamp);
+        assertNull(cache.get(ID));
+    }
+    
+    /**
+     * Reproduce la carrera de getPostById: una lectura lee la versión 1, mientras tanto se confirma la
+     * versión 2 y se invalida, y la lectura termina después. Ni la caché ni las peticiones que llegan
+     * tras el cambio deben quedarse con la versión 1.
+     */
+    @Test
+    void unaLecturaAnteriorAlCambioNoVuelveAGuardarse() throws Exception {
+        PostCache cache = caffeineCache();
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+        List<Object> key = List.of("post", ID);
+        AtomicLong database = new AtomicLong(1);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        
+        CompletableFuture<PostResponse> stale = CompletableFuture.supplyAsync(() -> singleFlight.execute(key, () -> {
+            long stamp = cache.stamp(ID);
+            PostResponse response = post(database.get());
+            loads.incrementAndGet();
+            read.countDown();
+            await(written);
+            cache.putIfCurrent(ID, response, stamp);
+            return response;
+        }));
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        
+        // Escritura confirmada y su invalidación, como en PostServiceImpl.evictPost
+        database.set(2);
+        singleFlight.forget(key);
+        cache.evict(ID);
+        
+        PostResponse fresh = singleFlight.execute(key, () -> {
+            long stamp = cache.stamp(ID);
+            PostResponse response = post(database.get());
+            loads.incrementAndGet();
+            cache.putIfCurrent(ID, response, stamp);
+            return response;
+        });
+        written.countDown();
+        
+        assertEquals(1L, stale.get(5, TimeUnit.SECONDS).getVersion());
+        assertEquals(2L, fresh.getVersion());
+        assertEquals(2, loads.get());
+        assertEquals(2L, cache.get(ID).getVersion());
+    }
+    
+    private static PostCache caffeineCache() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.POSTS_CACHE, Caffeine.newBuilder().build());
+        return new PostCache(cacheManager);
+    }
+    
+    private static PostResponse post(long version) {
+        PostResponse response = new PostResponse();
+        response.setId(ID);
+        response.setVersion(version);
+        return response;
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
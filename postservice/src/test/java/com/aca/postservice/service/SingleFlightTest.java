@@ -0,0 +1,131 @@
+package com.aca.postservice.service;
+
+import com.aca.postservice.exception.CoalescedLoadTimeoutException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    
+    @Test
+    void lasPeticionesConcurrentesEsperanLaCargaDelPrimero() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("clave", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "valor";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> singleFlight.execute("clave", () -> {
+            executions.incrementAndGet();
+            return "otro";
+        }));
+        waitUntil(() -> singleFlight.getCoalesced() == 1);
+        release.countDown();
+        
+        assertEquals("valor", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("valor", waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(1, singleFlight.getLoads());
+    }
+    
+    @Test
+    void alTerminarLaClaveSeLiberaYLaSiguienteVuelveACargar() {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+        assertEquals(1, singleFlight.execute("clave", () -> 1));
+        assertEquals(2, singleFlight.execute("clave", () -> 2));
+        assertEquals(2, singleFlight.getLoads());
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+    
+    @Test
+    void laExcepcionDelPrimeroLlegaATodos() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalArgumentException failure = new IllegalArgumentException("fallo");
+        
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("clave", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> waiter = CompletableFuture.supplyAsync(() -> singleFlight.execute("clave", () -> "otro"));
+        waitUntil(() -> singleFlight.getCoalesced() == 1);
+        release.countDown();
+        
+        assertSame(failure, assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS)).getCause());
+    }
+    
+    @Test
+    void quienEsperaDemasiadoRecibeUnTimeout() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("clave", () -> {
+            started.countDown();
+            await(release);
+            return "valor";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        
+        assertThrows(CoalescedLoadTimeoutException.class, () -> singleFlight.execute("clave", () -> "otro"));
+        release.countDown();
+        assertEquals("valor", leader.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void trasOlvidarLaClaveLaSiguientePeticionCargaDeNuevo() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("clave", () -> {
+            started.countDown();
+            await(release);
+            return "antiguo";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        
+        singleFlight.forget("clave");
+        assertEquals("nuevo", singleFlight.execute("clave", () -> "nuevo"));
+        release.countDown();
+        assertEquals("antiguo", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2, singleFlight.getLoads());
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
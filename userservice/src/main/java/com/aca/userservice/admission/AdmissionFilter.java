@@ -0,0 +1,162 @@
+package com.aca.userservice.admission;
+
+import com.aca.userservice.config.AdmissionProperties;
+import com.aca.userservice.config.CorsConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decide si una petición entra antes de que toque un controlador o una conexión de la base de
+ * datos. Una petición por encima del límite de su cliente, o que no encuentra hueco de concurrencia
+ * en su endpoint, recibe un 429 vacío con {@code Retry-After}.
+ *
+ * <p>Va justo detrás del filtro CORS ({@link CorsConfig#CORS_FILTER_ORDER}), así que los rechazos
+ * llevan las cabeceras CORS y el navegador los ve como 429; las peticiones OPTIONS (preflight)
+ * no gastan cupo.</p>
+ */
+@Component
+@Slf4j
+@Order(CorsConfig.CORS_FILTER_ORDER + 1)
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true")
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String USER_ID_VARIABLE = "userId";
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final boolean trustForwardedFor;
+
+    public AdmissionFilter(AdmissionProperties properties) {
+        this.trustForwardedFor = properties.isTrustForwardedFor();
+        PathPatternParser parser = new PathPatternParser();
+        for (AdmissionProperties.Rule rule : properties.getRules()) {
+            if (!StringUtils.hasText(rule.getPath())) {
+                throw new IllegalStateException("Regla de admisión sin ruta: " + rule.getName());
+            }
+            endpoints.add(new Endpoint(
+                    rule.getName() != null ? rule.getName() : rule.getPath(),
+                    StringUtils.hasText(rule.getMethod()) ? rule.getMethod().toUpperCase() : null,
+                    parser.parse(rule.getPath()),
+                    rule.getKey(),
+                    rule.getRate() > 0
+                            ? new TokenBucketLimiter(rule.getRate(), rule.getBurst(), properties.getMaxTrackedClients())
+                            : null,
+                    rule.getMaxConcurrent() > 0
+                            ? new ConcurrencyLimiter(rule.getMaxConcurrent(), properties.getMaxQueueTime(),
+                                    properties.getTargetQueueTime(), properties.getSheddingInterval())
+                            : null));
+        }
+        log.info("Control de admisión activo con {} reglas", endpoints.size());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        Endpoint endpoint = match(request.getMethod(), path);
+        if (endpoint == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (endpoint.rateLimiter() != null) {
+            long waitNanos = endpoint.rateLimiter().tryAcquire(clientKey(endpoint, path, request), System.nanoTime());
+            if (waitNanos > 0) {
+                log.debug("Petición rechazada por límite de frecuencia en {}", endpoint.name());
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        ConcurrencyLimiter limiter = endpoint.concurrencyLimiter();
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean acquired;
+        try {
+            acquired = limiter.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug("Petición rechazada en {} ({})", endpoint.name(),
+                    limiter.isOverloaded() ? "endpoint saturado" : "sin hueco de concurrencia");
+            reject(response, 0);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private Endpoint match(String method, PathContainer path) {
+        for (Endpoint endpoint : endpoints) {
+            if ((endpoint.method() == null || endpoint.method().equals(method)) && endpoint.pattern().matches(path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(Endpoint endpoint, PathContainer path, HttpServletRequest request) {
+        if (endpoint.key() == AdmissionProperties.KeySource.USER) {
+            PathPattern.PathMatchInfo info = endpoint.pattern().matchAndExtract(path);
+            Map<String, String> variables = info != null ? info.getUriVariables() : Map.of();
+            if (variables.containsKey(USER_ID_VARIABLE)) {
+                return "user:" + variables.get(USER_ID_VARIABLE);
+            }
+            // Nunca un parámetro de la query: con uno distinto en cada petición el cliente tendría un cubo nuevo
+            Principal principal = request.getUserPrincipal();
+            if (principal != null) {
+                return "user:" + principal.getName();
+            }
+        }
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma >= 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentLength(0);
+    }
+
+    private record Endpoint(String name, String method, PathPattern pattern, AdmissionProperties.KeySource key,
+                            TokenBucketLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter) {
+    }
+}
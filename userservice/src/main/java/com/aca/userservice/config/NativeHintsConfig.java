@@ -0,0 +1,16 @@
+package com.aca.userservice.config;
+
+import com.aca.userservice.event.UserCreatedEvent;
+import com.aca.userservice.event.UserFollowEvent;
+import com.aca.userservice.event.UserUpdatedEvent;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pistas para la imagen nativa: los eventos se serializan a JSON por reflexión al escribirlos
+ * en el outbox, fuera de lo que Spring AOT detecta en los controladores.
+ */
+@Configuration
+@RegisterReflectionForBinding({UserCreatedEvent.class, UserFollowEvent.class, UserUpdatedEvent.class})
+public class NativeHintsConfig {
+}
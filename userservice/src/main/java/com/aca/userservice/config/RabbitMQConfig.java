@@ -0,0 +1,20 @@
+package com.aca.userservice.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String USER_MUTATIONS_EXCHANGE = "user.mutations";
+
+    /**
+     * Flujo ordenado de mutaciones de usuarios (ver MutationRelay); cada consumidor enlaza su
+     * propia cola con las claves que le interesen, p. ej. {@code user.followed}.
+     */
+    @Bean
+    public TopicExchange userMutationsExchange() {
+        return new TopicExchange(USER_MUTATIONS_EXCHANGE, true, false);
+    }
+}
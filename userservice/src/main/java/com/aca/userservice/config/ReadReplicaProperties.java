@@ -0,0 +1,42 @@
+package com.aca.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de lectura de MySQL. Con {@code enabled} las transacciones readOnly se envían a las
+ * réplicas y el resto al primario definido en {@code spring.datasource}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Conexiones por réplica
+    private int replicaPoolSize = 10;
+
+    // Con más retraso que este la réplica deja de recibir lecturas hasta ponerse al día
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // Tras escribir, las lecturas del mismo cliente van al primario durante esta ventana
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
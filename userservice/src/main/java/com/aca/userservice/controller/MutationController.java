@@ -0,0 +1,43 @@
+package com.aca.userservice.controller;
+
+import com.aca.userservice.dto.MutationEventResponse;
+import com.aca.userservice.service.MutationLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/mutations")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Mutation Controller", description = "API para releer el flujo ordenado de mutaciones de usuarios")
+public class MutationController {
+
+    private final MutationLog mutationLog;
+
+    @Value("${app.mutations.max-page-size:1000}")
+    private int maxPageSize;
+
+    @GetMapping
+    @Operation(summary = "Releer mutaciones", description = "Obtiene las mutaciones publicadas después de una posición del flujo, en orden")
+    public ResponseEntity<List<MutationEventResponse>> getMutations(
+            @Parameter(description = "Última posición procesada por el consumidor") @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Número máximo de mutaciones") @RequestParam(defaultValue = "500") int limit) {
+        log.info("Solicitud de mutaciones después de la posición {} (límite {})", after, limit);
+        if (after < 0 || limit < 1 || limit > maxPageSize) {
+            log.warn("Lectura de mutaciones rechazada: after={}, limit={} (máximo {})", after, limit, maxPageSize);
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(mutationLog.readAfter(after, limit));
+    }
+}
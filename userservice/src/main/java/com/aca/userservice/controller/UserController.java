@@ -3,6 +3,8 @@ package com.aca.userservice.controller;
 import com.aca.userservice.dto.LoginRequest;
 import com.aca.userservice.dto.RegisterRequest;
 import com.aca.userservice.dto.AuthResponse;
+import com.aca.userservice.dto.AvailabilityResponse;
+import com.aca.userservice.dto.UpdateProfileRequest;
 import com.aca.userservice.model.User;
 import com.aca.userservice.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -40,6 +42,18 @@ public class UserController {
         }
     }
 
+    // Pensado para el formulario de registro: se llama mientras el usuario escribe
+    @GetMapping(value = "/availability", produces = "application/json")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String username,
+                                                                  @RequestParam(required = false) String email) {
+        username = username != null && !username.isBlank() ? username : null;
+        email = email != null && !email.isBlank() ? email : null;
+        if (username == null && email == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.checkAvailability(username, email));
+    }
+
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
         List<User> users = userService.getAllUsers();
@@ -55,4 +69,38 @@ public class UserController {
             return ResponseEntity.badRequest().body("Error al seguir usuario: " + e.getMessage());
         }
     }
+
+    @PutMapping(value = "/{userId}", produces = "application/json")
+    public ResponseEntity<AuthResponse> updateProfile(@PathVariable Long userId, @Valid @RequestBody UpdateProfileRequest request) {
+        try {
+            return ResponseEntity.ok(userService.updateProfile(userId, request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new AuthResponse("Error al actualizar el perfil: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{userId}/follow/{targetId}")
+    public ResponseEntity<String> unfollowUser(@PathVariable Long userId, @PathVariable Long targetId) {
+        try {
+            String result = userService.unfollowUser(userId, targetId);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error al dejar de seguir usuario: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/replication/snapshot")
+    public ResponseEntity<String> publishSnapshot() {
+        int published = userService.publishSnapshot();
+        return ResponseEntity.ok("Instantánea publicada para " + published + " usuarios");
+    }
+
+    @GetMapping("/{userId}/following")
+    public ResponseEntity<List<Long>> getFollowingIds(@PathVariable Long userId) {
+        try {
+            return ResponseEntity.ok(userService.getFollowingIds(userId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.aca.userservice.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Lleva al primario las consultas de solo lectura que se ejecutan dentro de {@link #call}, para las
+ * que no admiten el retraso de una réplica. A diferencia de una transacción de escritura, no cuenta
+ * como escritura: no abre la ventana de lecturas de las propias escrituras del cliente.
+ *
+ * <p>La conexión se elige en la primera sentencia de la transacción, así que esa sentencia debe
+ * ejecutarse dentro de {@link #call}.</p>
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> query) {
+        Boolean previous = FORCED.get();
+        FORCED.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                FORCED.remove();
+            }
+        }
+    }
+
+    static boolean isForced() {
+        return FORCED.get() != null;
+    }
+}
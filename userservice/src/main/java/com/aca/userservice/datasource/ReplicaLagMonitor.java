@@ -0,0 +1,65 @@
+package com.aca.userservice.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Consulta periódicamente el retraso de cada réplica ({@code SHOW REPLICA STATUS}) y la saca del
+ * reparto de lecturas si supera el máximo, si la replicación está detenida o si no responde.
+ * El usuario de la réplica necesita el privilegio REPLICATION CLIENT.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaLagMonitor {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final Duration maxLag;
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (ReadWriteRoutingDataSource.ReplicaTarget replica : routingDataSource.getReplicas()) {
+            boolean wasHealthy = replica.isHealthy();
+            Long lag = null;
+            boolean healthy;
+            try {
+                lag = secondsBehindSource(replica);
+                healthy = lag != null && lag <= maxLag.toSeconds();
+            } catch (SQLException e) {
+                log.warn("No se pudo consultar el estado de {}: {}", replica.key(), e.getMessage());
+                healthy = false;
+            }
+            replica.update(healthy, lag);
+            if (wasHealthy != healthy) {
+                if (healthy) {
+                    log.info("Réplica {} al día (retraso {}s), vuelve a recibir lecturas", replica.key(), lag);
+                } else {
+                    log.warn("Réplica {} fuera del reparto de lecturas (retraso {}s)", replica.key(), lag);
+                }
+            }
+        }
+    }
+
+    /**
+     * Segundos de retraso; null si la replicación está detenida. Un servidor que no es réplica
+     * (p. ej. el mismo MySQL en desarrollo) cuenta como sin retraso.
+     */
+    private static Long secondsBehindSource(ReadWriteRoutingDataSource.ReplicaTarget replica) throws SQLException {
+        try (Connection connection = replica.dataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!rs.next()) {
+                    return 0L;
+                }
+                long lag = rs.getLong("Seconds_Behind_Source");
+                return rs.wasNull() ? null : lag;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.aca.userservice.dto;
+
+import lombok.Data;
+
+/**
+ * Respuesta de GET /api/users/availability. Los campos de lo que no se consultó van a null.
+ */
+@Data
+public class AvailabilityResponse {
+    private String username;
+    private Boolean usernameAvailable;
+    private String email;
+    private Boolean emailAvailable;
+}
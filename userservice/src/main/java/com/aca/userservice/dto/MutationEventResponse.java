@@ -0,0 +1,23 @@
+package com.aca.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MutationEventResponse {
+
+    private Long position;
+    private String aggregateType;
+    private Long aggregateId;
+    private Long aggregateSequence;
+    private String type;
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime occurredAt;
+}
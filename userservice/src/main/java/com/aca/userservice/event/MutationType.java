@@ -0,0 +1,25 @@
+package com.aca.userservice.event;
+
+/**
+ * Tipos de mutación publicados en el flujo de cambios del user-service.
+ * Todas pertenecen al agregado "user" (el seguimiento se registra en el usuario que sigue).
+ */
+public enum MutationType {
+
+    USER_REGISTERED("user.registered"),
+    USER_UPDATED("user.updated"),
+    USER_FOLLOWED("user.followed"),
+    USER_UNFOLLOWED("user.unfollowed"),
+    // Estado completo del usuario, publicado a demanda para cargar réplicas
+    USER_SNAPSHOT("user.snapshot");
+
+    private final String routingKey;
+
+    MutationType(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+}
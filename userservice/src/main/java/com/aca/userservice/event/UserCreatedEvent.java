@@ -1,5 +1,23 @@
 package com.aca.userservice.event;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de un usuario. Solo datos públicos: el email y la contraseña no salen del servicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserCreatedEvent {
-    
+
+    private String eventId;
+    private Long userId;
+    private String username;
+    // Versión del usuario tras el cambio; los consumidores ignoran eventos con versión menor a la aplicada
+    private Long version;
+    private LocalDateTime occurredAt;
 }
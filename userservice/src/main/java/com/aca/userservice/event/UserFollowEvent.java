@@ -0,0 +1,24 @@
+package com.aca.userservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un usuario empezó (following = true) o dejó (false) de seguir a otro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFollowEvent {
+
+    private String eventId;
+    private Long userId;
+    private Long followeeId;
+    private boolean following;
+    // Versión del usuario que sigue tras el cambio
+    private Long version;
+    private LocalDateTime occurredAt;
+}
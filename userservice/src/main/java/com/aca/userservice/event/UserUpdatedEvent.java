@@ -0,0 +1,25 @@
+package com.aca.userservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cambio de perfil de un usuario. En las instantáneas (USER_SNAPSHOT) incluye además la lista
+ * completa de seguidos, para que un consumidor nuevo pueda cargar usuarios anteriores al flujo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserUpdatedEvent {
+
+    private String eventId;
+    private Long userId;
+    private String username;
+    private Long version;
+    private LocalDateTime occurredAt;
+    private List<Long> followingIds;
+}
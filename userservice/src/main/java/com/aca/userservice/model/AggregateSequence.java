@@ -0,0 +1,40 @@
+package com.aca.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Último número de secuencia asignado a cada agregado. Se incrementa con un upsert en la
+ * transacción de la escritura; el bloqueo de fila ordena las mutaciones de un mismo agregado.
+ */
+@Entity
+@Table(name = "aggregate_sequences")
+@IdClass(AggregateSequence.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregateSequence {
+
+    @Id
+    @Column(name = "aggregate_type", length = 32)
+    private String aggregateType;
+
+    @Id
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String aggregateType;
+        private Long aggregateId;
+    }
+}
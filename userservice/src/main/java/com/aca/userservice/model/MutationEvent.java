@@ -0,0 +1,55 @@
+package com.aca.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del outbox de mutaciones. Se inserta en la misma transacción que el cambio que describe
+ * y el relay la publica después en RabbitMQ, asignándole su posición en el flujo.
+ */
+@Entity
+@Table(name = "mutation_outbox",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_mutation_outbox_aggregate_seq",
+                        columnNames = {"aggregate_type", "aggregate_id", "aggregate_sequence"}),
+                @UniqueConstraint(name = "uk_mutation_outbox_stream_position", columnNames = "stream_position")
+        },
+        indexes = @Index(name = "idx_mutation_outbox_unpublished", columnList = "published_at, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MutationEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Orden global de publicación; nulo hasta que el relay la publica
+    @Column(name = "stream_position")
+    private Long streamPosition;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "aggregate_sequence", nullable = false)
+    private Long aggregateSequence;
+
+    @Column(name = "mutation_type", nullable = false, length = 32)
+    private String mutationType;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
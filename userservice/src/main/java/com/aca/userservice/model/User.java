@@ -7,6 +7,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Table(name = "user", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_user_username", columnNames = "username")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,6 +23,11 @@ public class User {
     private String email;
     private String password;
 
+    // Aumenta con cada cambio, incluidos los seguimientos; ordena los eventos de un mismo usuario
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version = 0L;
+
     @ManyToMany
     private Set<User> following = new HashSet<>();
 }
@@ -0,0 +1,14 @@
+package com.aca.userservice.repository;
+
+import com.aca.userservice.model.MutationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MutationEventRepository extends JpaRepository<MutationEvent, Long> {
+
+    List<MutationEvent> findByStreamPositionGreaterThanOrderByStreamPositionAsc(Long after, Pageable pageable);
+}
@@ -0,0 +1,239 @@
+package com.aca.userservice.service;
+
+import com.aca.userservice.event.MutationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+/**
+ * Filtro de Bloom en memoria con los nombres de usuario y emails registrados, para responder
+ * "¿está libre?" sin ir a MySQL. Un "no está" es definitivo; un "puede estar" hay que confirmarlo
+ * con una consulta de existencia sobre el índice único.
+ *
+ * <p>Se construye al arrancar leyendo la tabla {@code user} en streaming, recibe al momento los
+ * registros y cambios de nombre de esta instancia y, cada {@code app.availability.catch-up-interval},
+ * los de las demás a partir del outbox de mutaciones (por posición del flujo, ya publicada y sin
+ * huecos). Los nombres liberados siguen dentro hasta la siguiente reconstrucción completa
+ * ({@code app.availability.rebuild-interval}); mientras tanto solo cuestan una consulta más.</p>
+ *
+ * <p>Normaliza aproximando la colación de MySQL ({@code _ai_ci}): sin espacios en los extremos, en
+ * minúsculas y sin acentos. No es la colación: las equivalencias que no son acentos (p. ej. ß/ss,
+ * æ/ae) pueden dar un "no está" para un valor que MySQL considera igual a uno registrado, así que la
+ * respuesta es orientativa y quien decide es el registro, que comprueba el índice único. Mientras no
+ * se ha construido, todo cuenta como posible coincidencia.</p>
+ */
+@Service
+@Slf4j
+public class AvailabilityFilter {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final String CATCH_UP_SQL =
+            "SELECT o.stream_position, u.username, u.email FROM mutation_outbox o " +
+            "JOIN `user` u ON u.id = o.aggregate_id " +
+            "WHERE o.stream_position > ? AND o.aggregate_type = ? AND o.mutation_type IN (?, ?) " +
+            "ORDER BY o.stream_position LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final int catchUpBatchSize;
+
+    private volatile Bits bits;
+    private long lastPosition;
+
+    public AvailabilityFilter(JdbcTemplate jdbcTemplate,
+                              DataSource dataSource,
+                              @Value("${app.availability.expected-users:1000000}") long expectedUsers,
+                              @Value("${app.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${app.availability.catch-up-batch-size:1000}") int catchUpBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.catchUpBatchSize = catchUpBatchSize;
+        // Con el driver de MySQL, Integer.MIN_VALUE lee fila a fila en lugar de cargar todo el resultado
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public boolean mightContainUsername(String username) {
+        Bits current = bits;
+        return current == null || current.mightContain("u:" + normalize(username));
+    }
+
+    public boolean mightContainEmail(String email) {
+        Bits current = bits;
+        return current == null || current.mightContain("e:" + normalize(email));
+    }
+
+    public void addUsername(String username) {
+        Bits current = bits;
+        if (current != null && username != null) {
+            current.add("u:" + normalize(username));
+        }
+    }
+
+    public void addEmail(String email) {
+        Bits current = bits;
+        if (current != null && email != null) {
+            current.add("e:" + normalize(email));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void buildOnStartup() {
+        if (bits != null) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("No se pudo construir el filtro de disponibilidad, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Construye un filtro nuevo leyendo todos los usuarios y lo sustituye de golpe. La posición del
+     * flujo se toma antes de leer, así que lo que se registre durante la lectura llega con la
+     * siguiente puesta al día.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.rebuild-interval:PT6H}",
+            initialDelayString = "${app.availability.rebuild-interval:PT6H}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Long position = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(stream_position), 0) FROM mutation_outbox", Long.class);
+        Long users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM `user`", Long.class);
+        // Margen para crecer hasta la siguiente reconstrucción sin perder precisión
+        Bits fresh = new Bits(2 * Math.max(expectedUsers, 2 * (users != null ? users : 0)), falsePositiveRate);
+        streamingJdbcTemplate.query("SELECT username, email FROM `user`", rs -> {
+            String username = rs.getString("username");
+            String email = rs.getString("email");
+            if (username != null) {
+                fresh.add("u:" + normalize(username));
+            }
+            if (email != null) {
+                fresh.add("e:" + normalize(email));
+            }
+        });
+        lastPosition = position != null ? position : 0;
+        bits = fresh;
+        log.info("Filtro de disponibilidad construido con {} usuarios en {} ms ({} KB)",
+                users, System.currentTimeMillis() - start, fresh.sizeInBytes() / 1024);
+    }
+
+    /**
+     * Añade los registros y cambios de nombre publicados en el flujo desde la última lectura,
+     * incluidos los de otras instancias. Si el filtro aún no existe, lo construye.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.catch-up-interval:PT2S}")
+    public synchronized void catchUp() {
+        try {
+            if (bits == null) {
+                rebuild();
+                return;
+            }
+            List<Registration> batch;
+            do {
+                batch = jdbcTemplate.query(CATCH_UP_SQL,
+                        (rs, rowNum) -> new Registration(rs.getLong(1), rs.getString(2), rs.getString(3)),
+                        lastPosition, MutationLog.USER_AGGREGATE, MutationType.USER_REGISTERED.name(),
+                        MutationType.USER_UPDATED.name(), catchUpBatchSize);
+                for (Registration registration : batch) {
+                    addUsername(registration.username());
+                    addEmail(registration.email());
+                    lastPosition = registration.position();
+                }
+            } while (batch.size() == catchUpBatchSize);
+        } catch (Exception e) {
+            log.warn("Error al poner al día el filtro de disponibilidad: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aproximación de la colación {@code _ai_ci} en Java. Para igualarla del todo habría que normalizar
+     * con la propia base de datos ({@code WEIGHT_STRING}), a costa de una consulta por valor.
+     */
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record Registration(long position, String username, String email) {
+    }
+
+    /**
+     * Bits del filtro en un AtomicLongArray: añadir es un OR atómico por bit, sin bloqueos, y las
+     * lecturas concurrentes ven como mucho una clave a medio añadir (un "no está" que pasa a ser
+     * "puede estar" un instante después).
+     */
+    static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+
+        Bits(long expectedEntries, double falsePositiveRate) {
+            long bitCount = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (bitCount + 63) / 64));
+            this.size = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) size / expectedEntries * Math.log(2)));
+        }
+
+        void add(String key) {
+            long hash = hash(key);
+            for (int i = 0; i < hashes; i++) {
+                long bit = index(hash, i);
+                long mask = 1L << bit;
+                words.getAndAccumulate((int) (bit >>> 6), mask, (word, set) -> word | set);
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            for (int i = 0; i < hashes; i++) {
+                long bit = index(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return size / 8;
+        }
+
+        // Doble hash (Kirsch-Mitzenmacher) con las dos mitades de un hash de 64 bits
+        private long index(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return Math.floorMod(h1 + (long) i * h2, size);
+        }
+
+        // FNV-1a de 64 bits sobre los caracteres, con un mezclado final para repartir los bits
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.aca.userservice.service;
+
+import com.aca.userservice.dto.MutationEventResponse;
+import com.aca.userservice.event.MutationType;
+import com.aca.userservice.repository.MutationEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Registra mutaciones en el outbox dentro de la transacción de la escritura: si la escritura
+ * se revierte, la mutación también, y si confirma, el relay la publicará tarde o temprano.
+ */
+@Service
+@RequiredArgsConstructor
+public class MutationLog {
+
+    public static final String USER_AGGREGATE = "user";
+
+    // LAST_INSERT_ID(expr) deja el nuevo valor disponible en la misma conexión sin otra lectura
+    private static final String NEXT_SEQUENCE_SQL =
+            "INSERT INTO aggregate_sequences (aggregate_type, aggregate_id, last_sequence) " +
+            "VALUES (?, ?, LAST_INSERT_ID(1)) " +
+            "ON DUPLICATE KEY UPDATE last_sequence = LAST_INSERT_ID(last_sequence + 1)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO mutation_outbox (aggregate_type, aggregate_id, aggregate_sequence, mutation_type, payload, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MutationEventRepository mutationEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUserMutation(Long userId, MutationType type, Object payload) {
+        jdbcTemplate.update(NEXT_SEQUENCE_SQL, USER_AGGREGATE, userId);
+        Long sequence = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        jdbcTemplate.update(INSERT_SQL, USER_AGGREGATE, userId, sequence, type.name(), toJson(payload),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Mutaciones ya publicadas con posición mayor que {@code after}, en orden de posición.
+     * Permite a un consumidor reconstruir su vista o recuperar lo que perdió desde su último checkpoint.
+     */
+    @Transactional(readOnly = true)
+    public List<MutationEventResponse> readAfter(long after, int limit) {
+        return mutationEventRepository.findByStreamPositionGreaterThanOrderByStreamPositionAsc(after, PageRequest.of(0, limit))
+                .stream()
+                .map(event -> new MutationEventResponse(event.getStreamPosition(), event.getAggregateType(),
+                        event.getAggregateId(), event.getAggregateSequence(), event.getMutationType(),
+                        event.getPayload(), event.getOccurredAt()))
+                .toList();
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la mutación", e);
+        }
+    }
+}
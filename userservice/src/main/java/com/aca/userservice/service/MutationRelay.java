@@ -0,0 +1,157 @@
+package com.aca.userservice.service;
+
+import com.aca.userservice.config.RabbitMQConfig;
+import com.aca.userservice.event.MutationType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Publica las mutaciones del outbox en el exchange de mutaciones, en orden de inserción.
+ *
+ * <p>La posición global se asigna al publicar (no al insertar): una transacción que confirma
+ * tarde recibe una posición posterior en lugar de aparecer "en el pasado" de un consumidor que
+ * ya guardó su checkpoint. La entrega es al menos una vez; el messageId
+ * {@code tipo:id:secuencia} es estable entre reenvíos para que los consumidores descarten duplicados.</p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MutationRelay {
+
+    private static final String STREAM = "user-mutations";
+
+    private static final String SELECT_PENDING_SQL =
+            "SELECT id, aggregate_type, aggregate_id, aggregate_sequence, mutation_type, payload, occurred_at " +
+            "FROM mutation_outbox WHERE published_at IS NULL ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.mutations.relay-batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.mutations.confirm-timeout:10s}")
+    private Duration confirmTimeout;
+
+    @Value("${app.mutations.retention:P7D}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${app.mutations.relay-interval:PT0.5S}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                Integer count = new TransactionTemplate(transactionManager).execute(status -> publishBatch());
+                published = count != null ? count : 0;
+            } while (published == batchSize);
+        } catch (Exception e) {
+            log.error("Error al publicar mutaciones: {}", e.getMessage(), e);
+        }
+    }
+
+    private int publishBatch() {
+        jdbcTemplate.update("INSERT IGNORE INTO mutation_stream_state (stream, last_position) VALUES (?, 0)", STREAM);
+        Long lastPosition = jdbcTemplate.queryForObject(
+                "SELECT last_position FROM mutation_stream_state WHERE stream = ? FOR UPDATE", Long.class, STREAM);
+
+        List<PendingMutation> pending = jdbcTemplate.query(SELECT_PENDING_SQL, (rs, rowNum) -> new PendingMutation(
+                rs.getLong("id"),
+                rs.getString("aggregate_type"),
+                rs.getLong("aggregate_id"),
+                rs.getLong("aggregate_sequence"),
+                rs.getString("mutation_type"),
+                rs.getString("payload"),
+                rs.getTimestamp("occurred_at")), batchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        long position = lastPosition;
+        long[] positions = new long[pending.size()];
+        for (int i = 0; i < pending.size(); i++) {
+            positions[i] = ++position;
+        }
+
+        // Si RabbitMQ no confirma, la transacción se revierte y el lote se reintenta completo
+        rabbitTemplate.invoke(operations -> {
+            for (int i = 0; i < pending.size(); i++) {
+                PendingMutation mutation = pending.get(i);
+                operations.send(RabbitMQConfig.USER_MUTATIONS_EXCHANGE,
+                        MutationType.valueOf(mutation.mutationType()).getRoutingKey(),
+                        toMessage(mutation, positions[i]));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            return null;
+        });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            updates.add(new Object[]{positions[i], now, pending.get(i).id()});
+        }
+        jdbcTemplate.batchUpdate("UPDATE mutation_outbox SET stream_position = ?, published_at = ? WHERE id = ?", updates);
+        jdbcTemplate.update("UPDATE mutation_stream_state SET last_position = ? WHERE stream = ?", position, STREAM);
+        log.debug("Publicadas {} mutaciones (posición {})", pending.size(), position);
+        return pending.size();
+    }
+
+    /**
+     * Borra las mutaciones ya publicadas que superan la retención; los consumidores con un
+     * checkpoint más antiguo deben reconstruir su vista desde cero.
+     */
+    @Scheduled(cron = "${app.mutations.purge-cron:0 0 4 * * *}")
+    public void purgePublished() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM mutation_outbox WHERE published_at IS NOT NULL AND published_at < ? LIMIT 10000", cutoff);
+            total += deleted;
+        } while (deleted == 10000);
+        if (total > 0) {
+            log.info("Purgadas {} mutaciones publicadas", total);
+        }
+    }
+
+    private static Message toMessage(PendingMutation mutation, long position) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setMessageId(mutation.aggregateType() + ":" + mutation.aggregateId() + ":" + mutation.aggregateSequence());
+        properties.setType(mutation.mutationType());
+        properties.setTimestamp(mutation.occurredAt());
+        properties.setHeader("x-aggregate-type", mutation.aggregateType());
+        properties.setHeader("x-aggregate-id", mutation.aggregateId());
+        properties.setHeader("x-aggregate-sequence", mutation.aggregateSequence());
+        properties.setHeader("x-stream-position", position);
+        return MessageBuilder.withBody(mutation.payload().getBytes(StandardCharsets.UTF_8))
+                .andProperties(properties)
+                .build();
+    }
+
+    private record PendingMutation(long id, String aggregateType, long aggregateId, long aggregateSequence,
+                                   String mutationType, String payload, Date occurredAt) {
+    }
+}
@@ -8,6 +8,11 @@ import java.util.List;
 public interface UserService {
     AuthResponse register(RegisterRequest request);
     AuthResponse login(LoginRequest request);
+    AvailabilityResponse checkAvailability(String username, String email);
+    AuthResponse updateProfile(Long userId, UpdateProfileRequest request);
     String followUser(Long userId, Long targetId);
+    String unfollowUser(Long userId, Long targetId);
+    int publishSnapshot();
     List<User> getAllUsers();
+    List<Long> getFollowingIds(Long userId);
 }
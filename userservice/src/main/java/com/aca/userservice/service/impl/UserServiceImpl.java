@@ -1,36 +1,58 @@
 package com.aca.userservice.service.impl;
 
+import com.aca.userservice.datasource.PrimaryReads;
 import com.aca.userservice.dto.LoginRequest;
 import com.aca.userservice.dto.RegisterRequest;
+import com.aca.userservice.dto.UpdateProfileRequest;
 import com.aca.userservice.dto.UserDto;
 import com.aca.userservice.dto.AuthResponse;
+import com.aca.userservice.dto.AvailabilityResponse;
+import com.aca.userservice.event.MutationType;
+import com.aca.userservice.event.UserCreatedEvent;
+import com.aca.userservice.event.UserFollowEvent;
+import com.aca.userservice.event.UserUpdatedEvent;
 import com.aca.userservice.model.User;
 import com.aca.userservice.repository.UserRepository;
+import com.aca.userservice.service.AvailabilityFilter;
+import com.aca.userservice.service.MutationLog;
 import com.aca.userservice.service.UserService;
 // import com.aca.userservice.config.JwtService; // Temporalmente deshabilitado
 import lombok.RequiredArgsConstructor;
 // import org.springframework.security.crypto.password.PasswordEncoder; // Temporalmente deshabilitado
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int SNAPSHOT_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final MutationLog mutationLog;
+    private final AvailabilityFilter availabilityFilter;
+    private final PlatformTransactionManager transactionManager;
     // private final PasswordEncoder passwordEncoder; // Temporalmente deshabilitado
     // private final JwtService jwtService; // Temporalmente deshabilitado
 
     @Override
+    @Transactional
     public AuthResponse register(RegisterRequest request) {
         // Verificar si ya existe un usuario con ese email
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+        if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Ya existe un usuario con ese email: " + request.getEmail());
         }
         
         // Verificar si ya existe un usuario con ese username
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
+        if (userRepository.existsByUsername(request.getUsername())) {
             throw new RuntimeException("Ya existe un usuario con ese username: " + request.getUsername());
         }
         
@@ -39,7 +61,12 @@ public class UserServiceImpl implements UserService {
         user.setEmail(request.getEmail());
         // user.setPassword(passwordEncoder.encode(request.getPassword())); // Temporalmente deshabilitado
         user.setPassword(request.getPassword()); // Contraseña sin encriptar temporalmente
-        userRepository.save(user);
+        userRepository.saveAndFlush(user);
+        // Si la transacción se revierte queda un falso positivo, que solo cuesta una consulta
+        availabilityFilter.addUsername(user.getUsername());
+        availabilityFilter.addEmail(user.getEmail());
+        mutationLog.recordUserMutation(user.getId(), MutationType.USER_REGISTERED, new UserCreatedEvent(
+                eventId(user), user.getId(), user.getUsername(), user.getVersion(), LocalDateTime.now()));
         
         // Convertir User a UserDto
         UserDto userDto = new UserDto();
@@ -51,6 +78,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
@@ -68,17 +96,124 @@ public class UserServiceImpl implements UserService {
         return new AuthResponse("Login exitoso para: " + user.getUsername(), userDto);
     }
 
+    /**
+     * Disponibilidad de un nombre de usuario y/o un email. Solo va a la base de datos cuando el
+     * filtro en memoria dice que el valor puede estar ya registrado, y entonces consulta el primario
+     * ({@link PrimaryReads}, sin contar como escritura): una réplica con retraso daría por libre un
+     * nombre que se acaba de registrar. Es orientativa; quien decide es el registro, que vuelve a
+     * comprobar contra el índice único.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        AvailabilityResponse response = new AvailabilityResponse();
+        if (username != null) {
+            response.setUsername(username);
+            response.setUsernameAvailable(!availabilityFilter.mightContainUsername(username)
+                    || !PrimaryReads.call(() -> userRepository.existsByUsername(username.trim())));
+        }
+        if (email != null) {
+            response.setEmail(email);
+            response.setEmailAvailable(!availabilityFilter.mightContainEmail(email)
+                    || !PrimaryReads.call(() -> userRepository.existsByEmail(email.trim())));
+        }
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public AuthResponse updateProfile(Long userId, UpdateProfileRequest request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        if (!user.getUsername().equals(request.getUsername())) {
+            if (userRepository.existsByUsername(request.getUsername())) {
+                throw new RuntimeException("Ya existe un usuario con ese username: " + request.getUsername());
+            }
+            user.setUsername(request.getUsername());
+            userRepository.saveAndFlush(user);
+            availabilityFilter.addUsername(user.getUsername());
+            mutationLog.recordUserMutation(userId, MutationType.USER_UPDATED, new UserUpdatedEvent(
+                    eventId(user), userId, user.getUsername(), user.getVersion(), LocalDateTime.now(), null));
+        }
+
+        UserDto userDto = new UserDto();
+        userDto.setId(user.getId());
+        userDto.setUsername(user.getUsername());
+        userDto.setEmail(user.getEmail());
+
+        return new AuthResponse("Perfil actualizado: " + user.getUsername(), userDto);
+    }
+
     @Override
+    @Transactional
     public String followUser(Long userId, Long targetId) {
         User user = userRepository.findById(userId).orElseThrow();
         User target = userRepository.findById(targetId).orElseThrow();
-        user.getFollowing().add(target);
-        userRepository.save(user);
+        if (user.getFollowing().add(target)) {
+            // El flush incrementa la versión (la colección es del lado dueño) antes de registrar el evento
+            userRepository.saveAndFlush(user);
+            mutationLog.recordUserMutation(userId, MutationType.USER_FOLLOWED, new UserFollowEvent(
+                    eventId(user), userId, targetId, true, user.getVersion(), LocalDateTime.now()));
+        }
         return "Ahora sigues a " + target.getUsername();
     }
 
     @Override
+    @Transactional
+    public String unfollowUser(Long userId, Long targetId) {
+        User user = userRepository.findById(userId).orElseThrow();
+        User target = userRepository.findById(targetId).orElseThrow();
+        if (user.getFollowing().remove(target)) {
+            userRepository.saveAndFlush(user);
+            mutationLog.recordUserMutation(userId, MutationType.USER_UNFOLLOWED, new UserFollowEvent(
+                    eventId(user), userId, targetId, false, user.getVersion(), LocalDateTime.now()));
+        }
+        return "Dejaste de seguir a " + target.getUsername();
+    }
+
+    /**
+     * Publica el estado completo (nombre y seguidos) de todos los usuarios, por páginas y una
+     * transacción por página. Sirve para cargar una réplica nueva con usuarios anteriores al flujo.
+     */
+    @Override
+    public int publishSnapshot() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int published = 0;
+        int page = 0;
+        while (true) {
+            int pageNumber = page++;
+            Integer count = transactionTemplate.execute(status -> {
+                Page<User> users = userRepository.findAll(PageRequest.of(pageNumber, SNAPSHOT_PAGE_SIZE, Sort.by("id")));
+                for (User user : users) {
+                    mutationLog.recordUserMutation(user.getId(), MutationType.USER_SNAPSHOT, new UserUpdatedEvent(
+                            eventId(user) + "-snapshot", user.getId(), user.getUsername(), user.getVersion(),
+                            LocalDateTime.now(), userRepository.findFollowingIds(user.getId())));
+                }
+                return users.getNumberOfElements();
+            });
+            published += count;
+            if (count < SNAPSHOT_PAGE_SIZE) {
+                return published;
+            }
+        }
+    }
+
+    private static String eventId(User user) {
+        return "user-" + user.getId() + "-v" + user.getVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getFollowingIds(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("Usuario no encontrado");
+        }
+        return userRepository.findFollowingIds(userId);
+    }
 }
@@ -0,0 +1,19 @@
+-- Esquema de partida: el que generaba Hibernate con ddl-auto=update antes de las migraciones.
+-- En una base ya creada por Hibernate esta versión no se ejecuta (baseline-on-migrate con versión 1);
+-- los cambios posteriores van cada uno en su propia versión.
+
+CREATE TABLE `user` (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255),
+    email    VARCHAR(255),
+    password VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_following (
+    user_id      BIGINT NOT NULL,
+    following_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, following_id),
+    CONSTRAINT fk_user_following_user FOREIGN KEY (user_id) REFERENCES `user` (id),
+    CONSTRAINT fk_user_following_following FOREIGN KEY (following_id) REFERENCES `user` (id)
+) ENGINE = InnoDB;
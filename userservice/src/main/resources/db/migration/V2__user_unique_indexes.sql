@@ -0,0 +1,9 @@
+-- El login busca por email y el registro comprueba email y nombre de usuario: índices únicos,
+-- que además impiden duplicados que hoy solo evita la comprobación previa del servicio.
+-- Falla si ya hay duplicados; hay que resolverlos antes de migrar.
+-- Online DDL: la tabla sigue aceptando lecturas y escrituras mientras se construye el índice.
+
+ALTER TABLE `user`
+    ADD UNIQUE INDEX uk_user_email (email),
+    ADD UNIQUE INDEX uk_user_username (username),
+    ALGORITHM = INPLACE, LOCK = NONE;
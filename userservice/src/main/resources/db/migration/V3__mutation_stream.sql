@@ -0,0 +1,31 @@
+-- Flujo ordenado de mutaciones: outbox con posición global, secuencia por agregado y posición
+-- publicada del flujo.
+
+CREATE TABLE mutation_outbox (
+    id                 BIGINT      NOT NULL AUTO_INCREMENT,
+    stream_position    BIGINT,
+    aggregate_type     VARCHAR(32) NOT NULL,
+    aggregate_id       BIGINT      NOT NULL,
+    aggregate_sequence BIGINT      NOT NULL,
+    mutation_type      VARCHAR(32) NOT NULL,
+    payload            TEXT        NOT NULL,
+    occurred_at        DATETIME(6) NOT NULL,
+    published_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_mutation_outbox_aggregate_seq UNIQUE (aggregate_type, aggregate_id, aggregate_sequence),
+    CONSTRAINT uk_mutation_outbox_stream_position UNIQUE (stream_position),
+    INDEX idx_mutation_outbox_unpublished (published_at, id)
+) ENGINE = InnoDB;
+
+CREATE TABLE aggregate_sequences (
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id   BIGINT      NOT NULL,
+    last_sequence  BIGINT      NOT NULL,
+    PRIMARY KEY (aggregate_type, aggregate_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE mutation_stream_state (
+    stream        VARCHAR(32) NOT NULL,
+    last_position BIGINT      NOT NULL,
+    PRIMARY KEY (stream)
+) ENGINE = InnoDB;
@@ -0,0 +1,5 @@
+-- Versión de cada usuario (@Version), que también ordena sus eventos: las filas existentes empiezan en 0.
+
+ALTER TABLE `user`
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ALGORITHM = INSTANT;
@@ -0,0 +1,96 @@
+package com.aca.userservice;
+
+import com.aca.userservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba contra MySQL que el login, el registro y los seguidos usan índice: siembra usuarios,
+ * ejecuta cada consulta y revisa {@code NO_INDEX_USED} en {@code performance_schema}.
+ *
+ * <p>Necesita una base real ({@code SPRING_DATASOURCE_URL}); se ejecuta con {@code mvn -Pquery-plans verify}.</p>
+ */
+@SpringBootTest(properties = "spring.rabbitmq.listener.simple.auto-startup=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanIT {
+
+    // Rango de IDs propio para no tocar datos existentes
+    private static final long FIRST_ID = 9_000_000_000L;
+    private static final int USERS = 2000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        List<Object[]> users = new ArrayList<>(USERS);
+        List<Object[]> follows = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{FIRST_ID + i, "plan" + i, "plan" + i + "@example.com", "x"});
+            if (i > 0 && i % 10 == 0) {
+                follows.add(new Object[]{FIRST_ID, FIRST_ID + i});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO `user` (id, username, email, password, version) VALUES (?, ?, ?, ?, 0)",
+                users);
+        jdbcTemplate.batchUpdate("INSERT INTO user_following (user_id, following_id) VALUES (?, ?)", follows);
+        jdbcTemplate.execute("ANALYZE TABLE `user`, user_following");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM user_following WHERE user_id >= ? OR following_id >= ?", FIRST_ID, FIRST_ID);
+        jdbcTemplate.update("DELETE FROM `user` WHERE id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void loginPorEmailUsaIndice() {
+        assertUsesIndex(() -> userRepository.findByEmail("plan1234@example.com"));
+    }
+
+    @Test
+    void busquedaPorUsernameUsaIndice() {
+        assertUsesIndex(() -> userRepository.findByUsername("plan1234"));
+    }
+
+    @Test
+    void seguidosUsanIndice() {
+        assertUsesIndex(() -> userRepository.findFollowingIds(FIRST_ID));
+    }
+
+    /**
+     * Ejecuta la consulta en una transacción (una sola conexión) y falla si alguna SELECT que lanzó
+     * recorrió una tabla completa.
+     */
+    private void assertUsesIndex(Runnable query) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Long marker = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(EVENT_ID), 0) " +
+                    "FROM performance_schema.events_statements_history WHERE THREAD_ID = PS_CURRENT_THREAD_ID()",
+                    Long.class);
+            query.run();
+            List<String> fullScans = jdbcTemplate.queryForList("SELECT SQL_TEXT " +
+                    "FROM performance_schema.events_statements_history WHERE THREAD_ID = PS_CURRENT_THREAD_ID() " +
+                    "AND EVENT_ID > ? AND LOWER(SQL_TEXT) LIKE 'select%' AND NO_INDEX_USED = 1", String.class, marker);
+            assertTrue(fullScans.isEmpty(), "Consultas sin índice: " + fullScans);
+        });
+    }
+}
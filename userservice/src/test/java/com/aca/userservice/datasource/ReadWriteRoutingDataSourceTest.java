@@ -0,0 +1,62 @@
+package com.aca.userservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        // Los pools no abren conexiones hasta que se piden
+        routing = new ReadWriteRoutingDataSource(new HikariDataSource(), List.of(new HikariDataSource()), Duration.ofSeconds(5));
+        routing.getReplicas().get(0).update(true, 0L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void lasLecturasVanALaReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void lasLecturasForzadasVanAlPrimarioSinContarComoEscritura() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, PrimaryReads.call(routing::determineCurrentLookupKey));
+        assertNull(response.getCookie(ReadYourWrites.COOKIE));
+
+        // Fuera del bloque la transacción vuelve a leer de la réplica
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void lasEscriturasVanAlPrimarioYAbrenLaVentana() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        assertNotNull(response.getCookie(ReadYourWrites.COOKIE));
+    }
+}
@@ -0,0 +1,44 @@
+package com.aca.userservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityFilterTest {
+
+    private static final int ENTRIES = 100_000;
+
+    @Test
+    void noHayFalsosNegativos() {
+        AvailabilityFilter.Bits bits = new AvailabilityFilter.Bits(ENTRIES, 0.01);
+        for (int i = 0; i < ENTRIES; i++) {
+            bits.add("u:usuario" + i);
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(bits.mightContain("u:usuario" + i), "Falta usuario" + i);
+        }
+    }
+
+    @Test
+    void laTasaDeFalsosPositivosSeAcercaALaConfigurada() {
+        AvailabilityFilter.Bits bits = new AvailabilityFilter.Bits(ENTRIES, 0.01);
+        for (int i = 0; i < ENTRIES; i++) {
+            bits.add("u:usuario" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < ENTRIES; i++) {
+            if (bits.mightContain("u:otro" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / ENTRIES;
+        assertTrue(rate < 0.015, "Tasa de falsos positivos " + rate);
+    }
+
+    @Test
+    void normalizaComoLaColacionSinMayusculasNiAcentos() {
+        assertEquals("jose.nunez", AvailabilityFilter.normalize("  José.Núñez "));
+        assertEquals(AvailabilityFilter.normalize("MARÍA"), AvailabilityFilter.normalize("maria"));
+    }
+}